@@ -12,7 +12,8 @@ BEGIN
     FROM  appointment a
         JOIN doctor d ON a.doctor_id = d.id
         JOIN patient p ON a.patient_id = p.id
-    WHERE DATE(a.appointment_time) = report_date
+    -- half-open range instead of DATE(a.appointment_time) = report_date, so the index on appointment_time is used
+    WHERE a.appointment_time >= report_date AND a.appointment_time < report_date + INTERVAL 1 DAY
     ORDER BY d.name, a.appointment_time;
 END$$
 
@@ -1,5 +1,7 @@
 DELIMITER $$
 
+-- Reads the appointment counts maintained by the application in doctor_appointment_count
+-- instead of grouping the whole appointment table on every call.
 CREATE PROCEDURE GetDoctorWithMostPatientsByMonth(
     IN input_month INT, 
     IN input_year INT
@@ -7,14 +9,12 @@ CREATE PROCEDURE GetDoctorWithMostPatientsByMonth(
 BEGIN
     SELECT
         doctor_id, 
-        COUNT(patient_id) AS patients_seen
+        appointment_count AS patients_seen
     FROM
-        appointment
+        doctor_appointment_count
     WHERE
-        MONTH(appointment_time) = input_month 
-        AND YEAR(appointment_time) = input_year
-    GROUP BY
-        doctor_id
+        rollup_year = input_year
+        AND rollup_month = input_month
     ORDER BY
         patients_seen DESC
     LIMIT 1;
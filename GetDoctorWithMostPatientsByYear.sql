@@ -1,18 +1,19 @@
 DELIMITER $$
 
+-- Reads the appointment counts maintained by the application in doctor_appointment_count,
+-- month 0 holds the count of the whole year.
 CREATE PROCEDURE GetDoctorWithMostPatientsByYear(
     IN input_year INT
 )
 BEGIN
     SELECT
         doctor_id, 
-        COUNT(patient_id) AS patients_seen
+        appointment_count AS patients_seen
     FROM
-        appointment
+        doctor_appointment_count
     WHERE
-        YEAR(appointment_time) = input_year
-    GROUP BY
-        doctor_id
+        rollup_year = input_year
+        AND rollup_month = 0
     ORDER BY
         patients_seen DESC
     LIMIT 1;
@@ -20,4 +21,4 @@ END $$
 
 DELIMITER ;
 
-CALL GetDoctorWithMostPatientsByYear(2025);
\ No newline at end of file
+CALL GetDoctorWithMostPatientsByYear(2025);
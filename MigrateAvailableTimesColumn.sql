@@ -0,0 +1,19 @@
+/*
+  Doctor.availableTimes is stored in a single available_times column of the doctor table
+  (comma separated slots, e.g. '09:00-10:00,10:00-11:00') instead of the doctor_available_times join table.
+  Run once on an existing database, before starting the application.
+*/
+
+USE cms;
+
+ALTER TABLE doctor ADD COLUMN available_times VARCHAR(512) NOT NULL DEFAULT '';
+
+UPDATE doctor d
+SET d.available_times = COALESCE((
+    SELECT GROUP_CONCAT(DISTINCT t.available_times ORDER BY t.available_times SEPARATOR ',')
+    FROM doctor_available_times t
+    WHERE t.doctor_id = d.id), '');
+
+ALTER TABLE doctor ALTER COLUMN available_times DROP DEFAULT;
+
+DROP TABLE doctor_available_times;
@@ -0,0 +1,18 @@
+/*
+  Prescription.appointmentId is unique: the idx_prescription_appointment index is created with unique = true,
+  so a second prescription for an appointment is rejected by MongoDB even when two are saved concurrently.
+  Run once on an existing database with mongosh, before starting the application:
+  the former non-unique index of the same name is dropped, and appointments that already have several
+  prescriptions are listed; keep one of each and delete the others, or the unique index can't be built.
+*/
+
+db = db.getSiblingDB("prescriptions");
+
+if (db.prescriptions.getIndexes().some(index => index.name === "idx_prescription_appointment" && !index.unique)) {
+    db.prescriptions.dropIndex("idx_prescription_appointment");
+}
+
+db.prescriptions.aggregate([
+    { $group: { _id: "$appointmentId", count: { $sum: 1 }, ids: { $push: "$_id" } } },
+    { $match: { count: { $gt: 1 } } }
+]).forEach(duplicate => printjson(duplicate));
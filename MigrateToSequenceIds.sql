@@ -0,0 +1,24 @@
+/*
+  Entity ids are generated from per-entity pooled sequences instead of AUTO_INCREMENT columns.
+  MySQL has no sequences, so Hibernate keeps them in <entity>_seq tables with a single next_val row.
+  Run once on an existing database, before starting the application, so that new ids don't collide
+  with the rows that are already there. The +51 leaves room for one pooled block of 50 ids.
+*/
+
+USE cms;
+
+CREATE TABLE IF NOT EXISTS admin_seq (next_val BIGINT);
+DELETE FROM admin_seq;
+INSERT INTO admin_seq (next_val) SELECT COALESCE(MAX(id), 0) + 51 FROM admin;
+
+CREATE TABLE IF NOT EXISTS doctor_seq (next_val BIGINT);
+DELETE FROM doctor_seq;
+INSERT INTO doctor_seq (next_val) SELECT COALESCE(MAX(id), 0) + 51 FROM doctor;
+
+CREATE TABLE IF NOT EXISTS patient_seq (next_val BIGINT);
+DELETE FROM patient_seq;
+INSERT INTO patient_seq (next_val) SELECT COALESCE(MAX(id), 0) + 51 FROM patient;
+
+CREATE TABLE IF NOT EXISTS appointment_seq (next_val BIGINT);
+DELETE FROM appointment_seq;
+INSERT INTO appointment_seq (next_val) SELECT COALESCE(MAX(id), 0) + 51 FROM appointment;
@@ -0,0 +1,65 @@
+package com.project.back_end.benchmark;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.project.back_end.models.Appointment;
+import com.project.back_end.models.Doctor;
+import com.project.back_end.models.Patient;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JSON serialization of a single appointment and of a doctor's day of appointments,
+ * with the object mapper configured like the one Spring MVC writes responses with.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AppointmentJsonBenchmark {
+
+    private ObjectMapper objectMapper;
+    private Appointment appointment;
+    private List<Appointment> day;
+
+    @Setup
+    public void setUp() {
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        final Doctor doctor = Fixtures.doctors(1).get(0);
+        day = new ArrayList<>();
+        for (int hour = 8; hour < 18; hour++) {
+            final Patient patient = new Patient("Patient " + hour, "patient" + hour + "@example.com", "pass12345",
+                    "555-202-3030", hour + " Main Street");
+            patient.setId((long) hour);
+            final Appointment booked = new Appointment(doctor, patient, Fixtures.BASE.plusHours(hour));
+            booked.setId((long) hour);
+            day.add(booked);
+        }
+        appointment = day.get(0);
+    }
+
+    @Benchmark
+    public byte[] serializeAppointment() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(appointment);
+    }
+
+    @Benchmark
+    public byte[] serializeDay() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(day);
+    }
+}
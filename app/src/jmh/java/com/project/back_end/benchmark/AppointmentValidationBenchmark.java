@@ -0,0 +1,75 @@
+package com.project.back_end.benchmark;
+
+import com.project.back_end.models.Appointment;
+import com.project.back_end.models.Doctor;
+import com.project.back_end.models.Patient;
+import com.project.back_end.services.DoctorSlotIndex;
+import com.project.back_end.services.Service;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link Service#validateAppointment(Appointment)} for booking requests spread over all doctors and over the days
+ * their appointments cover. Every requested day is loaded into the slot index during setup,
+ * so this measures the steady state of a warm index.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class AppointmentValidationBenchmark {
+
+    private static final int REQUESTS = 1 << 16;
+
+    @Param("10000")
+    public int doctors;
+
+    @Param("10000000")
+    public long appointments;
+
+    private Service service;
+    private Appointment[] requests;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        final List<Doctor> fixture = Fixtures.doctors(doctors);
+        final int[][] hours = Fixtures.appointmentHours(fixture, appointments);
+        final DoctorSlotIndex doctorSlotIndex = new DoctorSlotIndex(
+                Fixtures.doctorRepository(fixture), Fixtures.appointmentRepository(hours));
+        service = new Service(null, doctorSlotIndex, null, null, null, null);
+
+        final Random random = new Random(11);
+        final Patient patient = new Patient();
+        patient.setId(1L);
+        requests = new Appointment[REQUESTS];
+        for (int i = 0; i < REQUESTS; i++) {
+            final int d = random.nextInt(doctors);
+            final int[] booked = hours[d];
+            final int days = booked.length == 0 ? 1 : booked[booked.length - 1] / 24 + 1;
+            requests[i] = new Appointment(fixture.get(d), patient,
+                    Fixtures.BASE.plusDays(random.nextInt(days)).plusHours(8 + random.nextInt(10)));
+            service.validateAppointment(requests[i]);
+        }
+    }
+
+    @Benchmark
+    public int validateAppointment() {
+        return service.validateAppointment(requests[next = (next + 1) & (REQUESTS - 1)]);
+    }
+}
@@ -0,0 +1,62 @@
+package com.project.back_end.benchmark;
+
+import com.project.back_end.models.AvailableTimes;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalTime;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A doctor's hour bitmask, derived by parsing the slot strings as before {@link AvailableTimes}
+ * against reading the one it precomputes.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AvailableTimesBenchmark {
+
+    private static final List<String> SLOTS = List.of("09:00-10:00", "10:00-11:00", "14:00-15:00", "15:00-16:00");
+
+    private Set<String> slots;
+    private AvailableTimes availableTimes;
+
+    @Setup
+    public void setUp() {
+        slots = new HashSet<>(SLOTS);
+        availableTimes = AvailableTimes.of(SLOTS);
+    }
+
+    @Benchmark
+    public int parsedHourMask() {
+        int mask = 0;
+        for (String slot : slots) {
+            final int dash = slot.indexOf('-');
+            final int start = LocalTime.parse(slot.substring(0, dash)).getHour();
+            final int end = LocalTime.parse(slot.substring(dash + 1)).getHour();
+            for (int hour = start; hour < end; hour++) {
+                mask |= 1 << hour;
+            }
+        }
+        return mask;
+    }
+
+    @Benchmark
+    public int precomputedHourMask() {
+        return availableTimes.hourMask();
+    }
+}
@@ -0,0 +1,86 @@
+package com.project.back_end.benchmark;
+
+import com.project.back_end.BackEndApplication;
+import com.project.back_end.services.SeedLoader;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Time to insert one mysql_data.sql sample times scale through {@link SeedLoader}, with JDBC batches of
+ * batchSize rows; a batch size of 1 sends an INSERT per row, as with identity ids. <br>
+ * The application runs with the test configuration, i.e. on in-memory H2. For MySQL, pass its URL, e.g.
+ * <pre>-Djmh.args="BulkLoadBenchmark -p url=jdbc:mysql://localhost/cms?rewriteBatchedStatements=true"</pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 10)
+@Fork(1)
+public class BulkLoadBenchmark {
+
+    @Param({"1", "1000"})
+    public int batchSize;
+
+    /** Multiple of the sample size: 25 doctors, 25 patients and 130 appointments. */
+    @Param("40")
+    public int scale;
+
+    /** JDBC URL, empty for the test database. */
+    @Param("")
+    public String url;
+
+    private ConfigurableApplicationContext context;
+    private SeedLoader seedLoader;
+
+    /**
+     * Rows inserted, divided by the measured time in the report.
+     */
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    @State(Scope.Thread)
+    public static class Rows {
+        public long rows;
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        final SpringApplicationBuilder builder = new SpringApplicationBuilder(BackEndApplication.class)
+                .web(WebApplicationType.NONE)
+                .properties("spring.jpa.properties.hibernate.generate_statistics=false",
+                        "logging.level.root=WARN");
+        if (!url.isEmpty()) {
+            builder.properties("spring.datasource.url=" + url);
+        }
+        context = builder.run();
+        seedLoader = context.getBean(SeedLoader.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public SeedLoader.LoadResult load(Rows rows) {
+        final SeedLoader.LoadResult result = seedLoader.load(25 * scale, 25 * scale, 130 * scale, batchSize);
+        rows.rows += (long) result.doctors() + result.patients() + result.appointments();
+        return result;
+    }
+}
@@ -0,0 +1,62 @@
+package com.project.back_end.benchmark;
+
+import com.project.back_end.services.DoctorSearchIndex;
+import com.project.back_end.services.DoctorService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link DoctorService#filterDoctors(String, String, String)} with the AM/PM filter alone
+ * and combined with the specialty and name filters, over all doctors.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DoctorFilterBenchmark {
+
+    @Param("10000")
+    public int doctors;
+
+    @Param({"AM", "PM"})
+    public String time;
+
+    private DoctorService doctorService;
+
+    @Setup
+    public void setUp() {
+        final DoctorSearchIndex doctorSearchIndex =
+                new DoctorSearchIndex(Fixtures.doctorRepository(Fixtures.doctors(doctors)));
+        doctorService = new DoctorService(null, null, null, null, doctorSearchIndex, null, null, null);
+        doctorService.filterDoctors(null, null, null);
+    }
+
+    @Benchmark
+    public Map<String, Object> filterByTime() {
+        return doctorService.filterDoctors("null", "null", time);
+    }
+
+    @Benchmark
+    public Map<String, Object> filterBySpecialtyAndTime() {
+        return doctorService.filterDoctors("null", "Cardiologist", time);
+    }
+
+    @Benchmark
+    public Map<String, Object> filterByNameAndTime() {
+        return doctorService.filterDoctors("adams", "null", time);
+    }
+}
@@ -0,0 +1,192 @@
+package com.project.back_end.benchmark;
+
+import com.project.back_end.models.Doctor;
+import com.project.back_end.repo.AppointmentRepository;
+import com.project.back_end.repo.DoctorRepository;
+
+import java.lang.reflect.Proxy;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Random;
+import java.util.Set;
+
+/**
+ * Deterministic, realistically sized data for the benchmarks, served by in-memory repositories. <br>
+ * The repositories are plain proxies rather than mocks, so a lookup costs about what a cache hit would
+ * and doesn't drown the code under test in mock bookkeeping.
+ */
+final class Fixtures {
+
+    static final String SECRET = "0123456789abcdef0123456789abcdef0123456789abcdef";
+
+    /** Midnight of the first day with appointments, appointments must lie in the future. */
+    static final LocalDateTime BASE = LocalDate.now().plusDays(1).atStartOfDay();
+
+    private static final String[] FIRST_NAMES = {"Emily", "Mark", "Sarah", "Tom", "Alice", "David", "Olivia", "Henry",
+            "Grace", "Liam", "Sophia", "Noah", "Ava", "James", "Mia", "Lucas", "Chloe", "Ethan", "Zoe", "Ryan"};
+    private static final String[] LAST_NAMES = {"Adams", "Johnson", "Lee", "Wilson", "Brown", "Taylor", "White",
+            "Davis", "Miller", "Moore", "Clark", "Hall", "Lewis", "Young", "King", "Wright", "Scott", "Green",
+            "Baker", "Nelson", "Carter", "Mitchell", "Roberts", "Turner", "Phillips", "Campbell", "Parker", "Evans"};
+    private static final String[] SPECIALTIES = {"Cardiologist", "Dermatologist", "Neurologist", "Pediatrician",
+            "Orthopedic", "Gynecologist", "Psychiatrist", "Dentist", "Ophthalmologist", "ENT", "Urologist",
+            "Oncologist", "Gastroenterologist", "General Physician"};
+
+    private Fixtures() {
+    }
+
+    /**
+     * @param count number of doctors
+     * @return active doctors with ids 1..count and 4 to 8 hourly slots between 08:00 and 18:00
+     */
+    static List<Doctor> doctors(int count) {
+        final Random random = new Random(42);
+        final List<Doctor> doctors = new ArrayList<>(count);
+        for (int i = 1; i <= count; i++) {
+            final Doctor doctor = new Doctor(
+                    "Dr. " + FIRST_NAMES[random.nextInt(FIRST_NAMES.length)] + " "
+                            + LAST_NAMES[random.nextInt(LAST_NAMES.length)],
+                    "dr" + i + "@example.com", "pass12345", "555-101-2020",
+                    SPECIALTIES[random.nextInt(SPECIALTIES.length)]);
+            doctor.setId((long) i);
+            final Set<String> slots = new HashSet<>();
+            final int slotCount = 4 + random.nextInt(5);
+            while (slots.size() < slotCount) {
+                final int hour = 8 + random.nextInt(10);
+                slots.add(String.format("%02d:00-%02d:00", hour, hour + 1));
+            }
+            doctor.setAvailableTimes(slots);
+            doctors.add(doctor);
+        }
+        return doctors;
+    }
+
+    /**
+     * Books about 70% of the doctors' available hours, day after day from {@link #BASE},
+     * until every doctor has its share of the appointments.
+     * @param doctors doctors from {@link #doctors(int)}
+     * @param count total number of appointments
+     * @return appointment start times per doctor, index = doctor id - 1, as sorted hours since {@link #BASE}
+     */
+    static int[][] appointmentHours(List<Doctor> doctors, long count) {
+        final Random random = new Random(7);
+        final int[][] hours = new int[doctors.size()][];
+        for (int d = 0; d < doctors.size(); d++) {
+            final int mask = doctors.get(d).getAvailableHours();
+            final int perDoctor = (int) (count / doctors.size() + (d < count % doctors.size() ? 1 : 0));
+            final int[] booked = new int[perDoctor];
+            int n = 0;
+            for (int day = 0; n < perDoctor; day++) {
+                for (int hour = 0; hour < 24 && n < perDoctor; hour++) {
+                    if ((mask & 1 << hour) != 0 && random.nextInt(10) < 7) {
+                        booked[n++] = day * 24 + hour;
+                    }
+                }
+            }
+            hours[d] = booked;
+        }
+        return hours;
+    }
+
+    /**
+     * @param doctors doctors from {@link #doctors(int)}
+     * @return repository answering findById, findAll and findByEmail
+     */
+    static DoctorRepository doctorRepository(List<Doctor> doctors) {
+        final Map<String, Doctor> byEmail = new HashMap<>();
+        for (Doctor doctor : doctors) {
+            byEmail.put(doctor.getEmail(), doctor);
+        }
+        return repository(DoctorRepository.class, (name, args) -> switch (name) {
+            case "findById" -> {
+                final long id = (Long) args[0];
+                yield id >= 1 && id <= doctors.size() ? Optional.of(doctors.get((int) id - 1)) : Optional.empty();
+            }
+            case "findAll" -> doctors;
+            case "findByEmail" -> byEmail.get((String) args[0]);
+            default -> throw new UnsupportedOperationException(name);
+        });
+    }
+
+    /**
+     * @param hours appointment hours from {@link #appointmentHours(List, long)}
+     * @return repository answering findAppointmentTimes
+     */
+    static AppointmentRepository appointmentRepository(int[][] hours) {
+        return repository(AppointmentRepository.class, (name, args) -> {
+            if (!name.equals("findAppointmentTimes")) {
+                throw new UnsupportedOperationException(name);
+            }
+            final int doctor = (int) (long) (Long) args[0] - 1;
+            if (doctor < 0 || doctor >= hours.length) {
+                return List.of();
+            }
+            final int[] booked = hours[doctor];
+            final int from = (int) ChronoUnit.HOURS.between(BASE, (LocalDateTime) args[1]);
+            final int to = (int) ChronoUnit.HOURS.between(BASE, (LocalDateTime) args[2]);
+            final List<LocalDateTime> times = new ArrayList<>();
+            int i = Arrays.binarySearch(booked, from);
+            for (i = i < 0 ? -i - 1 : i; i < booked.length && booked[i] < to; i++) {
+                times.add(BASE.plusHours(booked[i]));
+            }
+            return times;
+        });
+    }
+
+    /**
+     * @param count number of patients
+     * @return [patient id, patient name] rows with ids 1..count, the names ending in a base-36 number unique to
+     * the patient, see {@link #patientSuffix(long)}
+     */
+    static List<Object[]> patientNames(int count) {
+        final Random random = new Random(11);
+        final List<Object[]> rows = new ArrayList<>(count);
+        for (long id = 1; id <= count; id++) {
+            rows.add(new Object[]{id, FIRST_NAMES[random.nextInt(FIRST_NAMES.length)] + " "
+                    + LAST_NAMES[random.nextInt(LAST_NAMES.length)] + " " + patientSuffix(id)});
+        }
+        return rows;
+    }
+
+    /**
+     * @param id patient's id
+     * @return the number ending the name of the patient from {@link #patientNames(int)}
+     */
+    static String patientSuffix(long id) {
+        return Long.toString(id * 7919, 36);
+    }
+
+    /**
+     * @param names rows from {@link #patientNames(int)}
+     * @return repository answering findPatientNamesByDoctorId with these patients for every doctor
+     */
+    static AppointmentRepository patientNameRepository(List<Object[]> names) {
+        return repository(AppointmentRepository.class, (name, args) -> {
+            if (!name.equals("findPatientNamesByDoctorId")) {
+                throw new UnsupportedOperationException(name);
+            }
+            return names;
+        });
+    }
+
+    private interface Handler {
+        Object invoke(String method, Object[] args);
+    }
+
+    private static <T> T repository(Class<T> type, Handler handler) {
+        return type.cast(Proxy.newProxyInstance(Fixtures.class.getClassLoader(), new Class<?>[]{type},
+                (proxy, method, args) -> switch (method.getName()) {
+                    case "toString" -> type.getSimpleName() + " fixture";
+                    case "hashCode" -> System.identityHashCode(proxy);
+                    case "equals" -> proxy == args[0];
+                    default -> handler.invoke(method.getName(), args);
+                }));
+    }
+}
@@ -0,0 +1,59 @@
+package com.project.back_end.benchmark;
+
+import com.project.back_end.services.PasswordHasher;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of a password hash and of a login's verification at several password.hash.iterations,
+ * including the hand-off to the hashing executor, for picking a cost that fits the login latency budget.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PasswordHashBenchmark {
+
+    private static final String PASSWORD = "pass12345";
+
+    @Param({"100000", "210000", "600000"})
+    public int iterations;
+
+    private PasswordHasher passwordHasher;
+    private String stored;
+
+    @Setup
+    public void setUp() {
+        passwordHasher = new PasswordHasher(iterations, 1, 1);
+        stored = passwordHasher.hash(PASSWORD).join();
+    }
+
+    @TearDown
+    public void tearDown() {
+        passwordHasher.destroy();
+    }
+
+    @Benchmark
+    public String hash() {
+        return passwordHasher.hash(PASSWORD).join();
+    }
+
+    @Benchmark
+    public boolean verify() {
+        return passwordHasher.verify(PASSWORD, stored, rehash -> { }).join();
+    }
+}
@@ -0,0 +1,68 @@
+package com.project.back_end.benchmark;
+
+import com.project.back_end.services.PatientNameIndex;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A doctor dashboard's patient-name search in {@link PatientNameIndex} at several numbers of patients:
+ * a rare substring and a name prefix, narrowed down by trigrams, and a two-character fragment, which scans
+ * every name.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PatientNameSearchBenchmark {
+
+    private static final Long DOCTOR_ID = 1L;
+
+    @Param({"10000", "1000000"})
+    public int patients;
+
+    private PatientNameIndex index;
+    private String substring;
+    private String prefix;
+
+    @Setup
+    public void setUp() {
+        final List<Object[]> names = Fixtures.patientNames(patients);
+        index = new PatientNameIndex(Fixtures.patientNameRepository(names), 2L * patients, Runnable::run);
+        final int middle = patients / 2;
+        substring = Fixtures.patientSuffix(middle + 1).substring(1);
+        final String name = (String) names.get(middle)[1];
+        prefix = name.substring(0, name.length() - 2);
+        if (index.search(DOCTOR_ID, substring).length == 0 || index.search(DOCTOR_ID, prefix).length == 0) {
+            throw new IllegalStateException("fixture fragments don't match");
+        }
+    }
+
+    @Benchmark
+    public long[] substring() {
+        return index.search(DOCTOR_ID, substring);
+    }
+
+    @Benchmark
+    public long[] prefix() {
+        return index.search(DOCTOR_ID, prefix);
+    }
+
+    @Benchmark
+    public long[] shortFragment() {
+        return index.search(DOCTOR_ID, "an");
+    }
+}
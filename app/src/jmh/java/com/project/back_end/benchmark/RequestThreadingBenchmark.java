@@ -0,0 +1,128 @@
+package com.project.back_end.benchmark;
+
+import com.project.back_end.BackEndApplication;
+import com.project.back_end.models.Appointment;
+import com.project.back_end.models.Doctor;
+import com.project.back_end.models.Patient;
+import com.project.back_end.repo.AppointmentRepository;
+import com.project.back_end.repo.DoctorRepository;
+import com.project.back_end.repo.PatientRepository;
+import com.project.back_end.services.TokenService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * End-to-end requests per second and latency percentiles of the doctor's appointment list and of a prescription
+ * lookup, with 256 concurrent clients against the whole application on Tomcat,
+ * served by platform threads (a pool of server.tomcat.threads.max) or by a virtual thread per request. <br>
+ * The application runs with the test configuration, i.e. on in-memory H2; prescriptions need a local MongoDB.
+ * Virtual threads need Java 21 or later: <pre>-Djmh.args="RequestThreadingBenchmark -p threads=platform,virtual"</pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Threads(256)
+@Fork(1)
+public class RequestThreadingBenchmark {
+
+    private static final int APPOINTMENTS = 8;
+
+    /** "platform" or "virtual". */
+    @Param("platform")
+    public String threads;
+
+    /** Size of Tomcat's pool with platform threads. */
+    @Param("200")
+    public int tomcatThreads;
+
+    /** "appointments" or "prescription", the latter needs MongoDB on localhost:27017. */
+    @Param("appointments")
+    public String endpoint;
+
+    private ConfigurableApplicationContext context;
+    private HttpClient client;
+    private URI uri;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        final boolean virtual = "virtual".equals(threads);
+        if (virtual && Runtime.version().feature() < 21) {
+            throw new IllegalStateException("Virtual threads need Java 21 or later");
+        }
+        context = new SpringApplicationBuilder(BackEndApplication.class)
+                .properties("server.port=0",
+                        "spring.threads.virtual.enabled=" + virtual,
+                        "server.tomcat.threads.max=" + tomcatThreads,
+                        "spring.jpa.properties.hibernate.generate_statistics=false",
+                        "logging.level.root=WARN")
+                .run();
+
+        final Doctor doctor = new Doctor("Dr. Emily Adams", "dr.adams@example.com", "pass12345", "555-101-2020",
+                "Cardiologist");
+        doctor.setAvailableTimes(Set.of("09:00-10:00", "10:00-11:00", "11:00-12:00", "12:00-13:00",
+                "13:00-14:00", "14:00-15:00", "15:00-16:00", "16:00-17:00"));
+        context.getBean(DoctorRepository.class).save(doctor);
+        final Patient patient = context.getBean(PatientRepository.class).save(new Patient("John Smith",
+                "john.smith@example.com", "smithSecure", "888-111-1111", "1 Main St"));
+        final LocalDate date = LocalDate.now().plusDays(1);
+        final List<Appointment> appointments = new ArrayList<>();
+        for (int i = 0; i < APPOINTMENTS; i++) {
+            appointments.add(new Appointment(doctor, patient, date.atTime(9 + i, 0)));
+        }
+        context.getBean(AppointmentRepository.class).saveAll(appointments);
+
+        final String token = context.getBean(TokenService.class).generateToken(doctor.getEmail());
+        final int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+        uri = URI.create("prescription".equals(endpoint)
+                ? "http://localhost:" + port + "/prescription/" + appointments.get(0).getId() + "/" + token
+                : "http://localhost:" + port + "/appointments/" + date + "/null/" + token);
+        client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(10))
+                .build();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public int request() throws IOException, InterruptedException {
+        final HttpResponse<byte[]> response = client.send(HttpRequest.newBuilder(uri).GET().build(),
+                HttpResponse.BodyHandlers.ofByteArray());
+        if (response.statusCode() != 200) {
+            throw new IllegalStateException("HTTP " + response.statusCode() + " from " + uri.getPath());
+        }
+        return response.body().length;
+    }
+}
@@ -0,0 +1,90 @@
+package com.project.back_end.benchmark;
+
+import com.project.back_end.models.Doctor;
+import com.project.back_end.services.TokenService;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Token generation and validation for a working set of 1024 logged-in doctors,
+ * answered from the verified-token cache and, with a cache that holds nothing, by verifying every token.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TokenServiceBenchmark {
+
+    private static final int SESSIONS = 1024;
+
+    @Param("10000")
+    public int doctors;
+
+    private TokenService tokenService;
+    private TokenService uncachedTokenService;
+    private String[] emails;
+    private String[] tokens;
+    private String forgedToken;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        final List<Doctor> fixture = Fixtures.doctors(doctors);
+        tokenService = new TokenService(null, Fixtures.doctorRepository(fixture), null, Fixtures.SECRET, 10_000);
+        uncachedTokenService = new TokenService(null, Fixtures.doctorRepository(fixture), null, Fixtures.SECRET, 0);
+
+        emails = new String[SESSIONS];
+        tokens = new String[SESSIONS];
+        for (int i = 0; i < SESSIONS; i++) {
+            emails[i] = fixture.get(i * (doctors / SESSIONS)).getEmail();
+            tokens[i] = tokenService.generateToken(emails[i]);
+        }
+        forgedToken = Jwts.builder()
+                .subject(emails[0])
+                .expiration(new Date(System.currentTimeMillis() + 3_600_000))
+                .signWith(Keys.hmacShaKeyFor(Fixtures.SECRET.toUpperCase().getBytes(StandardCharsets.UTF_8)))
+                .compact();
+    }
+
+    private int next() {
+        return next = (next + 1) & (SESSIONS - 1);
+    }
+
+    @Benchmark
+    public String generateToken() {
+        return tokenService.generateToken(emails[next()]);
+    }
+
+    @Benchmark
+    public boolean validateTokenCached() {
+        return tokenService.validateToken(tokens[next()], "doctor");
+    }
+
+    @Benchmark
+    public boolean validateTokenUncached() {
+        return uncachedTokenService.validateToken(tokens[next()], "doctor");
+    }
+
+    @Benchmark
+    public boolean validateForgedToken() {
+        return tokenService.validateToken(forgedToken, "doctor");
+    }
+}
@@ -0,0 +1,74 @@
+package com.project.back_end.benchmark;
+
+import com.project.back_end.DTO.MessageResponse;
+import com.project.back_end.controllers.DoctorController;
+import com.project.back_end.controllers.ValidationFailed;
+import com.project.back_end.models.Doctor;
+import com.project.back_end.services.InvalidTokenException;
+import com.project.back_end.services.Service;
+import com.project.back_end.services.TokenService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.ResponseEntity;
+import org.springframework.validation.BeanPropertyBindingResult;
+import org.springframework.web.bind.MethodArgumentNotValidException;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Mapping of the request errors to responses by {@link ValidationFailed}: a request body that failed bean validation,
+ * and a rejected token, thrown by {@link Service#requireToken(String, String)} and caught by the handler.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ValidationFailedBenchmark {
+
+    private ValidationFailed validationFailed;
+    private MethodArgumentNotValidException invalidDoctor;
+    private Service service;
+
+    @Setup
+    public void setUp() throws NoSuchMethodException {
+        validationFailed = new ValidationFailed();
+
+        final BeanPropertyBindingResult errors = new BeanPropertyBindingResult(new Doctor(), "doctor");
+        errors.rejectValue("email", "Email", "Invalid email format");
+        errors.rejectValue("phone", "Pattern", "Phone number must be 10 digits");
+        invalidDoctor = new MethodArgumentNotValidException(new MethodParameter(
+                DoctorController.class.getMethod("saveDoctor", Doctor.class, String.class), 0), errors);
+
+        final List<Doctor> fixture = Fixtures.doctors(1);
+        service = new Service(new TokenService(null,
+                Fixtures.doctorRepository(fixture), null, Fixtures.SECRET, 10_000), null, null, null, null, null);
+    }
+
+    @Benchmark
+    public ResponseEntity<Map<String, String>> mapInvalidRequestBody() {
+        return validationFailed.handleValidationException(invalidDoctor);
+    }
+
+    @Benchmark
+    public ResponseEntity<MessageResponse> mapInvalidToken() {
+        try {
+            service.requireToken("not-a-token", "doctor");
+            return null;
+        } catch (InvalidTokenException e) {
+            return validationFailed.handleInvalidToken(e);
+        }
+    }
+}
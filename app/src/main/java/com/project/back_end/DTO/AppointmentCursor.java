@@ -0,0 +1,62 @@
+package com.project.back_end.DTO;
+
+import com.project.back_end.models.Appointment;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Position in a list of appointments ordered by (appointment time, id), used for keyset pagination. <br>
+ * The next page starts right after the cursor, so it is found by an index seek however deep the page is,
+ * and appointments booked or cancelled in between don't shift the pages. <br>
+ * Clients receive the cursor as an opaque token, see {@link #encode()}.
+ * @param time appointment time of the last appointment on the previous page
+ * @param id id of the last appointment on the previous page
+ */
+public record AppointmentCursor(LocalDateTime time, long id) {
+
+    /** Position before every appointment, the lowest date MySQL's DATETIME supports. */
+    public static final AppointmentCursor FIRST = new AppointmentCursor(LocalDateTime.of(1000, 1, 1, 0, 0), 0);
+
+    /**
+     * @param appointment last appointment on a page
+     * @return cursor right after the appointment
+     */
+    public static AppointmentCursor after(Appointment appointment) {
+        return new AppointmentCursor(appointment.getAppointmentTime(), appointment.getId());
+    }
+
+    /**
+     * @param appointment last appointment on a page
+     * @return cursor right after the appointment
+     */
+    public static AppointmentCursor after(AppointmentDTO appointment) {
+        return new AppointmentCursor(appointment.getAppointmentTime(), appointment.getId());
+    }
+
+    /**
+     * @return opaque, URL safe token of the cursor
+     */
+    public String encode() {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString((time + "," + id).getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decodes a token created by {@link #encode()}.
+     * @param token cursor token
+     * @return cursor, or null if the token is malformed
+     */
+    public static AppointmentCursor decode(String token) {
+        try {
+            final String value = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            final int comma = value.indexOf(',');
+            return new AppointmentCursor(LocalDateTime.parse(value.substring(0, comma)),
+                    Long.parseLong(value.substring(comma + 1)));
+        } catch (IllegalArgumentException | IndexOutOfBoundsException | DateTimeParseException | NullPointerException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package com.project.back_end.DTO;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+/**
+ * Result of a single appointment of a batch booking, serialized as {"status": "201", "message": "...", "id": "42"}.
+ * @param status HTTP status code of the appointment's outcome
+ * @param message message for the client
+ * @param id id of the booked appointment, omitted if it wasn't booked
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record BookingResult(String status, String message, String id) {
+
+    public static final BookingResult SLOT_TAKEN = new BookingResult("400", MessageResponse.SLOT_TAKEN.message(), null);
+    public static final BookingResult INVALID_DOCTOR = new BookingResult("400", MessageResponse.INVALID_DOCTOR.message(), null);
+    public static final BookingResult UNAUTHORIZED = new BookingResult("401", MessageResponse.UNAUTHORIZED.message(), null);
+    public static final BookingResult INTERNAL_ERROR = new BookingResult("500", MessageResponse.INTERNAL_ERROR.message(), null);
+
+    /**
+     * @param id id of the booked appointment
+     * @return result of a booked appointment
+     */
+    public static BookingResult booked(Long id) {
+        return new BookingResult("201", MessageResponse.APPOINTMENT_BOOKED.message(), String.valueOf(id));
+    }
+
+    /**
+     * @param message validation error
+     * @return result of an appointment that failed validation
+     */
+    public static BookingResult invalid(String message) {
+        return new BookingResult("400", message, null);
+    }
+}
@@ -1,5 +1,7 @@
 package com.project.back_end.DTO;
 
+import jakarta.validation.constraints.NotNull;
+
 public class Login {
     
 // 1. 'email' field:
@@ -26,5 +28,26 @@ public class Login {
 //    - The 'getPassword()' method allows access to the password value.
 //    - The 'setPassword(String password)' method sets the password value.
 
+    @NotNull
+    private String email;
+
+    @NotNull
+    private String password;
+
+    public String getEmail() {
+        return email;
+    }
+
+    public void setEmail(String email) {
+        this.email = email;
+    }
+
+    public String getPassword() {
+        return password;
+    }
+
+    public void setPassword(String password) {
+        this.password = password;
+    }
 
 }
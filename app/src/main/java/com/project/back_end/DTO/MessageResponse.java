@@ -0,0 +1,24 @@
+package com.project.back_end.DTO;
+
+/**
+ * Response body carrying a single message, serialized as {"message": "..."}. <br>
+ * The fixed messages are preallocated, so the common responses don't allocate a body per request.
+ * @param message message for the client
+ */
+public record MessageResponse(String message) {
+
+    public static final MessageResponse INVALID_TOKEN = new MessageResponse("Invalid or expired token");
+    public static final MessageResponse UNAUTHORIZED = new MessageResponse("Unauthorized");
+    public static final MessageResponse INVALID_CREDENTIALS = new MessageResponse("Invalid email or password");
+    public static final MessageResponse BUSY = new MessageResponse("Too many requests in progress, try again later");
+    public static final MessageResponse INTERNAL_ERROR = new MessageResponse("Internal Server Error");
+    public static final MessageResponse INVALID_DOCTOR = new MessageResponse("Invalid doctor id");
+    public static final MessageResponse SLOT_TAKEN =
+            new MessageResponse("Appointment already booked for given time or Doctor not available");
+    public static final MessageResponse APPOINTMENT_NOT_FOUND = new MessageResponse("Appointment not found");
+    public static final MessageResponse APPOINTMENT_BOOKED = new MessageResponse("Appointment Booked Successfully");
+    public static final MessageResponse APPOINTMENT_UPDATED = new MessageResponse("Appointment Updated Successfully");
+    public static final MessageResponse APPOINTMENT_CANCELLED = new MessageResponse("Appointment Cancelled Successfully");
+    public static final MessageResponse STATUS_UPDATED = new MessageResponse("Appointment Status Updated");
+    public static final MessageResponse INVALID_STATUS = new MessageResponse("Invalid appointment status");
+}
@@ -0,0 +1,11 @@
+package com.project.back_end.DTO;
+
+/**
+ * The fields of a prescription the doctor dashboard shows next to an appointment.
+ * @param appointmentId id of the appointment the prescription belongs to
+ * @param medication prescribed medication
+ * @param dosage dosage of the medication
+ * @param doctorNotes doctor's notes, may be null
+ */
+public record PrescriptionSummary(Long appointmentId, String medication, String dosage, String doctorNotes) {
+}
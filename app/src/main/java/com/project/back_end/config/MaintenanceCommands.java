@@ -0,0 +1,73 @@
+package com.project.back_end.config;
+
+import com.project.back_end.services.AppointmentRollupService;
+import com.project.back_end.services.PrescriptionImportService;
+import com.project.back_end.services.SeedLoader;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.List;
+
+/**
+ * One-off maintenance commands, run at startup when the matching option is passed, e.g.
+ * <pre>java -jar back-end.jar --rebuild-rollups</pre>
+ * The application keeps running afterwards.
+ * <ul>
+ *     <li>--rebuild-rollups: recomputes the per doctor appointment counts from the appointment table,
+ *     see {@link AppointmentRollupService#rebuild()}</li>
+ *     <li>--import-prescriptions=&lt;file&gt; [--import-workers=&lt;n&gt;]: imports the prescriptions of a JSON array
+ *     or mongo shell insertMany file with n parallel writers (default 4),
+ *     see {@link PrescriptionImportService#importFile(Path, int)}</li>
+ *     <li>--seed=&lt;scale&gt;: inserts scale times the mysql_data.sql sample of generated doctors, patients
+ *     and appointments with batched inserts, see {@link SeedLoader#load(int)}</li>
+ * </ul>
+ */
+@Component
+public class MaintenanceCommands implements ApplicationRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(MaintenanceCommands.class);
+
+    private static final int DEFAULT_IMPORT_WORKERS = 4;
+
+    private final AppointmentRollupService appointmentRollupService;
+    private final PrescriptionImportService prescriptionImportService;
+    private final SeedLoader seedLoader;
+
+    public MaintenanceCommands(AppointmentRollupService appointmentRollupService,
+                               PrescriptionImportService prescriptionImportService,
+                               SeedLoader seedLoader) {
+        this.appointmentRollupService = appointmentRollupService;
+        this.prescriptionImportService = prescriptionImportService;
+        this.seedLoader = seedLoader;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (args.containsOption("seed")) {
+            seedLoader.load(Integer.parseInt(args.getOptionValues("seed").get(0)));
+        }
+        if (args.containsOption("rebuild-rollups")) {
+            final long start = System.nanoTime();
+            final int rows = appointmentRollupService.rebuild();
+            log.info("Rebuilt appointment rollups: {} rows in {} ms", rows, (System.nanoTime() - start) / 1_000_000);
+        }
+        if (args.containsOption("import-prescriptions")) {
+            final List<String> workers = args.getOptionValues("import-workers");
+            final int workerCount = workers == null || workers.isEmpty()
+                    ? DEFAULT_IMPORT_WORKERS : Integer.parseInt(workers.get(0));
+            for (String file : args.getOptionValues("import-prescriptions")) {
+                try {
+                    prescriptionImportService.importFile(Path.of(file), workerCount);
+                } catch (IOException e) {
+                    throw new UncheckedIOException("Failed to import prescriptions from " + file, e);
+                }
+            }
+        }
+    }
+}
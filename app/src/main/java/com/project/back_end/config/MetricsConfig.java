@@ -0,0 +1,28 @@
+package com.project.back_end.config;
+
+import io.micrometer.core.aop.TimedAspect;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Times every method of the classes annotated with {@link io.micrometer.core.annotation.Timed}, i.e. the services,
+ * as {@link #SERVICE_TIMER} tagged with the class and the method, with percentile histograms. <br>
+ * The other meters are registered by their owners: booking outcomes by the appointment controller, cache sizes
+ * and queue lengths by the components holding them (as MeterBinders), connection pools, Tomcat and the JVM by
+ * Spring Boot. They are scraped in Prometheus format from /actuator/prometheus.
+ */
+@Configuration(proxyBeanMethods = false)
+public class MetricsConfig {
+
+    public static final String SERVICE_TIMER = "clinic.service";
+
+    /**
+     * @param registry registry of the application's meters
+     * @return the aspect timing the annotated classes, skipping the registration of their own meters
+     */
+    @Bean
+    public TimedAspect timedAspect(MeterRegistry registry) {
+        return new TimedAspect(registry, joinPoint -> "bindTo".equals(joinPoint.getSignature().getName()));
+    }
+}
@@ -0,0 +1,138 @@
+package com.project.back_end.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Hands out replica connections inside read-only transactions and primary connections otherwise. <br>
+ * The replica is only used while its lag, measured at most every check interval with the lag query,
+ * is within the tolerance. If the lag can't be measured or a replica connection can't be opened,
+ * reads go to the primary until the next check. <br>
+ * The transaction must be known to be read-only before the connection is opened, so this has to be wrapped
+ * in a {@link org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy}, see {@link DataSourceConfig}.
+ */
+public class ReadReplicaDataSource extends AbstractDataSource {
+
+    private static final Logger log = LoggerFactory.getLogger(ReadReplicaDataSource.class);
+
+    /** Column of the replication lag in MySQL's SHOW REPLICA STATUS. */
+    private static final String SECONDS_BEHIND_SOURCE = "Seconds_Behind_Source";
+
+    private final DataSource primary;
+    private final DataSource replica;
+    private final long maxLagSeconds;
+    private final String lagQuery;
+    private final long checkIntervalNanos;
+
+    private final AtomicBoolean checking = new AtomicBoolean();
+    private volatile long lastCheck;
+    private volatile boolean replicaUsable;
+    private volatile boolean checked;
+
+    /**
+     * @param primary data source for writes and for reads outside read-only transactions
+     * @param replica data source for reads in read-only transactions
+     * @param maxLagSeconds largest lag at which the replica is still used
+     * @param lagQuery query run on the replica for its lag in seconds: the Seconds_Behind_Source column of the first
+     * row if there is one, else its first column; no row counts as no lag, null as replication stopped
+     * @param checkIntervalMillis time between lag checks
+     */
+    public ReadReplicaDataSource(DataSource primary, DataSource replica, long maxLagSeconds, String lagQuery,
+                                 long checkIntervalMillis) {
+        this.primary = primary;
+        this.replica = replica;
+        this.maxLagSeconds = maxLagSeconds;
+        this.lagQuery = lagQuery;
+        this.checkIntervalNanos = TimeUnit.MILLISECONDS.toNanos(checkIntervalMillis);
+        // checked with the first read
+        this.lastCheck = System.nanoTime() - checkIntervalNanos;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly() || !replicaUsable()) {
+            return primary.getConnection();
+        }
+        try {
+            return replica.getConnection();
+        } catch (SQLException e) {
+            markUnusable("connection failed: " + e.getMessage());
+            return primary.getConnection();
+        }
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return primary.getConnection(username, password);
+    }
+
+    /**
+     * @return whether reads currently go to the replica, checking its lag if it's due
+     */
+    public boolean replicaUsable() {
+        final long now = System.nanoTime();
+        if (now - lastCheck >= checkIntervalNanos && checking.compareAndSet(false, true)) {
+            // one caller checks, the others go on with the last result meanwhile
+            try {
+                final long lag = replicaLagSeconds();
+                if (lag <= maxLagSeconds) {
+                    if (!replicaUsable) {
+                        checked = true;
+                        log.info("Reading from the replica, {} s behind the primary", lag);
+                    }
+                    replicaUsable = true;
+                    lastCheck = now;
+                } else {
+                    markUnusable(lag == Long.MAX_VALUE ? "replication stopped" : lag + " s behind the primary");
+                }
+            } catch (SQLException e) {
+                markUnusable("lag check failed: " + e.getMessage());
+            } finally {
+                checking.set(false);
+            }
+        }
+        return replicaUsable;
+    }
+
+    private long replicaLagSeconds() throws SQLException {
+        try (Connection connection = replica.getConnection();
+             Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery(lagQuery)) {
+            if (!resultSet.next()) {
+                return 0;
+            }
+            final long lag = resultSet.getLong(lagColumn(resultSet.getMetaData()));
+            return resultSet.wasNull() ? Long.MAX_VALUE : lag;
+        }
+    }
+
+    private static int lagColumn(ResultSetMetaData metaData) throws SQLException {
+        for (int i = 1; i <= metaData.getColumnCount(); i++) {
+            if (SECONDS_BEHIND_SOURCE.equalsIgnoreCase(metaData.getColumnLabel(i))) {
+                return i;
+            }
+        }
+        return 1;
+    }
+
+    private void markUnusable(String reason) {
+        if (replicaUsable || !checked) {
+            checked = true;
+            log.warn("Reading from the primary until the next check in {} ms, replica {}",
+                    TimeUnit.NANOSECONDS.toMillis(checkIntervalNanos), reason);
+        }
+        replicaUsable = false;
+        lastCheck = System.nanoTime();
+    }
+}
@@ -0,0 +1,74 @@
+package com.project.back_end.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnJava;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.boot.system.JavaVersion;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.VirtualThreadTaskExecutor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.Executor;
+
+/**
+ * Executors that follow the request threading mode, see spring.threads.virtual.enabled. Virtual threads are
+ * opt-in and need Java 21 or later; with the setting on an older runtime the application doesn't start,
+ * rather than silently running on platform threads. <br>
+ * Caches load missing entries on the {@link #CACHE_LOAD_EXECUTOR}: with platform threads that's the calling thread,
+ * with virtual threads a new virtual thread, so the blocking load doesn't run inside the cache's synchronized
+ * map section and pin the caller's carrier thread. <br>
+ * Streamed responses (reports, exports) are written on the bounded {@link #STREAMING_EXECUTOR}, see WebConfig,
+ * so slow clients can't take over the threads of other async work.
+ */
+@Configuration(proxyBeanMethods = false)
+public class ThreadingConfig {
+
+    public static final String CACHE_LOAD_EXECUTOR = "cacheLoadExecutor";
+    public static final String STREAMING_EXECUTOR = "streamingExecutor";
+
+    /**
+     * @param threads streams written at the same time
+     * @param queueSize streams waiting for a thread, beyond that a stream is rejected with 503 Service Unavailable
+     * @return the executor writing streamed responses
+     */
+    @Bean(STREAMING_EXECUTOR)
+    public ThreadPoolTaskExecutor streamingExecutor(@Value("${streaming.threads:8}") int threads,
+                                                    @Value("${streaming.queue-size:16}") int queueSize) {
+        final ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setThreadNamePrefix("streaming-");
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setQueueCapacity(queueSize);
+        executor.setDaemon(true);
+        return executor;
+    }
+
+    @Bean(CACHE_LOAD_EXECUTOR)
+    @ConditionalOnThreading(Threading.PLATFORM)
+    public Executor callerRunsCacheLoadExecutor() {
+        return Runnable::run;
+    }
+
+    @Bean(CACHE_LOAD_EXECUTOR)
+    @ConditionalOnThreading(Threading.VIRTUAL)
+    public Executor virtualCacheLoadExecutor() {
+        return new VirtualThreadTaskExecutor("cache-load-");
+    }
+
+    /**
+     * Fails the startup when virtual threads are asked for on a runtime without them.
+     */
+    @Configuration(proxyBeanMethods = false)
+    @ConditionalOnProperty(name = "spring.threads.virtual.enabled", havingValue = "true")
+    @ConditionalOnJava(range = ConditionalOnJava.Range.OLDER_THAN, value = JavaVersion.TWENTY_ONE)
+    static class VirtualThreadsUnavailable {
+
+        VirtualThreadsUnavailable() {
+            throw new IllegalStateException("spring.threads.virtual.enabled=true needs Java 21 or later, running on "
+                    + "Java " + Runtime.version().feature());
+        }
+    }
+}
@@ -1,6 +1,19 @@
 
 package com.project.back_end.controllers;
 
+import com.project.back_end.models.Admin;
+import com.project.back_end.services.Service;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+@RestController
+@RequestMapping("${api.path}admin")
 public class AdminController {
 
 // 1. Set Up the Controller Class:
@@ -13,6 +26,11 @@ public class AdminController {
 //    - Use constructor injection to autowire the `Service` class.
 //    - The service handles core logic related to admin validation and token checking.
 //    - This promotes cleaner code and separation of concerns between the controller and business logic layer.
+    private final Service service;
+
+    public AdminController(Service service) {
+        this.service = service;
+    }
 
 
 // 3. Define the `adminLogin` Method:
@@ -20,6 +38,11 @@ public class AdminController {
 //    - Accepts an `Admin` object in the request body, which contains login credentials.
 //    - Delegates authentication logic to the `validateAdmin` method in the service layer.
 //    - Returns a `ResponseEntity` with a `Map` containing login status or messages.
+//    - The password is verified off the request thread, the response is written when the future completes.
+    @PostMapping
+    public CompletableFuture<ResponseEntity<Map<String, String>>> adminLogin(@RequestBody Admin admin) {
+        return service.validateAdmin(admin);
+    }
 
 
 
@@ -1,9 +1,12 @@
 package com.project.back_end.controllers;
 
 import java.time.LocalDate;
-import java.util.HashMap;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
 
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
@@ -15,10 +18,16 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import com.project.back_end.DTO.AppointmentCursor;
+import com.project.back_end.DTO.AppointmentDTO;
+import com.project.back_end.DTO.BookingResult;
+import com.project.back_end.DTO.MessageResponse;
 import com.project.back_end.models.Appointment;
 import com.project.back_end.services.AppointmentService;
+import com.project.back_end.services.PrescriptionService;
 import com.project.back_end.services.Service;
 
 import jakarta.validation.Valid;
@@ -27,78 +36,167 @@ import jakarta.validation.Valid;
 @RequestMapping("/appointments")
 public class AppointmentController {
 
+    // shared, immutable responses, a handler returning one of them allocates nothing for the response
+    private static final ResponseEntity<MessageResponse> BOOKED =
+            ResponseEntity.status(HttpStatus.CREATED).body(MessageResponse.APPOINTMENT_BOOKED);
+    private static final ResponseEntity<MessageResponse> SLOT_TAKEN =
+            ResponseEntity.status(HttpStatus.BAD_REQUEST).body(MessageResponse.SLOT_TAKEN);
+    private static final ResponseEntity<MessageResponse> INVALID_DOCTOR =
+            ResponseEntity.status(HttpStatus.BAD_REQUEST).body(MessageResponse.INVALID_DOCTOR);
+    private static final ResponseEntity<MessageResponse> UNAUTHORIZED =
+            ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(MessageResponse.UNAUTHORIZED);
+    private static final ResponseEntity<MessageResponse> INTERNAL_ERROR =
+            ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(MessageResponse.INTERNAL_ERROR);
+
+    private static final String BOOKINGS = "appointment.bookings";
+
     private final AppointmentService appointmentService;
     private final Service service;
+    private final PrescriptionService prescriptionService;
+
+    // booking outcomes, of single and batch bookings, as appointment.bookings{outcome=...}
+    private final Counter booked;
+    private final Counter slotTaken;
+    private final Counter invalidDoctor;
+    private final Counter invalid;
+    private final Counter failed;
 
     @Autowired
-    public AppointmentController(AppointmentService appointmentService, Service service) {
+    public AppointmentController(AppointmentService appointmentService, Service service,
+                                 PrescriptionService prescriptionService, MeterRegistry registry) {
         this.appointmentService = appointmentService;
         this.service = service;
+        this.prescriptionService = prescriptionService;
+        this.booked = registry.counter(BOOKINGS, "outcome", "booked");
+        this.slotTaken = registry.counter(BOOKINGS, "outcome", "slot_taken");
+        this.invalidDoctor = registry.counter(BOOKINGS, "outcome", "invalid_doctor");
+        this.invalid = registry.counter(BOOKINGS, "outcome", "invalid");
+        this.failed = registry.counter(BOOKINGS, "outcome", "error");
     }
 
+    /**
+     * Lists one page of the doctor's appointments on a date, ordered by appointment time.
+     * The response carries a "nextCursor", pass it as the cursor parameter to get the next page;
+     * it is null on the last page.
+     * With prescriptions=true the page also carries the prescription summaries of its appointments
+     * by appointment id under "prescriptions", fetched with one query for the whole page.
+     */
     @GetMapping("/{date}/{patientName}/{token}")
-    public ResponseEntity<Map <String,Object>> getAppointments(@PathVariable @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date, @PathVariable String patientName,@PathVariable String token)
+    public ResponseEntity<Map <String,Object>> getAppointments(@PathVariable @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date, @PathVariable String patientName,@PathVariable String token,
+                                                               @RequestParam(required = false) String cursor,
+                                                               @RequestParam(defaultValue = "" + AppointmentService.DEFAULT_PAGE_SIZE) int size,
+                                                               @RequestParam(defaultValue = "false") boolean prescriptions)
     {
-        Map<String, Object> map = new HashMap<>();
-        ResponseEntity<Map<String,String>> tempMap = service.validateToken(token, "doctor");
-        if (!tempMap.getBody().isEmpty()) {
-            map.putAll(tempMap.getBody());
-            return new ResponseEntity<>(map, tempMap.getStatusCode());
+        service.requireToken(token, "doctor");
+        AppointmentCursor after = null;
+        if (cursor != null) {
+            after = AppointmentCursor.decode(cursor);
+            if (after == null) {
+                return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(Map.of("message", "Invalid cursor"));
+            }
+        }
+        final Map<String, Object> page = appointmentService.getAppointment(patientName, date, token, after, size);
+        if (prescriptions && page.get("appointments") instanceof List<?> appointments) {
+            final List<Long> ids = new ArrayList<>(appointments.size());
+            for (Object appointment : appointments) {
+                ids.add(((AppointmentDTO) appointment).getId());
+            }
+            page.put("prescriptions", prescriptionService.getPrescriptionSummaries(ids));
         }
-        map = appointmentService.getAppointment(patientName, date, token);
-        return ResponseEntity.status(HttpStatus.OK).body(map);
+        return ResponseEntity.status(HttpStatus.OK).body(page);
     }
     
 
     @PostMapping("/{token}")
-    public ResponseEntity<Map<String, String>> bookAppointment(@RequestBody @Valid Appointment appointment,
+    public ResponseEntity<MessageResponse> bookAppointment(@RequestBody @Valid Appointment appointment,
             @PathVariable String token) {
 
-        ResponseEntity<Map<String, String>> tempMap = service.validateToken(token, "patient");
-        if (!tempMap.getBody().isEmpty()) {
-            return tempMap;
+        // patients book for themselves, the appointment's patient must be the token's
+        final Long patientId = service.requireToken(token, "patient").userId();
+        if (appointment.getPatient() == null || !patientId.equals(appointment.getPatient().getId())) {
+            invalid.increment();
+            return UNAUTHORIZED;
         }
 
-        Map<String, String> response = new HashMap<>();
+        // in-memory pre-check of the doctor and the doctor's available times,
+        // the unique (doctor_id, appointment_time) key decides races between concurrent bookings
         int out = service.validateAppointment(appointment);
         if (out == 1) {
             int res = appointmentService.bookAppointment(appointment);
             if (res == 1) {
-                response.put("message", "Appointment Booked Successfully");
-                return ResponseEntity.status(HttpStatus.CREATED).body(response); // 201 Created
-
+                booked.increment();
+                return BOOKED; // 201 Created
+            } else if (res == -1) {
+                slotTaken.increment();
+                return SLOT_TAKEN;
             }
-            response.put("message", "Internal Server Error");
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(response); // 409 Conflict
+            failed.increment();
+            return INTERNAL_ERROR;
 
         } else if (out == -1) {
-            response.put("message", "Invalid doctor id");
-            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(response);
+            invalidDoctor.increment();
+            return INVALID_DOCTOR;
         }
 
-        response.put("message", "Appointment already booked for given time or Doctor not available");
-        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(response);
+        slotTaken.increment();
+        return SLOT_TAKEN;
 
     }
 
+    /**
+     * Books several appointments with a single request, validating the token once.
+     * The response holds a result for every appointment in the same order.
+     */
+    @PostMapping("/batch/{token}")
+    public ResponseEntity<BatchBookingResponse> bookAppointments(@RequestBody List<Appointment> appointments,
+            @PathVariable String token) {
+
+        final Long patientId = service.requireToken(token, "patient").userId();
+        final List<BookingResult> results = appointmentService.bookAppointments(appointments, patientId);
+        for (BookingResult result : results) {
+            if (result.id() != null) {
+                booked.increment();
+            } else if (BookingResult.SLOT_TAKEN.equals(result)) {
+                slotTaken.increment();
+            } else if (BookingResult.INVALID_DOCTOR.equals(result)) {
+                invalidDoctor.increment();
+            } else if (BookingResult.INTERNAL_ERROR.equals(result)) {
+                failed.increment();
+            } else {
+                invalid.increment();
+            }
+        }
+        return ResponseEntity.ok(new BatchBookingResponse(results));
+    }
+
     @PutMapping("/{token}")
-    public ResponseEntity<Map<String, String>> updateAppointment(@PathVariable String token, @RequestBody @Valid Appointment appointment) {
+    public ResponseEntity<MessageResponse> updateAppointment(@PathVariable String token, @RequestBody @Valid Appointment appointment) {
         
-        ResponseEntity<Map<String, String>> tempMap = service.validateToken(token, "patient");
-        if (!tempMap.getBody().isEmpty()) {
-            return tempMap;
-        }
-        return appointmentService.updateAppointment(appointment);   
+        return appointmentService.updateAppointment(appointment, service.requireToken(token, "patient").userId());
+    }
+
+    /**
+     * Changes the status of one of the doctor's appointments, e.g. marks it completed.
+     * The change is written shortly after the response, together with other changes.
+     */
+    @PutMapping("/status/{id}/{status}/{token}")
+    public ResponseEntity<MessageResponse> changeStatus(@PathVariable Long id, @PathVariable int status,
+            @PathVariable String token) {
+
+        return appointmentService.changeStatus(id, status, service.requireToken(token, "doctor").userId());
     }
 
     @DeleteMapping("/{id}/{token}")
-    public ResponseEntity<Map<String, String>>  cancelAppointment(@PathVariable Long id, @PathVariable String token) {
+    public ResponseEntity<MessageResponse> cancelAppointment(@PathVariable Long id, @PathVariable String token) {
 
-        ResponseEntity<Map<String, String>> tempMap = service.validateToken(token, "patient");
-        if (!tempMap.getBody().isEmpty()) {
-            return tempMap;
-        }
-        return appointmentService.cancelAppointment(id,token);
+        return appointmentService.cancelAppointment(id, service.requireToken(token, "patient").userId());
+    }
+
+    /**
+     * Response of a batch booking, serialized as {"results": [...]}.
+     * @param results a result for every appointment, in the same order
+     */
+    public record BatchBookingResponse(List<BookingResult> results) {
     }
 
 }
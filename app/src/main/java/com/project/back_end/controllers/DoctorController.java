@@ -1,6 +1,30 @@
 package com.project.back_end.controllers;
 
-
+import com.project.back_end.DTO.Login;
+import com.project.back_end.models.Doctor;
+import com.project.back_end.services.DoctorService;
+import com.project.back_end.services.Service;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import jakarta.validation.Valid;
+
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+@RestController
+@RequestMapping("${api.path}doctor")
 public class DoctorController {
 
 // 1. Set Up the Controller Class:
@@ -12,6 +36,13 @@ public class DoctorController {
 // 2. Autowire Dependencies:
 //    - Inject `DoctorService` for handling the core logic related to doctors (e.g., CRUD operations, authentication).
 //    - Inject the shared `Service` class for general-purpose features like token validation and filtering.
+    private final DoctorService doctorService;
+    private final Service service;
+
+    public DoctorController(DoctorService doctorService, Service service) {
+        this.doctorService = doctorService;
+        this.service = service;
+    }
 
 
 // 3. Define the `getDoctorAvailability` Method:
@@ -19,11 +50,52 @@ public class DoctorController {
 //    - Requires `user` type, `doctorId`, `date`, and `token` as path variables.
 //    - First validates the token against the user type.
 //    - If the token is invalid, returns an error response; otherwise, returns the availability status for the doctor.
+    @GetMapping("/availability/{user}/{doctorId}/{date}/{token}")
+    public ResponseEntity<Map<String, Object>> getDoctorAvailability(@PathVariable String user,
+            @PathVariable Long doctorId,
+            @PathVariable @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date,
+            @PathVariable String token) {
+        Map<String, Object> map = new HashMap<>();
+        ResponseEntity<Map<String, String>> tempMap = service.validateToken(token, user);
+        if (!tempMap.getBody().isEmpty()) {
+            map.putAll(tempMap.getBody());
+            return new ResponseEntity<>(map, tempMap.getStatusCode());
+        }
+        map.put("availability", doctorService.getDoctorAvailability(doctorId, date));
+        return ResponseEntity.status(HttpStatus.OK).body(map);
+    }
+
+    //    - Same as above for every date within a range (e.g. a month), keyed by date.
+    @GetMapping("/availability/{user}/{doctorId}/{from}/{to}/{token}")
+    public ResponseEntity<Map<String, Object>> getDoctorAvailability(@PathVariable String user,
+            @PathVariable Long doctorId,
+            @PathVariable @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @PathVariable @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @PathVariable String token) {
+        Map<String, Object> map = new HashMap<>();
+        ResponseEntity<Map<String, String>> tempMap = service.validateToken(token, user);
+        if (!tempMap.getBody().isEmpty()) {
+            map.putAll(tempMap.getBody());
+            return new ResponseEntity<>(map, tempMap.getStatusCode());
+        }
+        if (to.isBefore(from) || to.isAfter(from.plusMonths(3))) {
+            map.put("message", "Invalid date range");
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(map);
+        }
+        map.put("availability", doctorService.getDoctorAvailability(doctorId, from, to));
+        return ResponseEntity.status(HttpStatus.OK).body(map);
+    }
 
 
 // 4. Define the `getDoctor` Method:
 //    - Handles HTTP GET requests to retrieve a list of all doctors.
 //    - Returns the list within a response map under the key `"doctors"` with HTTP 200 OK status.
+    @GetMapping
+    public ResponseEntity<Map<String, Object>> getDoctor() {
+        Map<String, Object> map = new HashMap<>();
+        map.put("doctors", doctorService.getDoctors());
+        return ResponseEntity.status(HttpStatus.OK).body(map);
+    }
 
 
 // 5. Define the `saveDoctor` Method:
@@ -31,12 +103,39 @@ public class DoctorController {
 //    - Accepts a validated `Doctor` object in the request body and a token for authorization.
 //    - Validates the token for the `"admin"` role before proceeding.
 //    - If the doctor already exists, returns a conflict response; otherwise, adds the doctor and returns a success message.
+//    - The password is hashed off the request thread, the response is written when the future completes.
+    @PostMapping("/{token}")
+    public CompletableFuture<ResponseEntity<Map<String, String>>> saveDoctor(@RequestBody @Valid Doctor doctor,
+                                                                            @PathVariable String token) {
+        ResponseEntity<Map<String, String>> tempMap = service.validateToken(token, "admin");
+        if (!tempMap.getBody().isEmpty()) {
+            return CompletableFuture.completedFuture(tempMap);
+        }
+
+        return doctorService.saveDoctor(doctor).thenApply(res -> {
+            Map<String, String> response = new HashMap<>();
+            if (res == 1) {
+                response.put("message", "Doctor added to db");
+                return ResponseEntity.status(HttpStatus.CREATED).body(response);
+            } else if (res == -1) {
+                response.put("message", "Doctor already exists");
+                return ResponseEntity.status(HttpStatus.CONFLICT).body(response);
+            }
+            response.put("message", "Some internal error occurred");
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(response);
+        });
+    }
 
 
 // 6. Define the `doctorLogin` Method:
 //    - Handles HTTP POST requests for doctor login.
 //    - Accepts a validated `Login` DTO containing credentials.
 //    - Delegates authentication to the `DoctorService` and returns login status and token information.
+//    - The password is verified off the request thread, the response is written when the future completes.
+    @PostMapping("/login")
+    public CompletableFuture<ResponseEntity<Map<String, String>>> doctorLogin(@RequestBody @Valid Login login) {
+        return doctorService.validateDoctor(login);
+    }
 
 
 // 7. Define the `updateDoctor` Method:
@@ -44,18 +143,64 @@ public class DoctorController {
 //    - Accepts a validated `Doctor` object and a token for authorization.
 //    - Token must belong to an `"admin"`.
 //    - If the doctor exists, updates the record and returns success; otherwise, returns not found or error messages.
+//    - The password is hashed off the request thread, the response is written when the future completes.
+    @PutMapping("/{token}")
+    public CompletableFuture<ResponseEntity<Map<String, String>>> updateDoctor(@RequestBody @Valid Doctor doctor,
+                                                                              @PathVariable String token) {
+        ResponseEntity<Map<String, String>> tempMap = service.validateToken(token, "admin");
+        if (!tempMap.getBody().isEmpty()) {
+            return CompletableFuture.completedFuture(tempMap);
+        }
+
+        return doctorService.updateDoctor(doctor).thenApply(res -> {
+            Map<String, String> response = new HashMap<>();
+            if (res == 1) {
+                response.put("message", "Doctor updated");
+                return ResponseEntity.status(HttpStatus.OK).body(response);
+            } else if (res == -1) {
+                response.put("message", "Doctor not found");
+                return ResponseEntity.status(HttpStatus.NOT_FOUND).body(response);
+            }
+            response.put("message", "Some internal error occurred");
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(response);
+        });
+    }
 
 
 // 8. Define the `deleteDoctor` Method:
 //    - Handles HTTP DELETE requests to remove a doctor by ID.
 //    - Requires both doctor ID and an admin token as path variables.
 //    - If the doctor exists, deletes the record and returns a success message; otherwise, responds with a not found or error message.
+    @DeleteMapping("/{id}/{token}")
+    public ResponseEntity<Map<String, String>> deleteDoctor(@PathVariable long id, @PathVariable String token) {
+        ResponseEntity<Map<String, String>> tempMap = service.validateToken(token, "admin");
+        if (!tempMap.getBody().isEmpty()) {
+            return tempMap;
+        }
+
+        Map<String, String> response = new HashMap<>();
+        int res = doctorService.deleteDoctor(id);
+        if (res == 1) {
+            response.put("message", "Doctor deleted successfully");
+            return ResponseEntity.status(HttpStatus.OK).body(response);
+        } else if (res == -1) {
+            response.put("message", "Doctor not found with id");
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(response);
+        }
+        response.put("message", "Some internal error occurred");
+        return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(response);
+    }
 
 
 // 9. Define the `filter` Method:
 //    - Handles HTTP GET requests to filter doctors based on name, time, and specialty.
 //    - Accepts `name`, `time`, and `speciality` as path variables.
 //    - Calls the shared `Service` to perform filtering logic and returns matching doctors in the response.
+    @GetMapping("/filter/{name}/{time}/{speciality}")
+    public ResponseEntity<Map<String, Object>> filter(@PathVariable String name, @PathVariable String time,
+            @PathVariable String speciality) {
+        return ResponseEntity.status(HttpStatus.OK).body(service.filterDoctor(name, speciality, time));
+    }
 
 
 }
@@ -1,5 +1,19 @@
 package com.project.back_end.controllers;
 
+import com.project.back_end.DTO.Login;
+import com.project.back_end.services.Service;
+import jakarta.validation.Valid;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+@RestController
+@RequestMapping("${api.path}patient")
 public class PatientController {
 
 // 1. Set Up the Controller Class:
@@ -10,6 +24,11 @@ public class PatientController {
 // 2. Autowire Dependencies:
 //    - Inject `PatientService` to handle patient-specific logic such as creation, retrieval, and appointments.
 //    - Inject the shared `Service` class for tasks like token validation and login authentication.
+    private final Service service;
+
+    public PatientController(Service service) {
+        this.service = service;
+    }
 
 
 // 3. Define the `getPatient` Method:
@@ -30,6 +49,11 @@ public class PatientController {
 //    - Accepts a `Login` DTO containing email/username and password.
 //    - Delegates authentication to the `validatePatientLogin` method in the shared service.
 //    - Returns a response with a token or an error message depending on login success.
+//    - The password is verified off the request thread, the response is written when the future completes.
+    @PostMapping("/login")
+    public CompletableFuture<ResponseEntity<Map<String, String>>> login(@RequestBody @Valid Login login) {
+        return service.validatePatientLogin(login);
+    }
 
 
 // 6. Define the `getPatientAppointment` Method:
@@ -1,6 +1,42 @@
 package com.project.back_end.controllers;
 
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.project.back_end.models.Prescription;
+import com.project.back_end.services.PrescriptionExportService;
+import com.project.back_end.services.PrescriptionService;
+import com.project.back_end.services.Service;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import jakarta.validation.Valid;
+
+import java.util.List;
+import java.util.Map;
+
+@RestController
+@RequestMapping("${api.path}prescription")
 public class PrescriptionController {
+
+    private final PrescriptionService prescriptionService;
+    private final PrescriptionExportService prescriptionExportService;
+    private final Service service;
+
+    public PrescriptionController(PrescriptionService prescriptionService,
+                                  PrescriptionExportService prescriptionExportService, Service service) {
+        this.prescriptionService = prescriptionService;
+        this.prescriptionExportService = prescriptionExportService;
+        this.service = service;
+    }
     
 // 1. Set Up the Controller Class:
 //    - Annotate the class with `@RestController` to define it as a REST API controller.
@@ -21,6 +57,13 @@ public class PrescriptionController {
 //    - If the token is valid, updates the status of the corresponding appointment to reflect that a prescription has been added.
 //    - Delegates the saving logic to `PrescriptionService` and returns a response indicating success or failure.
 
+    @PostMapping("/{token}")
+    public ResponseEntity<Map<String, String>> savePrescription(@RequestBody @Valid Prescription prescription,
+                                                                @PathVariable String token) {
+        service.requireToken(token, "doctor");
+        return prescriptionService.savePrescription(prescription);
+    }
+
 
 // 4. Define the `getPrescription` Method:
 //    - Handles HTTP GET requests to retrieve a prescription by its associated appointment ID.
@@ -29,5 +72,63 @@ public class PrescriptionController {
 //    - If the token is valid, fetches the prescription using the `PrescriptionService`.
 //    - Returns the prescription details or an appropriate error message if validation fails.
 
+    @GetMapping("/{appointmentId}/{token}")
+    public ResponseEntity<Map<String, Object>> getPrescription(@PathVariable Long appointmentId,
+                                                               @PathVariable String token) {
+        service.requireToken(token, "doctor");
+        return prescriptionService.getPrescription(appointmentId);
+    }
+
+    /**
+     * Prescription summaries of many appointments with a single query, e.g. for every appointment
+     * on a dashboard page: GET /prescription/summaries/{token}?appointmentIds=1,2,3
+     * @return map with the summaries by appointment id under "prescriptions"
+     */
+    @GetMapping("/summaries/{token}")
+    public ResponseEntity<Map<String, Object>> getPrescriptionSummaries(@PathVariable String token,
+                                                                        @RequestParam List<Long> appointmentIds) {
+        service.requireToken(token, "doctor");
+        if (appointmentIds.size() > PrescriptionService.MAX_BULK_APPOINTMENTS) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(Map.of("message",
+                    "At most " + PrescriptionService.MAX_BULK_APPOINTMENTS + " appointments per request"));
+        }
+        return ResponseEntity.ok(Map.of("prescriptions", prescriptionService.getPrescriptionSummaries(appointmentIds)));
+    }
+
+    /**
+     * Exports all prescriptions as NDJSON in id order, for admins. The export is streamed with chunked
+     * transfer encoding, pass the "id" of the last line received as after to resume an interrupted export.
+     * @param token admin's token
+     * @param after id of the last prescription already received, optional
+     * @return the prescriptions, one JSON object per line
+     */
+    @GetMapping("/export/{token}")
+    public ResponseEntity<StreamingResponseBody> exportPrescriptions(@PathVariable String token,
+                                                                     @RequestParam(required = false) String after) {
+        service.requireToken(token, "admin");
+        if (after != null && !PrescriptionExportService.isValidResumeId(after)) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).build();
+        }
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType("application/x-ndjson;charset=UTF-8"))
+                .header(HttpHeaders.CONTENT_DISPOSITION, "inline; filename=\"prescriptions.ndjson\"")
+                .body(out -> prescriptionExportService.writeExport(after, out));
+    }
 
+    /**
+     * Statistics of the prescription cache, for admins.
+     * @return map with "size", "hits", "misses", "hitRate", "evictions" and "averageLoadMillis"
+     */
+    @GetMapping("/cache-stats/{token}")
+    public ResponseEntity<Map<String, Object>> getCacheStats(@PathVariable String token) {
+        service.requireToken(token, "admin");
+        final CacheStats stats = prescriptionService.cacheStats();
+        return ResponseEntity.ok(Map.of(
+                "size", prescriptionService.cacheSize(),
+                "hits", stats.hitCount(),
+                "misses", stats.missCount(),
+                "hitRate", stats.hitRate(),
+                "evictions", stats.evictionCount(),
+                "averageLoadMillis", stats.averageLoadPenalty() / 1_000_000));
+    }
 }
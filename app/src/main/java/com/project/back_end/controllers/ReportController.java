@@ -0,0 +1,96 @@
+package com.project.back_end.controllers;
+
+import com.project.back_end.services.AppointmentRollupService;
+import com.project.back_end.services.ReportService;
+import com.project.back_end.services.Service;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.time.LocalDate;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Admin reports. The daily report is streamed to the client in chunks while it is read from the database,
+ * the top doctor reports read the appointment rollups maintained by {@link AppointmentRollupService}.
+ */
+@RestController
+@RequestMapping("${api.path}reports")
+public class ReportController {
+
+    private final ReportService reportService;
+    private final AppointmentRollupService appointmentRollupService;
+    private final Service service;
+
+    public ReportController(ReportService reportService, AppointmentRollupService appointmentRollupService,
+                            Service service) {
+        this.reportService = reportService;
+        this.appointmentRollupService = appointmentRollupService;
+        this.service = service;
+    }
+
+    /**
+     * Daily appointment report: every appointment of the day with the doctor, status and patient,
+     * the same rows as the GetDailyAppointmentReportByDoctor procedure.
+     * @param date day of the report
+     * @param token admin's token
+     * @param format "csv" (default) or "ndjson"
+     * @return the report, streamed with chunked transfer encoding
+     */
+    @GetMapping("/appointments/daily/{date}/{token}")
+    public ResponseEntity<StreamingResponseBody> dailyAppointmentReport(
+            @PathVariable @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date,
+            @PathVariable String token,
+            @RequestParam(defaultValue = "csv") String format) {
+        service.requireToken(token, "admin");
+        final ReportService.Format reportFormat;
+        try {
+            reportFormat = ReportService.Format.valueOf(format.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).build();
+        }
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(reportFormat.contentType() + ";charset=UTF-8"))
+                .header(HttpHeaders.CONTENT_DISPOSITION, "inline; filename=\"appointments-" + date + "."
+                        + reportFormat.name().toLowerCase(Locale.ROOT) + "\"")
+                .body(out -> reportService.writeDailyAppointmentReport(date, reportFormat, out));
+    }
+
+    /**
+     * Doctor with the most appointments in a month, read from the appointment rollups.
+     * @param year year
+     * @param month month, 1 to 12
+     * @param token admin's token
+     * @return map with "doctorId" and "patients_seen", empty if there were no appointments
+     */
+    @GetMapping("/top-doctor/{year}/{month}/{token}")
+    public ResponseEntity<Map<String, Object>> topDoctorByMonth(@PathVariable int year, @PathVariable int month,
+                                                                @PathVariable String token) {
+        service.requireToken(token, "admin");
+        if (month < 1 || month > 12) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(Map.of("message", "Invalid month"));
+        }
+        return ResponseEntity.ok(appointmentRollupService.topDoctorByMonth(year, month));
+    }
+
+    /**
+     * Doctor with the most appointments in a year, read from the appointment rollups.
+     * @param year year
+     * @param token admin's token
+     * @return map with "doctorId" and "patients_seen", empty if there were no appointments
+     */
+    @GetMapping("/top-doctor/{year}/{token}")
+    public ResponseEntity<Map<String, Object>> topDoctorByYear(@PathVariable int year, @PathVariable String token) {
+        service.requireToken(token, "admin");
+        return ResponseEntity.ok(appointmentRollupService.topDoctorByYear(year));
+    }
+}
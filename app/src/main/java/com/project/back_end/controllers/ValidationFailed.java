@@ -1,6 +1,11 @@
 package com.project.back_end.controllers;
+import com.project.back_end.DTO.MessageResponse;
+import com.project.back_end.services.HashingBusyException;
+import com.project.back_end.services.InvalidTokenException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.core.task.TaskRejectedException;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
@@ -16,6 +21,11 @@ import java.util.Map;
  */
 public class ValidationFailed {
 
+    private static final ResponseEntity<MessageResponse> INVALID_TOKEN =
+            ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(MessageResponse.INVALID_TOKEN);
+    private static final ResponseEntity<MessageResponse> BUSY = ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+            .header(HttpHeaders.RETRY_AFTER, "1").body(MessageResponse.BUSY);
+
     /**
      * Handles MethodArgumentNotValidException, which is thrown when validation on an argument annotated with @Valid fails.
      *
@@ -39,4 +49,38 @@ public class ValidationFailed {
         // Return a ResponseEntity with the error messages and HTTP status 400 Bad Request
         return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(errors);
     }
+
+    /**
+     * Handles InvalidTokenException, which is thrown when a request handler requires a valid token of a role.
+     *
+     * @param ex the exception
+     * @return a shared 401 Unauthorized response with the error message
+     */
+    @ExceptionHandler(InvalidTokenException.class)
+    public ResponseEntity<MessageResponse> handleInvalidToken(InvalidTokenException ex) {
+        return INVALID_TOKEN;
+    }
+
+    /**
+     * Handles HashingBusyException, which is thrown when too many logins are waiting for their password to be verified.
+     *
+     * @param ex the exception
+     * @return a shared 503 Service Unavailable response asking the client to retry after a second
+     */
+    @ExceptionHandler(HashingBusyException.class)
+    public ResponseEntity<MessageResponse> handleHashingBusy(HashingBusyException ex) {
+        return BUSY;
+    }
+
+    /**
+     * Handles TaskRejectedException, which is thrown when too many streamed responses (reports, exports)
+     * are waiting for a thread of the streaming executor.
+     *
+     * @param ex the exception
+     * @return a shared 503 Service Unavailable response asking the client to retry after a second
+     */
+    @ExceptionHandler(TaskRejectedException.class)
+    public ResponseEntity<MessageResponse> handleStreamingBusy(TaskRejectedException ex) {
+        return BUSY;
+    }
 }
@@ -2,8 +2,14 @@ package com.project.back_end.models;
 
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
+import jakarta.persistence.FetchType;
+import jakarta.persistence.Index;
 import jakarta.persistence.ManyToOne;
+import jakarta.persistence.NamedAttributeNode;
+import jakarta.persistence.NamedEntityGraph;
+import jakarta.persistence.Table;
 import jakarta.persistence.Transient;
+import jakarta.persistence.UniqueConstraint;
 import jakarta.validation.constraints.Future;
 import jakarta.validation.constraints.Max;
 import jakarta.validation.constraints.Min;
@@ -14,17 +20,34 @@ import java.time.LocalDateTime;
 import java.time.LocalTime;
 
 @Entity
+@NamedEntityGraph(name = Appointment.WITH_DOCTOR_AND_PATIENT,
+        attributeNodes = {@NamedAttributeNode("doctor"), @NamedAttributeNode("patient")})
+@Table(uniqueConstraints = @UniqueConstraint(name = Appointment.UNIQUE_DOCTOR_TIME, columnNames = {"doctor_id", "appointment_time"}),
+        indexes = {
+                // keyset pagination of a patient's history, the unique key above serves a doctor's appointments
+                @Index(name = "idx_appointment_patient_time", columnList = "patient_id, appointment_time"),
+                // range scans over all doctors, e.g. the daily report
+                @Index(name = "idx_appointment_time", columnList = "appointment_time")})
 public class Appointment extends BaseModel{
 
+    /** Name of the unique key that prevents booking the same doctor twice at the same time. */
+    public static final String UNIQUE_DOCTOR_TIME = "uk_appointment_doctor_time";
+
+    /** Fetch plan loading the doctor and the patient with the appointment, for reads that need the entities. */
+    public static final String WITH_DOCTOR_AND_PATIENT = "Appointment.withDoctorAndPatient";
+
     // id inherited from BaseModel
 
+    // lazy: appointment lists read only display fields (AppointmentDTO), other reads only use the ids,
+    // and the entity graph above loads both in one query where they're needed
+
     /** Doctor assigned to this appointment. */
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @NotNull
     private Doctor doctor;
 
     /** Patient assigned to this appointment. */
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @NotNull
     private Patient patient;
 
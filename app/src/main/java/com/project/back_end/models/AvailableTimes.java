@@ -0,0 +1,187 @@
+package com.project.back_end.models;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * Compact, immutable form of a doctor's available time slots like "09:00-10:00". <br>
+ * Every slot is packed into a single int, the start minute of the day in the upper 16 bits and the end minute
+ * in the lower 16 bits, sorted by start. The bitmask of the hours the slots cover is computed once,
+ * so slot checks and AM/PM filters never parse the strings again. <br>
+ * Stored in a single column as the comma separated slots, see {@link AvailableTimesConverter}.
+ */
+public final class AvailableTimes {
+
+    public static final AvailableTimes EMPTY = new AvailableTimes(new int[0]);
+
+    private static final int MINUTES_PER_DAY = 24 * 60;
+
+    private final int[] slots;
+    private final int hourMask;
+
+    private AvailableTimes(int[] slots) {
+        this.slots = slots;
+        int mask = 0;
+        for (int slot : slots) {
+            mask |= hourMask(slot);
+        }
+        this.hourMask = mask;
+    }
+
+    /**
+     * Converts time slots like "09:00-10:00" into the compact form, duplicates are dropped.
+     * @param slots time slots
+     * @return available times, empty if slots is null
+     * @throws IllegalArgumentException if a slot isn't formatted like "HH:mm-HH:mm" or doesn't end after it starts
+     */
+    public static AvailableTimes of(Collection<String> slots) {
+        if (slots == null || slots.isEmpty()) {
+            return EMPTY;
+        }
+        final int[] packed = new int[slots.size()];
+        int i = 0;
+        for (String slot : slots) {
+            packed[i] = parseSlot(slot);
+            if (packed[i] < 0) {
+                throw new IllegalArgumentException("Invalid time slot: " + slot);
+            }
+            i++;
+        }
+        return new AvailableTimes(Arrays.stream(packed).sorted().distinct().toArray());
+    }
+
+    /**
+     * Parses the comma separated slots stored in the database.
+     * @param column stored value, e.g. "09:00-10:00,10:00-11:00"
+     * @return available times, empty if the value is null or blank
+     */
+    public static AvailableTimes parse(String column) {
+        if (column == null || column.isBlank()) {
+            return EMPTY;
+        }
+        return of(Arrays.asList(column.split(",")));
+    }
+
+    /**
+     * Parses a single slot like "09:00-10:00" into its packed form.
+     * An end of "00:00" or "24:00" stands for midnight at the end of the day.
+     * @param slot time slot
+     * @return packed slot, or -1 if it isn't formatted like "HH:mm-HH:mm" or doesn't end after it starts
+     */
+    public static int parseSlot(String slot) {
+        if (slot == null) {
+            return -1;
+        }
+        final String trimmed = slot.trim();
+        final int dash = trimmed.indexOf('-');
+        if (dash < 0) {
+            return -1;
+        }
+        final int start = parseMinute(trimmed.substring(0, dash).trim());
+        int end = parseMinute(trimmed.substring(dash + 1).trim());
+        if (end == 0) {
+            end = MINUTES_PER_DAY;
+        }
+        if (start < 0 || end < 0 || start >= MINUTES_PER_DAY || end <= start) {
+            return -1;
+        }
+        return start << 16 | end;
+    }
+
+    /**
+     * Bitmask of the hours a packed slot covers, bit <i>n</i> for the hour starting at <i>n</i>:00.
+     * @param slot packed slot
+     * @return bitmask of the hours from the slot's start hour up to, but not including, its end hour
+     */
+    public static int hourMask(int slot) {
+        final int end = slot & 0xFFFF;
+        final int endHour = end == MINUTES_PER_DAY ? 24 : end / 60;
+        int mask = 0;
+        for (int hour = (slot >>> 16) / 60; hour < endHour; hour++) {
+            mask |= 1 << hour;
+        }
+        return mask;
+    }
+
+    /**
+     * @return bitmask of the hours the slots cover, bit <i>n</i> for the hour starting at <i>n</i>:00
+     */
+    public int hourMask() {
+        return hourMask;
+    }
+
+    /**
+     * @return number of slots
+     */
+    public int size() {
+        return slots.length;
+    }
+
+    /**
+     * @return the slots formatted like "09:00-10:00", sorted by start
+     */
+    public Set<String> toSet() {
+        final Set<String> set = new LinkedHashSet<>();
+        for (int slot : slots) {
+            set.add(format(slot));
+        }
+        return set;
+    }
+
+    /**
+     * @return the comma separated slots stored in the database
+     */
+    public String format() {
+        return String.join(",", toSet());
+    }
+
+    private static String format(int slot) {
+        return formatMinute(slot >>> 16) + "-" + formatMinute((slot & 0xFFFF) % MINUTES_PER_DAY);
+    }
+
+    private static String formatMinute(int minute) {
+        final int hour = minute / 60;
+        final int min = minute % 60;
+        return (hour < 10 ? "0" : "") + hour + (min < 10 ? ":0" : ":") + min;
+    }
+
+    // "HH:mm" or "H:mm" -> minute of the day, "24:00" -> MINUTES_PER_DAY, -1 if malformed
+    private static int parseMinute(String time) {
+        final int colon = time.indexOf(':');
+        if (colon < 1 || colon > 2 || time.length() != colon + 3) {
+            return -1;
+        }
+        int hour = 0;
+        for (int i = 0; i < colon; i++) {
+            final char c = time.charAt(i);
+            if (c < '0' || c > '9') {
+                return -1;
+            }
+            hour = hour * 10 + c - '0';
+        }
+        final char tens = time.charAt(colon + 1);
+        final char ones = time.charAt(colon + 2);
+        if (tens < '0' || tens > '5' || ones < '0' || ones > '9') {
+            return -1;
+        }
+        final int minute = hour * 60 + (tens - '0') * 10 + ones - '0';
+        return hour < 24 || minute == MINUTES_PER_DAY ? minute : -1;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return this == o || o instanceof AvailableTimes other && Arrays.equals(slots, other.slots);
+    }
+
+    @Override
+    public int hashCode() {
+        return Arrays.hashCode(slots);
+    }
+
+    @Override
+    public String toString() {
+        return format();
+    }
+}
@@ -0,0 +1,21 @@
+package com.project.back_end.models;
+
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+/**
+ * Stores {@link AvailableTimes} in a single column as the comma separated slots, e.g. "09:00-10:00,10:00-11:00".
+ */
+@Converter
+public class AvailableTimesConverter implements AttributeConverter<AvailableTimes, String> {
+
+    @Override
+    public String convertToDatabaseColumn(AvailableTimes availableTimes) {
+        return availableTimes == null ? null : availableTimes.format();
+    }
+
+    @Override
+    public AvailableTimes convertToEntityAttribute(String column) {
+        return column == null ? null : AvailableTimes.parse(column);
+    }
+}
@@ -10,9 +10,13 @@ import java.time.LocalDateTime;
 @MappedSuperclass
 public abstract class BaseModel {
 
-    /** ID of the entity. */
+    /**
+     * ID of the entity. <br>
+     * Generated from a per-entity pooled sequence (a <i>&lt;entity&gt;_seq</i> table on MySQL) instead of
+     * an identity column, so that Hibernate can batch inserts.
+     */
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE)
     protected Long id;
 
     @CreationTimestamp
@@ -1,18 +1,28 @@
 package com.project.back_end.models;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.Email;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Pattern;
 import jakarta.validation.constraints.Size;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.hibernate.annotations.ColumnDefault;
 
 import java.util.Set;
 
+// read on every booking and token check, changed only by admins: kept in the second-level cache,
+// which Hibernate updates on every change made through it
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = Doctor.CACHE_REGION)
 public class Doctor extends BasePerson {
 
+    public static final String CACHE_REGION = "doctor";
+    public static final String QUERY_CACHE_REGION = "doctor-query";
+
     // id inherited from BaseModel
     // password inherited from BasePerson
 
@@ -41,11 +51,12 @@ public class Doctor extends BasePerson {
 
     // Available times for the doctor in a list of time slots.
     //  - Each time slot is represented as a string (e.g., "09:00-10:00", "10:00-11:00").
-    //  - The @ElementCollection annotation ensures that the list of time slots is stored as a separate collection in the database.
-    @Column(nullable = false)
+    //  - Kept in the compact AvailableTimes form and stored in a single column of the doctor table,
+    //    so loading a doctor needs no join and the slots are parsed once per load.
+    @Column(name = "available_times", nullable = false, length = 512)
+    @Convert(converter = AvailableTimesConverter.class)
     @NotNull
-    @ElementCollection
-    private Set<String> availableTimes;
+    private AvailableTimes availableTimes;
 
     // field is_active to deactivate patients without deleting them to keep history records
     @Column(nullable = false)
@@ -102,11 +113,23 @@ public class Doctor extends BasePerson {
     }
 
     public Set<String> getAvailableTimes() {
-        return availableTimes;
+        return availableTimes == null ? null : availableTimes.toSet();
     }
 
+    /**
+     * @param availableTimes time slots like "09:00-10:00"
+     * @throws IllegalArgumentException if a slot isn't formatted like "HH:mm-HH:mm"
+     */
     public void setAvailableTimes(Set<String> availableTimes) {
-        this.availableTimes = availableTimes;
+        this.availableTimes = availableTimes == null ? null : AvailableTimes.of(availableTimes);
+    }
+
+    /**
+     * @return bitmask of the hours covered by the available times, bit <i>n</i> for the hour starting at <i>n</i>:00
+     */
+    @JsonIgnore
+    public int getAvailableHours() {
+        return availableTimes == null ? 0 : availableTimes.hourMask();
     }
 
     public boolean isActive() {
@@ -0,0 +1,54 @@
+package com.project.back_end.models;
+
+import jakarta.persistence.*;
+import org.hibernate.annotations.OnDelete;
+import org.hibernate.annotations.OnDeleteAction;
+
+import java.io.Serializable;
+
+/**
+ * Number of appointments of a doctor in a month, or in a whole year for {@link #YEAR_TOTAL}. <br>
+ * Maintained incrementally in the same transaction as booking, rescheduling and cancelling appointments,
+ * so "top doctor" reports read a single row from the index instead of grouping the appointment table.
+ * The counts are written with upserts, see {@link com.project.back_end.services.AppointmentRollupService}.
+ */
+@Entity
+@Table(indexes = @Index(name = "idx_appointment_count_top", columnList = "rollup_year, rollup_month, appointment_count"))
+public class DoctorAppointmentCount {
+
+    /** Month number of the row holding the count of the whole year. */
+    public static final int YEAR_TOTAL = 0;
+
+    @EmbeddedId
+    private Key key;
+
+    /** Doctor the count belongs to, the counts are deleted together with the doctor. */
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
+    @JoinColumn(name = "doctor_id", insertable = false, updatable = false)
+    @OnDelete(action = OnDeleteAction.CASCADE)
+    private Doctor doctor;
+
+    /** Number of appointments. */
+    @Column(name = "appointment_count", nullable = false)
+    private long appointmentCount;
+
+    protected DoctorAppointmentCount() {
+    }
+
+    public Key getKey() {
+        return key;
+    }
+
+    public long getAppointmentCount() {
+        return appointmentCount;
+    }
+
+    /**
+     * (doctor, year, month) the count is for, month {@link #YEAR_TOTAL} for the whole year.
+     */
+    @Embeddable
+    public record Key(@Column(name = "doctor_id") Long doctorId,
+                      @Column(name = "rollup_year") int year,
+                      @Column(name = "rollup_month") int month) implements Serializable {
+    }
+}
@@ -0,0 +1,75 @@
+package com.project.back_end.models;
+
+import jakarta.persistence.*;
+import jakarta.validation.constraints.NotNull;
+import org.hibernate.annotations.OnDelete;
+import org.hibernate.annotations.OnDeleteAction;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+/**
+ * One hour-long slot of a doctor's availability calendar on a given date. <br>
+ * Slots are materialized from the doctor's available times the first time a date is requested,
+ * and then kept current by booking, cancelling and rescheduling appointments.
+ * A date that has rows is materialized, its free slots are the rows that are not booked.
+ */
+@Entity
+@Table(uniqueConstraints = @UniqueConstraint(name = "unique_doctor_date",
+        columnNames = {"doctor_id", "available_date", "available_time"}))
+public class DoctorAvailability extends BaseModel {
+
+    // id inherited from BaseModel
+
+    /** Doctor this slot belongs to, the slot is deleted together with the doctor. */
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
+    @OnDelete(action = OnDeleteAction.CASCADE)
+    @NotNull
+    private Doctor doctor;
+
+    /** Date of the slot. */
+    @Column(nullable = false)
+    @NotNull
+    private LocalDate availableDate;
+
+    /** Start time of the slot, all appointments are 1 hr long intervals. */
+    @Column(nullable = false)
+    @NotNull
+    private LocalTime availableTime;
+
+    /** Whether an appointment is booked in this slot. */
+    @Column(nullable = false)
+    private boolean booked;
+
+    protected DoctorAvailability() {
+        super();
+    }
+
+    public DoctorAvailability(Doctor doctor, LocalDate availableDate, LocalTime availableTime, boolean booked) {
+        this();
+        this.doctor = doctor;
+        this.availableDate = availableDate;
+        this.availableTime = availableTime;
+        this.booked = booked;
+    }
+
+    public Doctor getDoctor() {
+        return doctor;
+    }
+
+    public LocalDate getAvailableDate() {
+        return availableDate;
+    }
+
+    public LocalTime getAvailableTime() {
+        return availableTime;
+    }
+
+    public boolean isBooked() {
+        return booked;
+    }
+
+    public void setBooked(boolean booked) {
+        this.booked = booked;
+    }
+}
@@ -3,6 +3,7 @@ package com.project.back_end.models;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Size;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.Indexed;
 import org.springframework.data.mongodb.core.mapping.Document;
 import org.springframework.data.mongodb.core.mapping.Field;
 import org.springframework.data.mongodb.core.mapping.FieldType;
@@ -26,8 +27,9 @@ public class Prescription {
     @Field(targetType = FieldType.STRING, write = Field.Write.NON_NULL)
     private String patientName;
 
-    // ID of the associated appointment where the prescription was given.
+    // ID of the associated appointment where the prescription was given, at most one prescription per appointment.
     @NotNull
+    @Indexed(name = "idx_prescription_appointment", unique = true)
     @Field(targetType = FieldType.INT64, write = Field.Write.NON_NULL)
     private Long appointmentId;
 
@@ -48,7 +50,7 @@ public class Prescription {
     private String doctorNotes;
 
     @Field(targetType = FieldType.DATE_TIME, write = Field.Write.NON_NULL)
-    private final LocalDateTime createdAt;
+    private LocalDateTime createdAt;
 
     @Field(targetType = FieldType.DATE_TIME, write = Field.Write.NON_NULL)
     private LocalDateTime updatedAt;
@@ -123,6 +125,10 @@ public class Prescription {
         return createdAt;
     }
 
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+
     public LocalDateTime getUpdatedAt() {
         return updatedAt;
     }
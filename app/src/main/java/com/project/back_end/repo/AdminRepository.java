@@ -1,30 +1,32 @@
 package com.project.back_end.repo;
 
-public interface AdminRepository {
-
-    // 1. Extend JpaRepository:
-//    - The repository extends JpaRepository<Admin, Long>, which gives it basic CRUD functionality.
-//    - The methods such as save, delete, update, and find are inherited without the need for explicit implementation.
-//    - JpaRepository also includes pagination and sorting features.
-
-// Example: public interface AdminRepository extends JpaRepository<Admin, Long> {}
-
-// 2. Custom Query Method:
-//    - **findByUsername**:
-//      - This method allows you to find an Admin by their username.
-//      - Return type: Admin
-//      - Parameter: String username
-//      - It will return an Admin entity that matches the provided username.
-//      - If no Admin is found with the given username, it returns null.
-
-// Example: public Admin findByUsername(String username);
-
-// 3. Add @Repository annotation:
-//    - The @Repository annotation marks this interface as a Spring Data JPA repository.
-//    - While it is technically optional (since JpaRepository is a part of Spring Data), it's good practice to include it for clarity.
-//    - Spring Data JPA automatically implements the repository, providing the necessary CRUD functionality.
-
-// Example: @Repository
-//          public interface AdminRepository extends JpaRepository<Admin, Long> { ... }
+import com.project.back_end.models.Admin;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+@Repository
+public interface AdminRepository extends JpaRepository<Admin, Long> {
+
+    /**
+     * Finds an Admin by username.
+     * @param username admin's username
+     * @return the admin matching the provided username or null if not found
+     */
+    Admin findByUsername(String username);
+
+    /**
+     * Replaces the admin's stored password hash, e.g. with one of the current cost after a login.
+     * @param id admin's id
+     * @param password new password hash
+     * @return number of updated admins
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE Admin a SET a.password = :password WHERE a.id = :id")
+    int updatePassword(@Param("id") Long id, @Param("password") String password);
 
 }
@@ -1,6 +1,26 @@
 package com.project.back_end.repo;
 
-public interface AppointmentRepository  {
+import com.project.back_end.DTO.AppointmentDTO;
+import com.project.back_end.models.Appointment;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.EntityGraph;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Stream;
+
+@Repository
+public interface AppointmentRepository extends JpaRepository<Appointment, Long> {
 
    // 1. Extend JpaRepository:
 //    - The repository extends JpaRepository<Appointment, Long>, which gives it basic CRUD functionality.
@@ -18,23 +38,173 @@ public interface AppointmentRepository  {
 //      - Parameters: Long doctorId, LocalDateTime start, LocalDateTime end
 //      - It uses a LEFT JOIN to fetch the doctor’s available times along with the appointments.
 
+    /** Rows fetched per round trip by the streaming queries. */
+    int STREAM_FETCH_SIZE = 500;
+
+    // display fields of an appointment list, read with the appointment in one join
+    String APPOINTMENT_DTO = "SELECT new com.project.back_end.DTO.AppointmentDTO(a.id, d.id, d.name, p.id, p.name, "
+            + "p.email, p.phone, p.address, a.appointmentTime, a.status) "
+            + "FROM Appointment a JOIN a.doctor d JOIN a.patient p ";
+
+    /**
+     * Retrieves one page of a doctor's appointments within [start, end), ordered by (appointment time, id),
+     * starting right after the given position (keyset pagination).
+     * The doctor's and the patient's display fields are read in the same query, without loading the entities.
+     * @param doctorId doctor's id
+     * @param start inclusive lower bound
+     * @param end exclusive upper bound
+     * @param patientName lower case LIKE pattern on the patient's name, or null for all patients
+     * @param afterTime appointment time of the last appointment on the previous page
+     * @param afterId id of the last appointment on the previous page
+     * @param limit maximum number of appointments
+     * @return page of appointments
+     */
+    @Query(APPOINTMENT_DTO +
+            "WHERE d.id = :doctorId AND a.appointmentTime >= :start AND a.appointmentTime < :end " +
+            "AND (:patientName IS NULL OR LOWER(p.name) LIKE :patientName) " +
+            "AND (a.appointmentTime > :afterTime OR (a.appointmentTime = :afterTime AND a.id > :afterId)) " +
+            "ORDER BY a.appointmentTime, a.id")
+    List<AppointmentDTO> findPageByDoctorId(@Param("doctorId") Long doctorId,
+                                            @Param("start") LocalDateTime start,
+                                            @Param("end") LocalDateTime end,
+                                            @Param("patientName") String patientName,
+                                            @Param("afterTime") LocalDateTime afterTime,
+                                            @Param("afterId") long afterId,
+                                            Limit limit);
+
+    /**
+     * Same as {@link #findPageByDoctorId} with the patients given by id instead of a name pattern,
+     * e.g. the ones found by {@link com.project.back_end.services.PatientNameIndex}.
+     * @param doctorId doctor's id
+     * @param start inclusive lower bound
+     * @param end exclusive upper bound
+     * @param patientIds patients' ids
+     * @param afterTime appointment time of the last appointment on the previous page
+     * @param afterId id of the last appointment on the previous page
+     * @param limit maximum number of appointments
+     * @return page of appointments
+     */
+    @Query(APPOINTMENT_DTO +
+            "WHERE d.id = :doctorId AND a.appointmentTime >= :start AND a.appointmentTime < :end " +
+            "AND p.id IN :patientIds " +
+            "AND (a.appointmentTime > :afterTime OR (a.appointmentTime = :afterTime AND a.id > :afterId)) " +
+            "ORDER BY a.appointmentTime, a.id")
+    List<AppointmentDTO> findPageByDoctorIdAndPatientIds(@Param("doctorId") Long doctorId,
+                                                         @Param("start") LocalDateTime start,
+                                                         @Param("end") LocalDateTime end,
+                                                         @Param("patientIds") Collection<Long> patientIds,
+                                                         @Param("afterTime") LocalDateTime afterTime,
+                                                         @Param("afterId") long afterId,
+                                                         Limit limit);
+
+    /**
+     * Retrieves the id and name of every patient that has an appointment with the doctor.
+     * @param doctorId doctor's id
+     * @return list of [patientId, patientName] pairs
+     */
+    @Query("SELECT DISTINCT p.id, p.name FROM Appointment a JOIN a.patient p WHERE a.doctor.id = :doctorId")
+    List<Object[]> findPatientNamesByDoctorId(@Param("doctorId") Long doctorId);
+
+    /**
+     * Streams a doctor's appointments within [start, end), ordered by (appointment time, id),
+     * reading {@link #STREAM_FETCH_SIZE} rows per round trip instead of the whole result.
+     * The doctor and the patient are loaded in the same query, see {@link Appointment#WITH_DOCTOR_AND_PATIENT}.
+     * Must be consumed and closed within a transaction.
+     * @param doctorId doctor's id
+     * @param start inclusive lower bound
+     * @param end exclusive upper bound
+     * @return stream of read-only appointments
+     */
+    @QueryHints({@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "" + STREAM_FETCH_SIZE),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")})
+    @EntityGraph(Appointment.WITH_DOCTOR_AND_PATIENT)
+    @Query("SELECT a FROM Appointment a " +
+            "WHERE a.doctor.id = :doctorId AND a.appointmentTime >= :start AND a.appointmentTime < :end " +
+            "ORDER BY a.appointmentTime, a.id")
+    Stream<Appointment> streamByDoctorIdAndAppointmentTimeBetween(@Param("doctorId") Long doctorId,
+                                                                  @Param("start") LocalDateTime start,
+                                                                  @Param("end") LocalDateTime end);
+
+    /**
+     * Retrieves only the start times of a doctor's appointments within [start, end).
+     * Used to (re)build the in-memory slot occupancy without materializing the entities.
+     * @param doctorId doctor's id
+     * @param start inclusive lower bound
+     * @param end exclusive upper bound
+     * @return list of appointment start times
+     */
+    @Query("SELECT a.appointmentTime FROM Appointment a " +
+            "WHERE a.doctor.id = :doctorId AND a.appointmentTime >= :start AND a.appointmentTime < :end")
+    List<LocalDateTime> findAppointmentTimes(@Param("doctorId") Long doctorId,
+                                             @Param("start") LocalDateTime start,
+                                             @Param("end") LocalDateTime end);
+
+    /**
+     * Retrieves the (doctor id, appointment time) pairs that are already booked among the given doctors and times.
+     * The result may contain pairs that weren't requested together, callers match the exact pairs.
+     * @param doctorIds doctors' ids
+     * @param times appointment start times
+     * @return list of [doctorId, appointmentTime] pairs
+     */
+    @Query("SELECT a.doctor.id, a.appointmentTime FROM Appointment a " +
+            "WHERE a.doctor.id IN :doctorIds AND a.appointmentTime IN :times")
+    List<Object[]> findBookedSlots(@Param("doctorIds") Collection<Long> doctorIds,
+                                   @Param("times") Collection<LocalDateTime> times);
+
 //    - **findByDoctorIdAndPatient_NameContainingIgnoreCaseAndAppointmentTimeBetween**:
 //      - This method retrieves appointments for a specific doctor and patient name (ignoring case) within a given time range.
 //      - It performs a LEFT JOIN to fetch both the doctor and patient details along with the appointment times.
 //      - Return type: List<Appointment>
 //      - Parameters: Long doctorId, String patientName, LocalDateTime start, LocalDateTime end
 
-//    - **deleteAllByDoctorId**:
-//      - This method deletes all appointments associated with a particular doctor.
-//      - It is marked as @Modifying and @Transactional, which makes it a modification query, ensuring that the operation is executed within a transaction.
-//      - Return type: void
-//      - Parameters: Long doctorId
+    /**
+     * Deletes all appointments associated with a particular doctor.
+     * @param doctorId doctor's id
+     */
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM Appointment a WHERE a.doctor.id = :doctorId")
+    void deleteAllByDoctorId(@Param("doctorId") Long doctorId);
 
 //    - **findByPatientId**:
 //      - This method retrieves all appointments for a specific patient.
 //      - Return type: List<Appointment>
 //      - Parameters: Long patientId
 
+    /**
+     * Retrieves one page of a patient's appointments, ordered by (appointment time, id),
+     * starting right after the given position (keyset pagination).
+     * The doctor's and the patient's display fields are read in the same query, without loading the entities.
+     * @param patientId patient's id
+     * @param afterTime appointment time of the last appointment on the previous page
+     * @param afterId id of the last appointment on the previous page
+     * @param limit maximum number of appointments
+     * @return page of appointments
+     */
+    @Query(APPOINTMENT_DTO +
+            "WHERE p.id = :patientId " +
+            "AND (a.appointmentTime > :afterTime OR (a.appointmentTime = :afterTime AND a.id > :afterId)) " +
+            "ORDER BY a.appointmentTime, a.id")
+    List<AppointmentDTO> findPageByPatientId(@Param("patientId") Long patientId,
+                                             @Param("afterTime") LocalDateTime afterTime,
+                                             @Param("afterId") long afterId,
+                                             Limit limit);
+
+    /**
+     * Streams all appointments of a patient, ordered by (appointment time, id),
+     * reading {@link #STREAM_FETCH_SIZE} rows per round trip instead of the whole result.
+     * The doctor and the patient are loaded in the same query, see {@link Appointment#WITH_DOCTOR_AND_PATIENT}.
+     * Must be consumed and closed within a transaction.
+     * @param patientId patient's id
+     * @return stream of read-only appointments
+     */
+    @QueryHints({@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "" + STREAM_FETCH_SIZE),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")})
+    @EntityGraph(Appointment.WITH_DOCTOR_AND_PATIENT)
+    @Query("SELECT a FROM Appointment a " +
+            "WHERE a.patient.id = :patientId ORDER BY a.appointmentTime, a.id")
+    Stream<Appointment> streamByPatientId(@Param("patientId") Long patientId);
+
 //    - **findByPatient_IdAndStatusOrderByAppointmentTimeAsc**:
 //      - This method retrieves all appointments for a specific patient with a given status, ordered by the appointment time.
 //      - Return type: List<Appointment>
@@ -54,6 +224,14 @@ public interface AppointmentRepository  {
 //      - This method updates the status of a specific appointment based on its ID.
 //      - Return type: void
 //      - Parameters: int status, long id
+//      - Status changes are written in batches by AppointmentStatusWriter instead.
+
+    /**
+     * @param id appointment's id
+     * @param doctorId doctor's id
+     * @return true if the appointment exists and is the doctor's
+     */
+    boolean existsByIdAndDoctorId(Long id, Long doctorId);
 
 // 3. @Modifying and @Transactional annotations:
 //    - The @Modifying annotation is used to indicate that the method performs a modification operation (like DELETE or UPDATE).
@@ -0,0 +1,77 @@
+package com.project.back_end.repo;
+
+import com.project.back_end.models.DoctorAvailability;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.List;
+
+@Repository
+public interface DoctorAvailabilityRepository extends JpaRepository<DoctorAvailability, Long> {
+
+    /**
+     * Retrieves the materialized slots of a doctor within a date range, booked or not,
+     * as [availableDate, availableTime, booked] rows ordered by date and time.
+     * A single range read on the (doctor_id, available_date, available_time) key.
+     * @param doctorId doctor's id
+     * @param from first date, inclusive
+     * @param to last date, inclusive
+     * @return list of [availableDate, availableTime, booked] rows
+     */
+    @Query("SELECT a.availableDate, a.availableTime, a.booked FROM DoctorAvailability a " +
+            "WHERE a.doctor.id = :doctorId AND a.availableDate BETWEEN :from AND :to " +
+            "ORDER BY a.availableDate, a.availableTime")
+    List<Object[]> findSlots(@Param("doctorId") Long doctorId,
+                             @Param("from") LocalDate from,
+                             @Param("to") LocalDate to);
+
+    /**
+     * Marks a single slot as booked or free.
+     * @return number of updated slots, 0 if the date isn't materialized or the time isn't one of the doctor's slots
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE DoctorAvailability a SET a.booked = :booked " +
+            "WHERE a.doctor.id = :doctorId AND a.availableDate = :date AND a.availableTime = :time")
+    int updateBooked(@Param("doctorId") Long doctorId,
+                     @Param("date") LocalDate date,
+                     @Param("time") LocalTime time,
+                     @Param("booked") boolean booked);
+
+    /**
+     * Marks a single slot as booked if it is free and an appointment exists at its time,
+     * or as free if it is booked and no appointment exists at its time.
+     * Brings a slot in line with the committed appointments after a booking or a cancellation
+     * raced with the materialization of its date.
+     * @param time the slot's date and time, matching date and time
+     * @return number of updated slots, 0 if the slot was current or isn't materialized
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE DoctorAvailability a SET a.booked = CASE WHEN a.booked = TRUE THEN FALSE ELSE TRUE END " +
+            "WHERE a.doctor.id = :doctorId AND a.availableDate = :date AND a.availableTime = :slot " +
+            "AND ((a.booked = FALSE AND EXISTS (SELECT p.id FROM Appointment p " +
+            "WHERE p.doctor.id = :doctorId AND p.appointmentTime = :time)) " +
+            "OR (a.booked = TRUE AND NOT EXISTS (SELECT p.id FROM Appointment p " +
+            "WHERE p.doctor.id = :doctorId AND p.appointmentTime = :time)))")
+    int syncBooked(@Param("doctorId") Long doctorId,
+                   @Param("date") LocalDate date,
+                   @Param("slot") LocalTime slot,
+                   @Param("time") LocalDateTime time);
+
+    /**
+     * Deletes the doctor's slots from the given date on, so that they are materialized again on next read.
+     */
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM DoctorAvailability a WHERE a.doctor.id = :doctorId AND a.availableDate >= :from")
+    int deleteFrom(@Param("doctorId") Long doctorId, @Param("from") LocalDate from);
+
+}
@@ -1,39 +1,66 @@
 package com.project.back_end.repo;
 
-public interface DoctorRepository {
-   // 1. Extend JpaRepository:
-//    - The repository extends JpaRepository<Doctor, Long>, which gives it basic CRUD functionality.
-//    - This allows the repository to perform operations like save, delete, update, and find without needing to implement these methods manually.
-//    - JpaRepository also includes features like pagination and sorting.
-
-// Example: public interface DoctorRepository extends JpaRepository<Doctor, Long> {}
-
-// 2. Custom Query Methods:
-
-//    - **findByEmail**:
-//      - This method retrieves a Doctor by their email.
-//      - Return type: Doctor
-//      - Parameters: String email
-
-//    - **findByNameLike**:
-//      - This method retrieves a list of Doctors whose name contains the provided search string (case-sensitive).
-//      - The `CONCAT('%', :name, '%')` is used to create a pattern for partial matching.
-//      - Return type: List<Doctor>
-//      - Parameters: String name
-
-//    - **findByNameContainingIgnoreCaseAndSpecialtyIgnoreCase**:
-//      - This method retrieves a list of Doctors where the name contains the search string (case-insensitive) and the specialty matches exactly (case-insensitive).
-//      - It combines both fields for a more specific search.
-//      - Return type: List<Doctor>
-//      - Parameters: String name, String specialty
-
-//    - **findBySpecialtyIgnoreCase**:
-//      - This method retrieves a list of Doctors with the specified specialty, ignoring case sensitivity.
-//      - Return type: List<Doctor>
-//      - Parameters: String specialty
-
-// 3. @Repository annotation:
-//    - The @Repository annotation marks this interface as a Spring Data JPA repository.
-//    - Spring Data JPA automatically implements this repository, providing the necessary CRUD functionality and custom queries defined in the interface.
-
-}
\ No newline at end of file
+import com.project.back_end.models.Doctor;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+@Repository
+public interface DoctorRepository extends JpaRepository<Doctor, Long> {
+
+    /**
+     * Retrieves a Doctor by their email, from the query cache while the doctor table is unchanged.
+     * @param email doctor's email
+     * @return the doctor or null if not found
+     */
+    @QueryHints({@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = Doctor.QUERY_CACHE_REGION)})
+    Doctor findByEmail(String email);
+
+    /**
+     * Retrieves a list of Doctors whose name contains the provided search string (case-sensitive).
+     * @param name part of the doctor's name
+     * @return list of matching doctors
+     */
+    @Query("SELECT d FROM Doctor d WHERE d.name LIKE CONCAT('%', :name, '%')")
+    List<Doctor> findByNameLike(@Param("name") String name);
+
+    /**
+     * Retrieves a list of Doctors where the name contains the search string (case-insensitive)
+     * and the specialty matches exactly (case-insensitive).
+     * @param name part of the doctor's name
+     * @param specialty doctor's specialty
+     * @return list of matching doctors
+     */
+    List<Doctor> findByNameContainingIgnoreCaseAndSpecialtyIgnoreCase(String name, String specialty);
+
+    /**
+     * Retrieves a list of Doctors with the specified specialty, ignoring case sensitivity,
+     * from the query cache while the doctor table is unchanged.
+     * @param specialty doctor's specialty
+     * @return list of matching doctors
+     */
+    @QueryHints({@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = Doctor.QUERY_CACHE_REGION)})
+    List<Doctor> findBySpecialtyIgnoreCase(String specialty);
+
+    /**
+     * Replaces the doctor's stored password hash, e.g. with one of the current cost after a login.
+     * @param id doctor's id
+     * @param password new password hash
+     * @return number of updated doctors
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE Doctor d SET d.password = :password WHERE d.id = :id")
+    int updatePassword(@Param("id") Long id, @Param("password") String password);
+
+}
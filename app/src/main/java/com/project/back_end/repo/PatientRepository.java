@@ -1,29 +1,40 @@
 package com.project.back_end.repo;
 
-public interface PatientRepository {
-    // 1. Extend JpaRepository:
-//    - The repository extends JpaRepository<Patient, Long>, which provides basic CRUD functionality.
-//    - This allows the repository to perform operations like save, delete, update, and find without needing to implement these methods manually.
-//    - JpaRepository also includes features like pagination and sorting.
-
-// Example: public interface PatientRepository extends JpaRepository<Patient, Long> {}
-
-// 2. Custom Query Methods:
-
-//    - **findByEmail**:
-//      - This method retrieves a Patient by their email address.
-//      - Return type: Patient
-//      - Parameters: String email
-
-//    - **findByEmailOrPhone**:
-//      - This method retrieves a Patient by either their email or phone number, allowing flexibility for the search.
-//      - Return type: Patient
-//      - Parameters: String email, String phone
-
-// 3. @Repository annotation:
-//    - The @Repository annotation marks this interface as a Spring Data JPA repository.
-//    - Spring Data JPA automatically implements this repository, providing the necessary CRUD functionality and custom queries defined in the interface.
-
+import com.project.back_end.models.Patient;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+@Repository
+public interface PatientRepository extends JpaRepository<Patient, Long> {
+
+    /**
+     * Retrieves a Patient by their email address.
+     * @param email patient's email
+     * @return the patient or null if not found
+     */
+    Patient findByEmail(String email);
+
+    /**
+     * Retrieves a Patient by either their email or phone number.
+     * @param email patient's email
+     * @param phone patient's phone number
+     * @return the patient or null if not found
+     */
+    Patient findByEmailOrPhone(String email, String phone);
+
+    /**
+     * Replaces the patient's stored password hash, e.g. with one of the current cost after a login.
+     * @param id patient's id
+     * @param password new password hash
+     * @return number of updated patients
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE Patient p SET p.password = :password WHERE p.id = :id")
+    int updatePassword(@Param("id") Long id, @Param("password") String password);
 
 }
-
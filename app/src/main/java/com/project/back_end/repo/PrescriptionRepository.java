@@ -1,6 +1,16 @@
 package com.project.back_end.repo;
 
-public interface PrescriptionRepository  {
+import com.project.back_end.DTO.PrescriptionSummary;
+import com.project.back_end.models.Prescription;
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.data.mongodb.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface PrescriptionRepository extends MongoRepository<Prescription, String> {
 // 1. Extend MongoRepository:
 //    - The repository extends MongoRepository<Prescription, String>, which provides basic CRUD functionality for MongoDB.
 //    - This allows the repository to perform operations like save, delete, update, and find without needing to implement these methods manually.
@@ -16,6 +26,23 @@ public interface PrescriptionRepository  {
 //      - Parameters: Long appointmentId
 //      - MongoRepository automatically derives the query from the method name, in this case, it will find prescriptions by the appointment ID.
 
+    /**
+     * Retrieves the prescriptions of an appointment.
+     * @param appointmentId appointment's id
+     * @return list of prescriptions
+     */
+    List<Prescription> findByAppointmentId(Long appointmentId);
+
+    /**
+     * Retrieves the summaries of the prescriptions of many appointments with a single $in query
+     * on the indexed appointmentId, reading only the fields the summaries need.
+     * @param appointmentIds appointments' ids
+     * @return list of prescription summaries, in no particular order
+     */
+    @Query(value = "{ 'appointmentId': { $in: ?0 } }",
+            fields = "{ 'appointmentId': 1, 'medication': 1, 'dosage': 1, 'doctorNotes': 1 }")
+    List<PrescriptionSummary> findSummariesByAppointmentIdIn(Collection<Long> appointmentIds);
+
 
 }
 
@@ -0,0 +1,171 @@
+package com.project.back_end.services;
+
+import com.project.back_end.models.Appointment;
+import com.project.back_end.models.DoctorAppointmentCount;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Maintains the per doctor appointment counts by month and by year in the `doctor_appointment_count` table,
+ * replacing the GetDoctorWithMostPatientsByMonth/Year procedures that grouped the whole appointment table. <br>
+ * Every booking, rescheduling and cancellation adjusts the doctor's month row and year row
+ * in the caller's transaction. A "top doctor" query is then a seek on the (year, month, count) index.
+ * {@link #rebuild()} recomputes the table from the appointments, e.g. to backfill history.
+ */
+@Service
+public class AppointmentRollupService {
+
+    // a month row and a year row, created on first use
+    private static final String UPSERT = "INSERT INTO doctor_appointment_count "
+            + "(doctor_id, rollup_year, rollup_month, appointment_count) VALUES (?, ?, ?, ?) "
+            + "ON DUPLICATE KEY UPDATE appointment_count = appointment_count + ?";
+
+    private static final String TOP_DOCTOR = "SELECT doctor_id, appointment_count FROM doctor_appointment_count "
+            + "WHERE rollup_year = ? AND rollup_month = ? AND appointment_count > 0 "
+            + "ORDER BY appointment_count DESC LIMIT 1";
+
+    private static final Comparator<DoctorAppointmentCount.Key> KEY_ORDER =
+            Comparator.comparing(DoctorAppointmentCount.Key::doctorId)
+                    .thenComparingInt(DoctorAppointmentCount.Key::year)
+                    .thenComparingInt(DoctorAppointmentCount.Key::month);
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    public AppointmentRollupService(JdbcTemplate jdbcTemplate, TransactionTemplate transactionTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+    }
+
+    /**
+     * Counts a booked appointment, joining the caller's transaction.
+     * @param doctorId doctor's id
+     * @param time appointment start time
+     */
+    public void book(Long doctorId, LocalDateTime time) {
+        add(doctorId, time, 1);
+    }
+
+    /**
+     * Counts the booked appointments with a single JDBC batch, joining the caller's transaction.
+     * @param appointments appointments just inserted
+     */
+    public void bookAll(List<Appointment> appointments) {
+        final Map<DoctorAppointmentCount.Key, Long> deltas = new HashMap<>();
+        for (Appointment appointment : appointments) {
+            merge(deltas, appointment.getDoctor().getId(), appointment.getAppointmentTime(), 1);
+        }
+        upsert(deltas);
+    }
+
+    /**
+     * Uncounts a cancelled or rescheduled appointment, joining the caller's transaction.
+     * @param doctorId doctor's id
+     * @param time appointment start time
+     */
+    public void release(Long doctorId, LocalDateTime time) {
+        add(doctorId, time, -1);
+    }
+
+    /**
+     * Moves a rescheduled appointment's count to its new doctor or month, joining the caller's transaction.
+     * @param oldDoctorId doctor's id before the change
+     * @param oldTime appointment start time before the change
+     * @param newDoctorId doctor's id after the change
+     * @param newTime appointment start time after the change
+     */
+    public void move(Long oldDoctorId, LocalDateTime oldTime, Long newDoctorId, LocalDateTime newTime) {
+        final Map<DoctorAppointmentCount.Key, Long> deltas = new HashMap<>();
+        merge(deltas, oldDoctorId, oldTime, -1);
+        merge(deltas, newDoctorId, newTime, 1);
+        upsert(deltas);
+    }
+
+    /**
+     * Finds the doctor with the most appointments in a month.
+     * @param year year
+     * @param month month, 1 to 12
+     * @return map with "doctorId" and "patients_seen", empty if there were no appointments
+     */
+    public Map<String, Object> topDoctorByMonth(int year, int month) {
+        return topDoctor(year, month);
+    }
+
+    /**
+     * Finds the doctor with the most appointments in a year.
+     * @param year year
+     * @return map with "doctorId" and "patients_seen", empty if there were no appointments
+     */
+    public Map<String, Object> topDoctorByYear(int year) {
+        return topDoctor(year, DoctorAppointmentCount.YEAR_TOTAL);
+    }
+
+    /**
+     * Recomputes all counts from the appointment table in one transaction.
+     * @return number of rows written
+     */
+    public int rebuild() {
+        final Integer rows = transactionTemplate.execute(status -> {
+            jdbcTemplate.update("DELETE FROM doctor_appointment_count");
+            final int months = jdbcTemplate.update("INSERT INTO doctor_appointment_count "
+                    + "(doctor_id, rollup_year, rollup_month, appointment_count) "
+                    + "SELECT doctor_id, YEAR(appointment_time), MONTH(appointment_time), COUNT(*) "
+                    + "FROM appointment GROUP BY doctor_id, YEAR(appointment_time), MONTH(appointment_time)");
+            final int years = jdbcTemplate.update("INSERT INTO doctor_appointment_count "
+                    + "(doctor_id, rollup_year, rollup_month, appointment_count) "
+                    + "SELECT doctor_id, rollup_year, " + DoctorAppointmentCount.YEAR_TOTAL + ", SUM(appointment_count) "
+                    + "FROM doctor_appointment_count GROUP BY doctor_id, rollup_year");
+            return months + years;
+        });
+        return rows == null ? 0 : rows;
+    }
+
+    private void add(Long doctorId, LocalDateTime time, long delta) {
+        final Map<DoctorAppointmentCount.Key, Long> deltas = new HashMap<>();
+        merge(deltas, doctorId, time, delta);
+        upsert(deltas);
+    }
+
+    private static void merge(Map<DoctorAppointmentCount.Key, Long> deltas, Long doctorId, LocalDateTime time,
+                              long delta) {
+        deltas.merge(new DoctorAppointmentCount.Key(doctorId, time.getYear(), time.getMonthValue()), delta, Long::sum);
+        deltas.merge(new DoctorAppointmentCount.Key(doctorId, time.getYear(), DoctorAppointmentCount.YEAR_TOTAL),
+                delta, Long::sum);
+    }
+
+    // every change of a transaction goes through a single call, writing its rows in (doctor_id, year, month) order,
+    // so concurrent transactions lock the rows in the same order and can't deadlock on them
+    private void upsert(Map<DoctorAppointmentCount.Key, Long> deltas) {
+        final List<Map.Entry<DoctorAppointmentCount.Key, Long>> sorted = new ArrayList<>(deltas.size());
+        for (Map.Entry<DoctorAppointmentCount.Key, Long> delta : deltas.entrySet()) {
+            if (delta.getValue() != 0) {
+                sorted.add(delta);
+            }
+        }
+        sorted.sort(Map.Entry.comparingByKey(KEY_ORDER));
+        jdbcTemplate.batchUpdate(UPSERT, sorted, sorted.size(), (ps, delta) -> {
+            ps.setLong(1, delta.getKey().doctorId());
+            ps.setInt(2, delta.getKey().year());
+            ps.setInt(3, delta.getKey().month());
+            ps.setLong(4, delta.getValue());
+            ps.setLong(5, delta.getValue());
+        });
+    }
+
+    private Map<String, Object> topDoctor(int year, int month) {
+        final Map<String, Object> map = new HashMap<>();
+        jdbcTemplate.query(TOP_DOCTOR, resultSet -> {
+            map.put("doctorId", resultSet.getLong(1));
+            map.put("patients_seen", resultSet.getLong(2));
+        }, year, month);
+        return map;
+    }
+}
@@ -1,13 +1,49 @@
 package com.project.back_end.services;
 
+import com.project.back_end.DTO.AppointmentCursor;
+import com.project.back_end.DTO.AppointmentDTO;
+import com.project.back_end.DTO.BookingResult;
+import com.project.back_end.DTO.MessageResponse;
+import com.project.back_end.config.MetricsConfig;
 import com.project.back_end.models.Appointment;
+import com.project.back_end.repo.AppointmentRepository;
+import com.project.back_end.repo.DoctorRepository;
+import io.micrometer.core.annotation.Timed;
+import jakarta.persistence.EntityManager;
+import jakarta.validation.ConstraintViolation;
 import jakarta.validation.Valid;
+import jakarta.validation.Validator;
+import org.hibernate.exception.ConstraintViolationException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
 import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
 
+@Timed(value = MetricsConfig.SERVICE_TIMER, histogram = true, percentiles = {0.5, 0.95, 0.99})
 @Service
 public class AppointmentService {
 
@@ -15,12 +51,230 @@ public class AppointmentService {
 //    - The `AppointmentService` class requires several dependencies like `AppointmentRepository`, `Service`, `TokenService`, `PatientRepository`, and `DoctorRepository`.
 //    - These dependencies should be injected through the constructor.
 //    - Instruction: Ensure constructor injection is used for proper dependency management in Spring.
-    public AppointmentService() {
+    private static final Logger log = LoggerFactory.getLogger(AppointmentService.class);
+
+    /** Page size of the appointment lists if the client doesn't ask for one. */
+    public static final int DEFAULT_PAGE_SIZE = 50;
+    /** Largest page size a client can ask for. */
+    public static final int MAX_PAGE_SIZE = 200;
+    /** Most patients found by name that are passed to one page query by id, more are queried in chunks. */
+    static final int MAX_PATIENT_IDS = 500;
+
+    private static final Comparator<AppointmentDTO> PAGE_ORDER =
+            Comparator.comparing(AppointmentDTO::getAppointmentTime).thenComparing(AppointmentDTO::getId);
+
+    // shared, immutable responses
+    private static final ResponseEntity<MessageResponse> UPDATED = ResponseEntity.ok(MessageResponse.APPOINTMENT_UPDATED);
+    private static final ResponseEntity<MessageResponse> CANCELLED = ResponseEntity.ok(MessageResponse.APPOINTMENT_CANCELLED);
+    private static final ResponseEntity<MessageResponse> STATUS_UPDATED =
+            ResponseEntity.status(HttpStatus.ACCEPTED).body(MessageResponse.STATUS_UPDATED);
+    private static final ResponseEntity<MessageResponse> INVALID_STATUS =
+            ResponseEntity.status(HttpStatus.BAD_REQUEST).body(MessageResponse.INVALID_STATUS);
+    private static final ResponseEntity<MessageResponse> NOT_FOUND =
+            ResponseEntity.status(HttpStatus.BAD_REQUEST).body(MessageResponse.APPOINTMENT_NOT_FOUND);
+    private static final ResponseEntity<MessageResponse> UNAUTHORIZED =
+            ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(MessageResponse.UNAUTHORIZED);
+    private static final ResponseEntity<MessageResponse> INVALID_DOCTOR =
+            ResponseEntity.status(HttpStatus.BAD_REQUEST).body(MessageResponse.INVALID_DOCTOR);
+    private static final ResponseEntity<MessageResponse> SLOT_TAKEN =
+            ResponseEntity.status(HttpStatus.BAD_REQUEST).body(MessageResponse.SLOT_TAKEN);
+    private static final ResponseEntity<MessageResponse> BUSY = ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+            .header(HttpHeaders.RETRY_AFTER, "1").body(MessageResponse.BUSY);
+    private static final ResponseEntity<MessageResponse> INTERNAL_ERROR =
+            ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(MessageResponse.INTERNAL_ERROR);
+
+    private final AppointmentRepository appointmentRepository;
+    private final com.project.back_end.services.Service service;
+    private final TokenService tokenService;
+    private final DoctorRepository doctorRepository;
+    private final DoctorSlotIndex doctorSlotIndex;
+    private final PatientNameIndex patientNameIndex;
+    private final DoctorAvailabilityService doctorAvailabilityService;
+    private final AppointmentRollupService appointmentRollupService;
+    private final AppointmentStatusWriter appointmentStatusWriter;
+    private final TransactionTemplate transactionTemplate;
+    private final Validator validator;
+    private final EntityManager entityManager;
+
+    public AppointmentService(AppointmentRepository appointmentRepository,
+                              com.project.back_end.services.Service service,
+                              TokenService tokenService,
+                              DoctorRepository doctorRepository,
+                              DoctorSlotIndex doctorSlotIndex,
+                              PatientNameIndex patientNameIndex,
+                              DoctorAvailabilityService doctorAvailabilityService,
+                              AppointmentRollupService appointmentRollupService,
+                              AppointmentStatusWriter appointmentStatusWriter,
+                              TransactionTemplate transactionTemplate,
+                              Validator validator,
+                              EntityManager entityManager) {
+        this.appointmentRepository = appointmentRepository;
+        this.service = service;
+        this.tokenService = tokenService;
+        this.doctorRepository = doctorRepository;
+        this.doctorSlotIndex = doctorSlotIndex;
+        this.patientNameIndex = patientNameIndex;
+        this.doctorAvailabilityService = doctorAvailabilityService;
+        this.appointmentRollupService = appointmentRollupService;
+        this.appointmentStatusWriter = appointmentStatusWriter;
+        this.transactionTemplate = transactionTemplate;
+        this.validator = validator;
+        this.entityManager = entityManager;
     }
 
+    /***
+     * Retrieves the first page of the doctor's appointments on a date, see
+     * {@link #getAppointment(String, LocalDate, String, AppointmentCursor, int)}.
+     * @param patientName part of the patient's name, "null" or blank for all patients
+     * @param date date of the appointments
+     * @param token doctor's token
+     * @return map with the appointments under "appointments" and the cursor of the next page under "nextCursor"
+     */
+    @Transactional(readOnly = true)
     public Map<String, Object> getAppointment(String patientName, LocalDate date, String token) {
-        //TODO: implement
-        return null;
+        return getAppointment(patientName, date, token, null, DEFAULT_PAGE_SIZE);
+    }
+
+    /***
+     * Retrieves one page of the appointments of the doctor identified by the token on a date,
+     * optionally filtered by the patient's name, ordered by appointment time.
+     * - Pages are found with keyset pagination on (appointment_time, id): a page starts right after the cursor
+     *   returned with the previous page, so it costs the same however deep it is.
+     * - The appointments are read as {@link AppointmentDTO}s with the doctor's and patient's display fields
+     *   in a single join query, without loading any entity.
+     * - The patient's name is looked up in the doctor's {@link PatientNameIndex} and the page is read for the
+     *   matching patients' ids; a name matching more than {@link #MAX_PATIENT_IDS} patients is read in chunks
+     *   of that many ids, whose pages are merged.
+     * @param patientName part of the patient's name, case-insensitive, "null" or blank for all patients
+     * @param date date of the appointments
+     * @param token doctor's token
+     * @param after cursor returned with the previous page, null for the first page
+     * @param size maximum number of appointments, capped at {@link #MAX_PAGE_SIZE}
+     * @return map with the appointments under "appointments" and the cursor of the next page under "nextCursor",
+     * null on the last page; a map with a "message" if the token isn't a doctor's
+     */
+    @Transactional(readOnly = true)
+    public Map<String, Object> getAppointment(String patientName, LocalDate date, String token,
+                                              AppointmentCursor after, int size) {
+        final Map<String, Object> map = new HashMap<>();
+        final TokenService.VerifiedToken doctor = tokenService.verify(token, "doctor");
+        if (doctor == null) {
+            map.put("message", MessageResponse.INVALID_TOKEN.message());
+            return map;
+        }
+        final LocalDateTime start = date.atStartOfDay();
+        final AppointmentCursor from = after != null ? after : new AppointmentCursor(start, 0);
+        final int limit = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+
+        if (patientName == null || patientName.isBlank() || "null".equals(patientName)) {
+            putPage(map, limit, appointmentRepository.findPageByDoctorId(doctor.userId(), start, start.plusDays(1),
+                    null, from.time(), from.id(), Limit.of(limit + 1)));
+            return map;
+        }
+        final long[] patientIds = patientNameIndex.search(doctor.userId(), patientName);
+        if (patientIds.length <= MAX_PATIENT_IDS) {
+            putPage(map, limit, patientIds.length == 0 ? List.of() : findPage(doctor.userId(), start, patientIds,
+                    from, limit));
+            return map;
+        }
+        // every chunk's page holds the chunk's first limit + 1 appointments after the cursor,
+        // so the first limit + 1 of them all are among them
+        final List<AppointmentDTO> merged = new ArrayList<>();
+        for (int i = 0; i < patientIds.length; i += MAX_PATIENT_IDS) {
+            merged.addAll(findPage(doctor.userId(), start,
+                    Arrays.copyOfRange(patientIds, i, Math.min(i + MAX_PATIENT_IDS, patientIds.length)), from, limit));
+        }
+        merged.sort(PAGE_ORDER);
+        putPage(map, limit, merged.subList(0, Math.min(merged.size(), limit + 1)));
+        return map;
+    }
+
+    /***
+     * Retrieves one page of a patient's appointments ordered by appointment time, using keyset pagination
+     * like {@link #getAppointment(String, LocalDate, String, AppointmentCursor, int)}.
+     * @param patientId patient's id
+     * @param after cursor returned with the previous page, null for the first page
+     * @param size maximum number of appointments, capped at {@link #MAX_PAGE_SIZE}
+     * @return map with the appointments under "appointments" and the cursor of the next page under "nextCursor",
+     * null on the last page
+     */
+    @Transactional(readOnly = true)
+    public Map<String, Object> getPatientAppointments(Long patientId, AppointmentCursor after, int size) {
+        final Map<String, Object> map = new HashMap<>();
+        final AppointmentCursor from = after != null ? after : AppointmentCursor.FIRST;
+        final int limit = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+
+        putPage(map, limit, appointmentRepository.findPageByPatientId(patientId, from.time(), from.id(),
+                Limit.of(limit + 1)));
+        return map;
+    }
+
+    /***
+     * Passes all of the doctor's appointments within [start, end) to the consumer in appointment time order,
+     * for internal consumers such as reports and exports.
+     * The rows are streamed from the database in chunks of {@link AppointmentRepository#STREAM_FETCH_SIZE},
+     * and the persistence context is cleared after every chunk, so memory stays flat however many there are.
+     * The appointments are detached once the next chunk is read and must not be modified.
+     * @param doctorId doctor's id
+     * @param start inclusive lower bound
+     * @param end exclusive upper bound
+     * @param consumer receives the appointments
+     * @return number of appointments
+     */
+    @Transactional(readOnly = true)
+    public long forEachDoctorAppointment(Long doctorId, LocalDateTime start, LocalDateTime end,
+                                         Consumer<Appointment> consumer) {
+        return forEach(() -> appointmentRepository.streamByDoctorIdAndAppointmentTimeBetween(doctorId, start, end),
+                consumer);
+    }
+
+    /***
+     * Passes the patient's whole appointment history to the consumer in appointment time order,
+     * streamed like {@link #forEachDoctorAppointment(Long, LocalDateTime, LocalDateTime, Consumer)}.
+     * @param patientId patient's id
+     * @param consumer receives the appointments
+     * @return number of appointments
+     */
+    @Transactional(readOnly = true)
+    public long forEachPatientAppointment(Long patientId, Consumer<Appointment> consumer) {
+        return forEach(() -> appointmentRepository.streamByPatientId(patientId), consumer);
+    }
+
+    private long forEach(Supplier<Stream<Appointment>> query, Consumer<Appointment> consumer) {
+        final Long count = transactionTemplate.execute(status -> {
+            long n = 0;
+            try (Stream<Appointment> appointments = query.get()) {
+                final Iterator<Appointment> iterator = appointments.iterator();
+                while (iterator.hasNext()) {
+                    consumer.accept(iterator.next());
+                    if (++n % AppointmentRepository.STREAM_FETCH_SIZE == 0) {
+                        entityManager.clear();
+                    }
+                }
+            }
+            return n;
+        });
+        return count == null ? 0 : count;
+    }
+
+    private List<AppointmentDTO> findPage(Long doctorId, LocalDateTime start, long[] patientIds,
+                                          AppointmentCursor from, int limit) {
+        return appointmentRepository.findPageByDoctorIdAndPatientIds(doctorId, start, start.plusDays(1),
+                Arrays.stream(patientIds).boxed().toList(), from.time(), from.id(), Limit.of(limit + 1));
+    }
+
+    private void putPage(Map<String, Object> map, int limit, List<AppointmentDTO> appointments) {
+        final boolean more = appointments.size() > limit;
+        final List<AppointmentDTO> page = new ArrayList<>(more ? appointments.subList(0, limit) : appointments);
+        // show status changes that weren't written yet
+        for (int i = 0; i < page.size(); i++) {
+            final Integer status = appointmentStatusWriter.pendingStatus(page.get(i).getId());
+            if (status != null) {
+                page.set(i, page.get(i).withStatus(status));
+            }
+        }
+        map.put("appointments", page);
+        map.put("nextCursor", more ? AppointmentCursor.after(page.get(limit - 1)).encode() : null);
     }
 
 // 3. **Add @Transactional Annotation for Methods that Modify Database**:
@@ -29,26 +283,210 @@ public class AppointmentService {
 
     /***
      * Responsible for saving the new appointment to the database.
+     * - Booking is a single insert guarded by the unique key on (doctor_id, appointment_time), so concurrent
+     *   bookings of the same slot can't both succeed and no extra read is needed to detect a taken slot.
      * - Instruction: Ensure that the method handles any exceptions and returns an appropriate result code.
      * @param appointment
-     * @return If the save operation fails, it returns `0`; otherwise, it returns `1`.
+     * @return If the save operation fails, it returns `0`; if the slot is already booked, it returns `-1`;
+     * otherwise, it returns `1`.
      */
     public int bookAppointment(@Valid Appointment appointment) {
-        //TODO: implement
-        return 0;
+        try {
+            final Appointment saved = transactionTemplate.execute(status -> {
+                final Appointment inserted = appointmentRepository.saveAndFlush(appointment);
+                doctorAvailabilityService.book(inserted.getDoctor().getId(), inserted.getAppointmentTime());
+                appointmentRollupService.book(inserted.getDoctor().getId(), inserted.getAppointmentTime());
+                return inserted;
+            });
+            doctorSlotIndex.book(saved.getDoctor().getId(), saved.getAppointmentTime());
+            patientNameIndex.evictDoctor(saved.getDoctor().getId());
+            return 1;
+        } catch (DataIntegrityViolationException e) {
+            if (isSlotTaken(e)) {
+                doctorSlotIndex.book(appointment.getDoctor().getId(), appointment.getAppointmentTime());
+                return -1;
+            }
+            log.error("Failed to book appointment", e);
+            return 0;
+        } catch (Exception e) {
+            log.error("Failed to book appointment", e);
+            return 0;
+        }
+    }
+
+    /***
+     * Books several appointments at once, e.g. recurring visits scheduled by the front desk.
+     *  - Every appointment is validated on its own and checked against the doctor's available times.
+     *  - Slots that are already booked are found with a single query for the whole list.
+     *  - The remaining appointments are inserted in one transaction using JDBC batching.
+     *    If a concurrent booking takes one of the slots in the meantime, they are booked one by one instead.
+     * @param appointments appointments to book
+     * @param patientId id of the patient booking, from the token; appointments of other patients are refused
+     * @return a result for every appointment, in the same order, with the HTTP `status` code, a `message`,
+     * and the `id` of the appointment when it was booked
+     */
+    public List<BookingResult> bookAppointments(List<Appointment> appointments, Long patientId) {
+        final List<BookingResult> results = new ArrayList<>(appointments.size());
+        final List<Integer> candidates = new ArrayList<>();
+        final Set<SlotKey> requested = new HashSet<>();
+        for (int i = 0; i < appointments.size(); i++) {
+            final Appointment appointment = appointments.get(i);
+            results.add(null);
+            final Set<ConstraintViolation<Appointment>> violations = validator.validate(appointment);
+            if (!violations.isEmpty()) {
+                results.set(i, BookingResult.invalid(violations.iterator().next().getMessage()));
+                continue;
+            }
+            if (!isOwnedBy(appointment, patientId)) {
+                results.set(i, BookingResult.UNAUTHORIZED);
+                continue;
+            }
+            final SlotKey slot = SlotKey.of(appointment);
+            final int out = doctorSlotIndex.checkAvailableTime(slot.doctorId(), slot.time());
+            if (out == -1) {
+                results.set(i, BookingResult.INVALID_DOCTOR);
+            } else if (out == 0 || !requested.add(slot)) {
+                results.set(i, BookingResult.SLOT_TAKEN);
+            } else {
+                candidates.add(i);
+            }
+        }
+        if (candidates.isEmpty()) {
+            return results;
+        }
+
+        final Set<SlotKey> booked = findBookedSlots(requested);
+        final List<Integer> toSave = new ArrayList<>(candidates.size());
+        for (int i : candidates) {
+            if (booked.contains(SlotKey.of(appointments.get(i)))) {
+                results.set(i, BookingResult.SLOT_TAKEN);
+            } else {
+                toSave.add(i);
+            }
+        }
+        saveAll(appointments, toSave, results);
+        return results;
+    }
+
+    private Set<SlotKey> findBookedSlots(Set<SlotKey> slots) {
+        final Set<Long> doctorIds = new HashSet<>();
+        final Set<LocalDateTime> times = new HashSet<>();
+        for (SlotKey slot : slots) {
+            doctorIds.add(slot.doctorId());
+            times.add(slot.time());
+        }
+        final Set<SlotKey> booked = new HashSet<>();
+        for (Object[] row : appointmentRepository.findBookedSlots(doctorIds, times)) {
+            booked.add(new SlotKey((Long) row[0], (LocalDateTime) row[1]));
+        }
+        return booked;
+    }
+
+    private void saveAll(List<Appointment> appointments, List<Integer> toSave, List<BookingResult> results) {
+        if (toSave.isEmpty()) {
+            return;
+        }
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                final List<Appointment> saved = toSave.stream().map(appointments::get).toList();
+                appointmentRepository.saveAll(saved);
+                appointmentRepository.flush();
+                doctorAvailabilityService.bookAll(saved);
+                appointmentRollupService.bookAll(saved);
+            });
+            for (int i : toSave) {
+                final Appointment appointment = appointments.get(i);
+                doctorSlotIndex.book(appointment.getDoctor().getId(), appointment.getAppointmentTime());
+                patientNameIndex.evictDoctor(appointment.getDoctor().getId());
+                results.set(i, BookingResult.booked(appointment.getId()));
+            }
+        } catch (DataIntegrityViolationException e) {
+            // a slot was taken after the check, fall back to booking one by one to tell which one
+            for (int i : toSave) {
+                final Appointment appointment = appointments.get(i);
+                appointment.setId(null);
+                final int res = bookAppointment(appointment);
+                if (res == 1) {
+                    results.set(i, BookingResult.booked(appointment.getId()));
+                } else if (res == -1) {
+                    results.set(i, BookingResult.SLOT_TAKEN);
+                } else {
+                    results.set(i, BookingResult.INTERNAL_ERROR);
+                }
+            }
+        } catch (Exception e) {
+            log.error("Failed to book appointments", e);
+            for (int i : toSave) {
+                results.set(i, BookingResult.INTERNAL_ERROR);
+            }
+        }
     }
 
+
     /***
      * This method is used to update an existing appointment based on its ID.
      *  - It validates whether the patient ID matches, checks if the appointment is available for updating, and ensures that the doctor is available at the specified time.
      *  - If the update is successful, it saves the appointment; otherwise, it returns an appropriate error message.
      *  - Instruction: Ensure proper validation and error handling is included for appointment updates.
      * @param appointment
-     * @return
+     * @param patientId id of the patient updating, from the token
+     * @return 200 OK if the appointment is updated, otherwise 400 Bad Request, 401 Unauthorized or 500 Internal Server Error
      */
-    public ResponseEntity<Map<String, String>> updateAppointment(@Valid Appointment appointment) {
-        //TODO: implement
-        return null;
+    public ResponseEntity<MessageResponse> updateAppointment(@Valid Appointment appointment, Long patientId) {
+        try {
+            final Optional<Appointment> found = appointment.getId() == null
+                    ? Optional.empty() : appointmentRepository.findById(appointment.getId());
+            if (found.isEmpty()) {
+                return NOT_FOUND;
+            }
+            final Appointment current = found.get();
+            if (!isOwnedBy(current, patientId) || !isOwnedBy(appointment, patientId)) {
+                return UNAUTHORIZED;
+            }
+
+            final Long oldDoctorId = current.getDoctor().getId();
+            final LocalDateTime oldTime = current.getAppointmentTime();
+            final Long newDoctorId = appointment.getDoctor().getId();
+            final LocalDateTime newTime = appointment.getAppointmentTime();
+            final boolean slotChanged = !Objects.equals(oldDoctorId, newDoctorId) || !Objects.equals(oldTime, newTime);
+            if (slotChanged) {
+                final int out = service.validateAppointment(appointment);
+                if (out == -1) {
+                    return INVALID_DOCTOR;
+                } else if (out == 0) {
+                    return SLOT_TAKEN;
+                }
+                current.setDoctor(doctorRepository.getReferenceById(newDoctorId));
+                current.setAppointmentTime(newTime);
+            }
+            transactionTemplate.executeWithoutResult(status -> {
+                appointmentRepository.saveAndFlush(current);
+                if (slotChanged) {
+                    doctorAvailabilityService.release(oldDoctorId, oldTime);
+                    doctorAvailabilityService.book(newDoctorId, newTime);
+                    if (!Objects.equals(oldDoctorId, newDoctorId) || oldTime.getYear() != newTime.getYear()
+                            || oldTime.getMonth() != newTime.getMonth()) {
+                        appointmentRollupService.move(oldDoctorId, oldTime, newDoctorId, newTime);
+                    }
+                }
+            });
+            if (slotChanged) {
+                doctorSlotIndex.release(oldDoctorId, oldTime);
+                doctorSlotIndex.book(newDoctorId, newTime);
+                patientNameIndex.evictDoctor(oldDoctorId);
+                patientNameIndex.evictDoctor(newDoctorId);
+            }
+            return UPDATED;
+        } catch (DataIntegrityViolationException e) {
+            if (isSlotTaken(e)) {
+                return SLOT_TAKEN;
+            }
+            log.error("Failed to update appointment", e);
+            return INTERNAL_ERROR;
+        } catch (Exception e) {
+            log.error("Failed to update appointment", e);
+            return INTERNAL_ERROR;
+        }
     }
 
     /***
@@ -56,12 +494,34 @@ public class AppointmentService {
      * - It ensures the patient who owns the appointment is trying to cancel it and handles possible errors.
      * - Instruction: Make sure that the method checks for the patient ID match before deleting the appointment.
      * @param id
-     * @param token
-     * @return
+     * @param patientId id of the patient cancelling, from the token
+     * @return 200 OK if the appointment is cancelled, otherwise 400 Bad Request, 401 Unauthorized or 500 Internal Server Error
      */
-    public ResponseEntity<Map<String, String>> cancelAppointment(Long id, String token) {
-        //TODO: implement
-        return null;
+    public ResponseEntity<MessageResponse> cancelAppointment(Long id, Long patientId) {
+        try {
+            final Optional<Appointment> found = appointmentRepository.findById(id);
+            if (found.isEmpty()) {
+                return NOT_FOUND;
+            }
+            final Appointment appointment = found.get();
+            if (!isOwnedBy(appointment, patientId)) {
+                return UNAUTHORIZED;
+            }
+            final Long doctorId = appointment.getDoctor().getId();
+            final LocalDateTime time = appointment.getAppointmentTime();
+            transactionTemplate.executeWithoutResult(status -> {
+                appointmentRepository.delete(appointment);
+                appointmentRepository.flush();
+                doctorAvailabilityService.release(doctorId, time);
+                appointmentRollupService.release(doctorId, time);
+            });
+            doctorSlotIndex.release(doctorId, time);
+            patientNameIndex.evictDoctor(doctorId);
+            return CANCELLED;
+        } catch (Exception e) {
+            log.error("Failed to cancel appointment", e);
+            return INTERNAL_ERROR;
+        }
     }
 
 // 5. **Update Appointment Method**:
@@ -76,5 +536,55 @@ public class AppointmentService {
 //    - It should be annotated with `@Transactional` to ensure the operation is executed in a single transaction.
 //    - Instruction: Add `@Transactional` before this method to ensure atomicity when updating appointment status.
 
+    /***
+     * Changes the status of one of the doctor's appointments, e.g. marks it completed.
+     * The change is queued and written shortly after together with other changes, see {@link AppointmentStatusWriter};
+     * the doctor's appointment lists show it right away.
+     * @param id appointment's id
+     * @param status new status, 0 = scheduled, 1 = completed
+     * @param doctorId id of the doctor changing the status
+     * @return 202 Accepted, 400 Bad Request if the status is invalid or the appointment isn't the doctor's,
+     * 503 Service Unavailable if too many changes are waiting to be written, or 500 Internal Server Error
+     */
+    public ResponseEntity<MessageResponse> changeStatus(Long id, int status, Long doctorId) {
+        if (status != 0 && status != 1) {
+            return INVALID_STATUS;
+        }
+        try {
+            if (!appointmentRepository.existsByIdAndDoctorId(id, doctorId)) {
+                return NOT_FOUND;
+            }
+            return appointmentStatusWriter.submit(id, status) ? STATUS_UPDATED : BUSY;
+        } catch (Exception e) {
+            log.error("Failed to change appointment status", e);
+            return INTERNAL_ERROR;
+        }
+    }
+
+    /**
+     * Checks if the violation comes from the unique key on (doctor_id, appointment_time).
+     */
+    private static boolean isSlotTaken(DataIntegrityViolationException e) {
+        if (e.getCause() instanceof ConstraintViolationException violation) {
+            final String name = violation.getConstraintName();
+            return violation.getKind() == ConstraintViolationException.ConstraintKind.UNIQUE
+                    && (name == null || name.toLowerCase(Locale.ROOT).contains(Appointment.UNIQUE_DOCTOR_TIME));
+        }
+        return false;
+    }
+
+    /**
+     * Checks if the appointment belongs to the patient, whose id comes from a verified token.
+     */
+    private static boolean isOwnedBy(Appointment appointment, Long patientId) {
+        return patientId != null && appointment.getPatient() != null
+                && patientId.equals(appointment.getPatient().getId());
+    }
+
+    private record SlotKey(Long doctorId, LocalDateTime time) {
+        static SlotKey of(Appointment appointment) {
+            return new SlotKey(appointment.getDoctor().getId(), appointment.getAppointmentTime());
+        }
+    }
 
 }
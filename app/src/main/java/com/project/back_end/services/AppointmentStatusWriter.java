@@ -0,0 +1,231 @@
+package com.project.back_end.services;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Write-behind buffer for appointment status changes. <br>
+ * Changes are kept per appointment, a later change replacing an earlier one, and written with a single batched
+ * UPDATE every appointment.status.flush-interval-ms or as soon as appointment.status.batch-size appointments
+ * are pending. Once appointment.status.max-pending appointments are pending, the caller flushes before its change
+ * is queued, and the change is rejected if that flush fails, so the buffer stays bounded when the database is slow
+ * or down. <br>
+ * {@link #pendingStatus(Long)} lets reads see changes that weren't written yet. The buffer is flushed when the
+ * application shuts down; while the writer isn't running, changes are written right away.
+ */
+@Component
+public class AppointmentStatusWriter implements SmartLifecycle, MeterBinder {
+
+    private static final Logger log = LoggerFactory.getLogger(AppointmentStatusWriter.class);
+
+    private static final String UPDATE_STATUS = "UPDATE appointment SET status = ? WHERE id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final long flushIntervalMillis;
+    private final int batchSize;
+    private final int maxPending;
+
+    // appointment id -> latest status not written yet
+    private final ConcurrentMap<Long, Integer> pending = new ConcurrentHashMap<>();
+
+    // one flush at a time, a lock rather than synchronized as the flush blocks on JDBC
+    private final ReentrantLock flushLock = new ReentrantLock();
+
+    // queueing a change and stopping the writer, held only around map operations
+    private final ReentrantLock submitLock = new ReentrantLock();
+
+    private volatile ScheduledExecutorService scheduler;
+
+    public AppointmentStatusWriter(JdbcTemplate jdbcTemplate, TransactionTemplate transactionTemplate,
+                                   @Value("${appointment.status.flush-interval-ms:200}") long flushIntervalMillis,
+                                   @Value("${appointment.status.batch-size:500}") int batchSize,
+                                   @Value("${appointment.status.max-pending:10000}") int maxPending) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.flushIntervalMillis = flushIntervalMillis;
+        this.batchSize = batchSize;
+        this.maxPending = maxPending;
+    }
+
+    /**
+     * Registers the number of appointments whose status change isn't written yet as appointment.status.pending.
+     * @param registry registry of the application's meters
+     */
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("appointment.status.pending", pending, Map::size)
+                .description("Appointment status changes not written yet")
+                .register(registry);
+    }
+
+    /**
+     * Queues a status change of an appointment, or writes it right away if the writer isn't running.
+     * @param appointmentId appointment's id
+     * @param status new status
+     * @return true if the change was queued or written, false if the buffer is full and couldn't be flushed,
+     * in which case the change is dropped
+     */
+    public boolean submit(Long appointmentId, int status) {
+        Queued queued = queue(appointmentId, status);
+        if (queued == Queued.FULL) {
+            try {
+                flush();
+            } catch (RuntimeException e) {
+                log.error("Rejected a status change of appointment {}, {} changes pending", appointmentId,
+                        pending.size(), e);
+                return false;
+            }
+            queued = queue(appointmentId, status);
+            if (queued == Queued.FULL) {
+                log.warn("Rejected a status change of appointment {}, the buffer filled up again", appointmentId);
+                return false;
+            }
+        }
+        if (queued == Queued.STOPPED) {
+            pending.remove(appointmentId);
+            jdbcTemplate.update(UPDATE_STATUS, status, appointmentId);
+            return true;
+        }
+        final ScheduledExecutorService current = scheduler;
+        if (current != null && pending.size() >= batchSize) {
+            try {
+                current.execute(this::flushQuietly);
+            } catch (RejectedExecutionException e) {
+                // stopping, the final flush picks it up
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Queues the change if the writer is running and the buffer has room, checked and done under the lock
+     * that {@link #stop()} takes to stop the writer, so a queued change is always seen by the final flush.
+     */
+    private Queued queue(Long appointmentId, int status) {
+        submitLock.lock();
+        try {
+            if (scheduler == null) {
+                return Queued.STOPPED;
+            }
+            if (pending.size() >= maxPending && !pending.containsKey(appointmentId)) {
+                return Queued.FULL;
+            }
+            pending.put(appointmentId, status);
+            return Queued.QUEUED;
+        } finally {
+            submitLock.unlock();
+        }
+    }
+
+    /**
+     * @param appointmentId appointment's id
+     * @return status queued for the appointment that wasn't written yet, null if there is none
+     */
+    public Integer pendingStatus(Long appointmentId) {
+        return pending.get(appointmentId);
+    }
+
+    /**
+     * Writes all pending changes with one batched UPDATE in one transaction, in id order.
+     * Changes submitted while the batch is written stay pending for the next flush.
+     * @return number of appointments written
+     */
+    public int flush() {
+        flushLock.lock();
+        try {
+            if (pending.isEmpty()) {
+                return 0;
+            }
+            final List<Map.Entry<Long, Integer>> batch = new ArrayList<>(pending.size());
+            for (Map.Entry<Long, Integer> entry : pending.entrySet()) {
+                batch.add(Map.entry(entry.getKey(), entry.getValue()));
+            }
+            batch.sort(Map.Entry.comparingByKey());
+            transactionTemplate.executeWithoutResult(status ->
+                    jdbcTemplate.batchUpdate(UPDATE_STATUS, batch, batch.size(), (ps, change) -> {
+                        ps.setInt(1, change.getValue());
+                        ps.setLong(2, change.getKey());
+                    }));
+            for (Map.Entry<Long, Integer> change : batch) {
+                pending.remove(change.getKey(), change.getValue());
+            }
+            return batch.size();
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    private void flushQuietly() {
+        try {
+            flush();
+        } catch (RuntimeException e) {
+            // the changes stay pending and are retried with the next flush
+            log.error("Failed to write {} appointment status changes", pending.size(), e);
+        }
+    }
+
+    @Override
+    public void start() {
+        final ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            final Thread thread = new Thread(runnable, "appointment-status-writer");
+            thread.setDaemon(true);
+            return thread;
+        });
+        executor.scheduleWithFixedDelay(this::flushQuietly, flushIntervalMillis, flushIntervalMillis,
+                TimeUnit.MILLISECONDS);
+        scheduler = executor;
+    }
+
+    @Override
+    public void stop() {
+        final ScheduledExecutorService executor;
+        submitLock.lock();
+        try {
+            executor = scheduler;
+            scheduler = null;
+        } finally {
+            submitLock.unlock();
+        }
+        if (executor != null) {
+            executor.shutdown();
+            try {
+                executor.awaitTermination(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        final int written = flush();
+        if (written > 0) {
+            log.info("Wrote {} pending appointment status changes on shutdown", written);
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return scheduler != null;
+    }
+
+    private enum Queued {
+        QUEUED, FULL, STOPPED
+    }
+}
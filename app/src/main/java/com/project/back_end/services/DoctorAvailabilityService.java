@@ -0,0 +1,254 @@
+package com.project.back_end.services;
+
+import com.project.back_end.models.Appointment;
+import com.project.back_end.models.Doctor;
+import com.project.back_end.models.DoctorAvailability;
+import com.project.back_end.repo.AppointmentRepository;
+import com.project.back_end.repo.DoctorAvailabilityRepository;
+import com.project.back_end.repo.DoctorRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Date;
+import java.sql.Time;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Maintains the doctors' availability calendar stored in the `doctor_availability` table. <br>
+ * A date is materialized from the doctor's available times and existing appointments the first time it is read.
+ * Afterwards booking, cancelling and rescheduling flip a single slot by its unique key,
+ * and a range of dates (e.g. a month) comes back with one indexed read. <br>
+ * A booking or cancellation can race with the materialization of its date: the materialization may read
+ * the appointments before the booking commits, and the booking may flip the slot before it is inserted.
+ * Both sides therefore check the slot against the committed appointments afterwards: a booking or
+ * cancellation that found no slot to flip once it committed, and a materialization for every appointment
+ * that appeared or disappeared while it ran.
+ */
+@Service
+public class DoctorAvailabilityService {
+
+    private static final Logger log = LoggerFactory.getLogger(DoctorAvailabilityService.class);
+
+    private final DoctorAvailabilityRepository availabilityRepository;
+    private final DoctorRepository doctorRepository;
+    private final AppointmentRepository appointmentRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final TransactionTemplate newTransaction;
+    private final JdbcTemplate jdbcTemplate;
+
+    public DoctorAvailabilityService(DoctorAvailabilityRepository availabilityRepository,
+                                     DoctorRepository doctorRepository,
+                                     AppointmentRepository appointmentRepository,
+                                     TransactionTemplate transactionTemplate,
+                                     JdbcTemplate jdbcTemplate) {
+        this.availabilityRepository = availabilityRepository;
+        this.doctorRepository = doctorRepository;
+        this.appointmentRepository = appointmentRepository;
+        this.transactionTemplate = transactionTemplate;
+        // checks running after the caller's commit need a transaction of their own
+        this.newTransaction = new TransactionTemplate(transactionTemplate.getTransactionManager());
+        this.newTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Retrieves the free slots of a doctor for every date within the range.
+     * Dates in the past are not materialized and come back without free slots.
+     * @param doctorId doctor's id
+     * @param from first date, inclusive
+     * @param to last date, inclusive
+     * @return free slots formatted like the doctor's available times (e.g. "09:00-10:00") by date
+     */
+    public Map<LocalDate, List<String>> getFreeSlots(Long doctorId, LocalDate from, LocalDate to) {
+        List<Object[]> rows = availabilityRepository.findSlots(doctorId, from, to);
+
+        final Set<LocalDate> materialized = new HashSet<>();
+        for (Object[] row : rows) {
+            materialized.add((LocalDate) row[0]);
+        }
+        final List<LocalDate> missing = new ArrayList<>();
+        for (LocalDate date = later(from, LocalDate.now()); !date.isAfter(to); date = date.plusDays(1)) {
+            if (!materialized.contains(date)) {
+                missing.add(date);
+            }
+        }
+        if (!missing.isEmpty() && materialize(doctorId, missing)) {
+            rows = availabilityRepository.findSlots(doctorId, from, to);
+        }
+
+        final Map<LocalDate, List<String>> freeSlots = new LinkedHashMap<>();
+        for (LocalDate date = from; !date.isAfter(to); date = date.plusDays(1)) {
+            freeSlots.put(date, new ArrayList<>());
+        }
+        for (Object[] row : rows) {
+            if (!(Boolean) row[2]) {
+                final LocalTime time = (LocalTime) row[1];
+                freeSlots.get((LocalDate) row[0]).add(time + "-" + time.plusHours(1));
+            }
+        }
+        return freeSlots;
+    }
+
+    /**
+     * Marks the slot as booked.
+     * @param doctorId doctor's id
+     * @param time appointment start time
+     */
+    public void book(Long doctorId, LocalDateTime time) {
+        if (availabilityRepository.updateBooked(doctorId, time.toLocalDate(), time.toLocalTime(), true) == 0) {
+            syncAfterCommit(doctorId, time);
+        }
+    }
+
+    /**
+     * Marks the slots of the appointments as booked with a single JDBC batch,
+     * joining the caller's transaction.
+     * @param appointments appointments just inserted
+     */
+    public void bookAll(List<Appointment> appointments) {
+        final int[][] counts = jdbcTemplate.batchUpdate("UPDATE doctor_availability SET booked = TRUE " +
+                        "WHERE doctor_id = ? AND available_date = ? AND available_time = ?",
+                appointments, appointments.size(), (ps, appointment) -> {
+                    final LocalDateTime time = appointment.getAppointmentTime();
+                    ps.setLong(1, appointment.getDoctor().getId());
+                    ps.setDate(2, Date.valueOf(time.toLocalDate()));
+                    ps.setTime(3, Time.valueOf(time.toLocalTime()));
+                });
+        int i = 0;
+        for (int[] batch : counts) {
+            for (int count : batch) {
+                // 0 if the date isn't materialized, or unknown if the driver doesn't report batch counts
+                if (count != 1) {
+                    final Appointment appointment = appointments.get(i);
+                    syncAfterCommit(appointment.getDoctor().getId(), appointment.getAppointmentTime());
+                }
+                i++;
+            }
+        }
+    }
+
+    /**
+     * Marks the slot as free again.
+     * @param doctorId doctor's id
+     * @param time appointment start time
+     */
+    public void release(Long doctorId, LocalDateTime time) {
+        if (availabilityRepository.updateBooked(doctorId, time.toLocalDate(), time.toLocalTime(), false) == 0) {
+            syncAfterCommit(doctorId, time);
+        }
+    }
+
+    /**
+     * Drops the doctor's calendar from today on, e.g. after the doctor's available times were changed.
+     * It is materialized again on next read.
+     * @param doctorId doctor's id
+     */
+    public void resetDoctor(Long doctorId) {
+        availabilityRepository.deleteFrom(doctorId, LocalDate.now());
+    }
+
+    /**
+     * Inserts the slots of the given dates, marking the ones that already have an appointment as booked.
+     * @return true if any slots were inserted
+     */
+    private boolean materialize(Long doctorId, List<LocalDate> dates) {
+        final Optional<Doctor> found = doctorRepository.findById(doctorId);
+        if (found.isEmpty() || !found.get().isActive()) {
+            return false;
+        }
+        final Doctor doctor = found.get();
+        final int hours = doctor.getAvailableHours();
+        if (hours == 0) {
+            return false;
+        }
+
+        final LocalDateTime start = dates.get(0).atStartOfDay();
+        final LocalDateTime end = dates.get(dates.size() - 1).plusDays(1).atStartOfDay();
+        final Set<LocalDateTime> appointments = new HashSet<>(
+                appointmentRepository.findAppointmentTimes(doctorId, start, end));
+
+        final List<DoctorAvailability> slots = new ArrayList<>();
+        for (LocalDate date : dates) {
+            for (int hour = 0; hour < 24; hour++) {
+                if ((hours & (1 << hour)) != 0) {
+                    final LocalDateTime time = date.atTime(hour, 0);
+                    slots.add(new DoctorAvailability(doctor, date, time.toLocalTime(), appointments.contains(time)));
+                }
+            }
+        }
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                availabilityRepository.saveAll(slots);
+                availabilityRepository.flush();
+            });
+        } catch (DataIntegrityViolationException e) {
+            // the same dates were materialized concurrently, their rows are already there
+        }
+
+        // appointments booked or cancelled since the read above may have missed the slots,
+        // the ones still uncommitted check their slots themselves once they commit;
+        // read in a read-write transaction so that it goes to the primary
+        final Set<LocalDateTime> current = transactionTemplate.execute(status -> new HashSet<>(
+                appointmentRepository.findAppointmentTimes(doctorId, start, end)));
+        for (LocalDateTime time : current) {
+            if (!appointments.remove(time)) {
+                sync(doctorId, time);
+            }
+        }
+        for (LocalDateTime time : appointments) {
+            sync(doctorId, time);
+        }
+        // the doctor's available times changed meanwhile, the dates were materialized from the former ones
+        if (doctorRepository.findById(doctorId).map(Doctor::getAvailableHours).orElse(0) != hours) {
+            resetDoctor(doctorId);
+        }
+        return true;
+    }
+
+    /**
+     * Checks the slot against the committed appointments once the caller's transaction commits,
+     * or right away without a transaction.
+     */
+    private void syncAfterCommit(Long doctorId, LocalDateTime time) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            sync(doctorId, time);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                sync(doctorId, time);
+            }
+        });
+    }
+
+    private void sync(Long doctorId, LocalDateTime time) {
+        try {
+            newTransaction.executeWithoutResult(status -> availabilityRepository.syncBooked(
+                    doctorId, time.toLocalDate(), time.toLocalTime(), time));
+        } catch (RuntimeException e) {
+            // the appointment itself is committed, only the calendar may be off until the date is reset
+            log.error("Failed to sync the availability of doctor {} at {}", doctorId, time, e);
+        }
+    }
+
+    private static LocalDate later(LocalDate a, LocalDate b) {
+        return a.isAfter(b) ? a : b;
+    }
+}
@@ -0,0 +1,193 @@
+package com.project.back_end.services;
+
+import com.project.back_end.models.Doctor;
+import com.project.back_end.repo.DoctorRepository;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * In-memory search index over the active doctors, answering any combination of the name, specialty and AM/PM filters. <br>
+ * Doctors are kept sorted by name and numbered by their position; every filter is a {@link BitSet} posting list
+ * over these positions: one per specialty, one per name trigram and one each for AM and PM availability.
+ * A search intersects the postings of the given filters, and a name match is confirmed with a substring check. <br>
+ * Searches read an immutable snapshot without locking. The snapshot is loaded from the database on first use
+ * and rebuilt when a doctor is created, updated or deleted, which is rare compared to searches.
+ */
+@Component
+public class DoctorSearchIndex {
+
+    /** Morning availability: a slot starting before noon. */
+    public static final String AM = "AM";
+    /** Afternoon availability: a slot starting at or after noon. */
+    public static final String PM = "PM";
+
+    private static final int NGRAM = 3;
+    private static final int MORNING_HOURS = (1 << 12) - 1;
+
+    private final DoctorRepository doctorRepository;
+
+    // a lock rather than synchronized, so a virtual thread loading the doctors doesn't pin its carrier
+    private final ReentrantLock lock = new ReentrantLock();
+
+    // source of truth for rebuilding the snapshot, guarded by lock
+    private Map<Long, Doctor> doctorsById;
+
+    private volatile Snapshot snapshot;
+
+    public DoctorSearchIndex(DoctorRepository doctorRepository) {
+        this.doctorRepository = doctorRepository;
+    }
+
+    /**
+     * Searches doctors by any combination of filters, a null or blank filter matches everything.
+     * @param name part of the doctor's name, case-insensitive
+     * @param specialty doctor's specialty, case-insensitive
+     * @param time {@link #AM} or {@link #PM}, case-insensitive
+     * @return matching doctors sorted by name
+     */
+    public List<Doctor> search(String name, String specialty, String time) {
+        final Snapshot current = snapshot();
+        final BitSet result = new BitSet(current.doctors.length);
+        result.set(0, current.doctors.length);
+
+        if (!isBlank(specialty)) {
+            intersect(result, current.specialties.get(normalize(specialty)));
+        }
+        if (!isBlank(time)) {
+            final String period = time.trim().toUpperCase(Locale.ROOT);
+            intersect(result, AM.equals(period) ? current.am : PM.equals(period) ? current.pm : null);
+        }
+        final String fragment = isBlank(name) ? null : normalize(name);
+        if (fragment != null) {
+            for (int i = 0; i + NGRAM <= fragment.length() && !result.isEmpty(); i++) {
+                intersect(result, current.ngrams.get(fragment.substring(i, i + NGRAM)));
+            }
+        }
+
+        final List<Doctor> doctors = new ArrayList<>(result.cardinality());
+        for (int i = result.nextSetBit(0); i >= 0; i = result.nextSetBit(i + 1)) {
+            // the trigrams only narrow down the candidates, the substring check confirms them
+            if (fragment == null || current.names[i].contains(fragment)) {
+                doctors.add(current.doctors[i]);
+            }
+        }
+        return doctors;
+    }
+
+    /**
+     * Adds the doctor or replaces the doctor's entry, e.g. after the doctor was created or updated.
+     * A deactivated doctor is removed.
+     * @param doctor up-to-date doctor
+     */
+    public void refreshDoctor(Doctor doctor) {
+        lock.lock();
+        try {
+            if (doctorsById != null) {
+                if (doctor.isActive()) {
+                    doctorsById.put(doctor.getId(), doctor);
+                } else {
+                    doctorsById.remove(doctor.getId());
+                }
+                snapshot = new Snapshot(doctorsById.values());
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Removes the doctor, e.g. after the doctor was deleted.
+     * @param doctorId doctor's id
+     */
+    public void evictDoctor(Long doctorId) {
+        lock.lock();
+        try {
+            if (doctorsById != null && doctorsById.remove(doctorId) != null) {
+                snapshot = new Snapshot(doctorsById.values());
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private Snapshot snapshot() {
+        final Snapshot current = snapshot;
+        return current != null ? current : load();
+    }
+
+    private Snapshot load() {
+        lock.lock();
+        try {
+            if (snapshot == null) {
+                doctorsById = new HashMap<>();
+                for (Doctor doctor : doctorRepository.findAll()) {
+                    if (doctor.isActive()) {
+                        doctorsById.put(doctor.getId(), doctor);
+                    }
+                }
+                snapshot = new Snapshot(doctorsById.values());
+            }
+            return snapshot;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private static void intersect(BitSet result, BitSet postings) {
+        if (postings == null) {
+            result.clear();
+        } else {
+            result.and(postings);
+        }
+    }
+
+    private static boolean isBlank(String filter) {
+        return filter == null || filter.isBlank() || "null".equals(filter);
+    }
+
+    private static String normalize(String value) {
+        return value == null ? "" : value.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private static final class Snapshot {
+
+        private final Doctor[] doctors;
+        private final String[] names;
+        private final Map<String, BitSet> specialties = new HashMap<>();
+        private final Map<String, BitSet> ngrams = new HashMap<>();
+        private final BitSet am = new BitSet();
+        private final BitSet pm = new BitSet();
+
+        Snapshot(Collection<Doctor> all) {
+            doctors = all.stream()
+                    .sorted(Comparator.comparing((Doctor doctor) -> normalize(doctor.getName()))
+                            .thenComparing(Doctor::getId))
+                    .toArray(Doctor[]::new);
+            names = new String[doctors.length];
+
+            for (int i = 0; i < doctors.length; i++) {
+                names[i] = normalize(doctors[i].getName());
+                specialties.computeIfAbsent(normalize(doctors[i].getSpecialty()), key -> new BitSet()).set(i);
+                for (int j = 0; j + NGRAM <= names[i].length(); j++) {
+                    ngrams.computeIfAbsent(names[i].substring(j, j + NGRAM), key -> new BitSet()).set(i);
+                }
+                final int hours = doctors[i].getAvailableHours();
+                if ((hours & MORNING_HOURS) != 0) {
+                    am.set(i);
+                }
+                if ((hours & ~MORNING_HOURS) != 0) {
+                    pm.set(i);
+                }
+            }
+        }
+    }
+}
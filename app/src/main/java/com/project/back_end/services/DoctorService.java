@@ -1,7 +1,31 @@
 package com.project.back_end.services;
 
+import com.project.back_end.DTO.Login;
+import com.project.back_end.DTO.MessageResponse;
+import com.project.back_end.config.MetricsConfig;
+import com.project.back_end.models.Doctor;
+import com.project.back_end.repo.AppointmentRepository;
+import com.project.back_end.repo.DoctorRepository;
+import io.micrometer.core.annotation.Timed;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+@Timed(value = MetricsConfig.SERVICE_TIMER, histogram = true, percentiles = {0.5, 0.95, 0.99})
+@Service
 public class DoctorService {
 
+    private static final ResponseEntity<Map<String, String>> INVALID_CREDENTIALS = ResponseEntity
+            .status(HttpStatus.UNAUTHORIZED).body(Map.of("message", MessageResponse.INVALID_CREDENTIALS.message()));
+
 // 1. **Add @Service Annotation**:
 //    - This class should be annotated with `@Service` to indicate that it is a service layer class.
 //    - The `@Service` annotation marks this class as a Spring-managed bean for business logic.
@@ -11,6 +35,32 @@ public class DoctorService {
 //    - The `DoctorService` class depends on `DoctorRepository`, `AppointmentRepository`, and `TokenService`.
 //    - These dependencies should be injected via the constructor for proper dependency management.
 //    - Instruction: Ensure constructor injection is used for injecting dependencies into the service.
+    private final DoctorRepository doctorRepository;
+    private final AppointmentRepository appointmentRepository;
+    private final DoctorAvailabilityService doctorAvailabilityService;
+    private final DoctorSlotIndex doctorSlotIndex;
+    private final DoctorSearchIndex doctorSearchIndex;
+    private final TokenService tokenService;
+    private final PasswordHasher passwordHasher;
+    private final TransactionTemplate transactionTemplate;
+
+    public DoctorService(DoctorRepository doctorRepository,
+                         AppointmentRepository appointmentRepository,
+                         DoctorAvailabilityService doctorAvailabilityService,
+                         DoctorSlotIndex doctorSlotIndex,
+                         DoctorSearchIndex doctorSearchIndex,
+                         TokenService tokenService,
+                         PasswordHasher passwordHasher,
+                         TransactionTemplate transactionTemplate) {
+        this.doctorRepository = doctorRepository;
+        this.appointmentRepository = appointmentRepository;
+        this.doctorAvailabilityService = doctorAvailabilityService;
+        this.doctorSlotIndex = doctorSlotIndex;
+        this.doctorSearchIndex = doctorSearchIndex;
+        this.tokenService = tokenService;
+        this.passwordHasher = passwordHasher;
+        this.transactionTemplate = transactionTemplate;
+    }
 
 // 3. **Add @Transactional Annotation for Methods that Modify or Fetch Database Data**:
 //    - Methods like `getDoctorAvailability`, `getDoctors`, `findDoctorByName`, `filterDoctorsBy*` should be annotated with `@Transactional`.
@@ -22,71 +72,171 @@ public class DoctorService {
 //    - The method fetches all appointments for the doctor on the given date and calculates the availability by comparing against booked slots.
 //    - Instruction: Ensure that the time slots are properly formatted and the available slots are correctly filtered.
 
-// 5. **saveDoctor Method**:
-//    - Used to save a new doctor record in the database after checking if a doctor with the same email already exists.
-//    - If a doctor with the same email is found, it returns `-1` to indicate conflict; `1` for success, and `0` for internal errors.
-//    - Instruction: Ensure that the method correctly handles conflicts and exceptions when saving a doctor.
-
-// 6. **updateDoctor Method**:
-//    - Updates an existing doctor's details in the database. If the doctor doesn't exist, it returns `-1`.
-//    - Instruction: Make sure that the doctor exists before attempting to save the updated record and handle any errors properly.
-
-// 7. **getDoctors Method**:
-//    - Fetches all doctors from the database. It is marked with `@Transactional` to ensure that the collection is properly loaded.
-//    - Instruction: Ensure that the collection is eagerly loaded, especially if dealing with lazy-loaded relationships (e.g., available times). 
-
-// 8. **deleteDoctor Method**:
-//    - Deletes a doctor from the system along with all appointments associated with that doctor.
-//    - It first checks if the doctor exists. If not, it returns `-1`; otherwise, it deletes the doctor and their appointments.
-//    - Instruction: Ensure the doctor and their appointments are deleted properly, with error handling for internal issues.
+    /***
+     * Retrieves the free time slots of a doctor on a particular date.
+     * The slots are read from the materialized availability calendar, see {@link DoctorAvailabilityService}.
+     * @param doctorId doctor's id
+     * @param date date to check
+     * @return free slots formatted like "09:00-10:00", empty if the doctor doesn't exist or has no free slots
+     */
+    public List<String> getDoctorAvailability(Long doctorId, LocalDate date) {
+        return doctorAvailabilityService.getFreeSlots(doctorId, date, date).get(date);
+    }
+
+    /***
+     * Retrieves the free time slots of a doctor for every date within a range, e.g. a month, with one indexed read.
+     * @param doctorId doctor's id
+     * @param from first date, inclusive
+     * @param to last date, inclusive
+     * @return free slots formatted like "09:00-10:00" by date
+     */
+    public Map<LocalDate, List<String>> getDoctorAvailability(Long doctorId, LocalDate from, LocalDate to) {
+        return doctorAvailabilityService.getFreeSlots(doctorId, from, to);
+    }
+
+    /***
+     * Saves a new doctor after checking that no doctor with the same email exists.
+     * The password is stored hashed, see {@link PasswordHasher}; the doctor is saved once the hash is computed,
+     * so the request thread is released meanwhile.
+     * @param doctor doctor to save
+     * @return future of 1 for success, -1 if a doctor with the same email exists, 0 for internal errors
+     * @throws HashingBusyException if too many passwords are being hashed, mapped to 503 Service Unavailable
+     */
+    public CompletableFuture<Integer> saveDoctor(Doctor doctor) {
+        if (doctorRepository.findByEmail(doctor.getEmail()) != null) {
+            return CompletableFuture.completedFuture(-1);
+        }
+        return passwordHasher.hash(doctor.getPassword()).thenApply(hash -> {
+            try {
+                doctor.setPassword(hash);
+                doctor.setId(null);
+                final Doctor saved = doctorRepository.save(doctor);
+                refreshDoctor(saved.getId());
+                return 1;
+            } catch (DataIntegrityViolationException e) {
+                return -1;
+            } catch (Exception e) {
+                return 0;
+            }
+        });
+    }
+
+    /***
+     * Updates an existing doctor's details.
+     * The doctor's availability calendar is materialized again from the updated available times on next read.
+     * The password is stored hashed like in {@link #saveDoctor(Doctor)}.
+     * @param doctor doctor with the id of an existing doctor
+     * @return future of 1 for success, -1 if the doctor doesn't exist, 0 for internal errors
+     * @throws HashingBusyException if too many passwords are being hashed, mapped to 503 Service Unavailable
+     */
+    public CompletableFuture<Integer> updateDoctor(Doctor doctor) {
+        if (doctor.getId() == null || !doctorRepository.existsById(doctor.getId())) {
+            return CompletableFuture.completedFuture(-1);
+        }
+        return passwordHasher.hash(doctor.getPassword()).thenApply(hash -> {
+            try {
+                doctor.setPassword(hash);
+                transactionTemplate.executeWithoutResult(status -> {
+                    doctorRepository.save(doctor);
+                    doctorAvailabilityService.resetDoctor(doctor.getId());
+                });
+                // the doctor may have been deactivated or changed email, their tokens are verified again
+                tokenService.invalidateUser("doctor", doctor.getId());
+                refreshDoctor(doctor.getId());
+                return 1;
+            } catch (Exception e) {
+                return 0;
+            }
+        });
+    }
+
+    /***
+     * Fetches all doctors with their available times, served from the {@link DoctorSearchIndex}.
+     * @return list of all doctors sorted by name
+     */
+    public List<Doctor> getDoctors() {
+        return doctorSearchIndex.search(null, null, null);
+    }
+
+    /***
+     * Deletes a doctor along with all appointments associated with the doctor.
+     * @param id doctor's id
+     * @return 1 for success, -1 if the doctor doesn't exist, 0 for internal errors
+     */
+    public int deleteDoctor(long id) {
+        if (!doctorRepository.existsById(id)) {
+            return -1;
+        }
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                appointmentRepository.deleteAllByDoctorId(id);
+                doctorRepository.deleteById(id);
+            });
+            tokenService.invalidateUser("doctor", id);
+            doctorSearchIndex.evictDoctor(id);
+            doctorSlotIndex.evictDoctor(id);
+            return 1;
+        } catch (Exception e) {
+            return 0;
+        }
+    }
 
 // 9. **validateDoctor Method**:
 //    - Validates a doctor's login by checking if the email and password match an existing doctor record.
 //    - It generates a token for the doctor if the login is successful, otherwise returns an error message.
 //    - Instruction: Make sure to handle invalid login attempts and password mismatches properly with error responses.
 
-// 10. **findDoctorByName Method**:
-//    - Finds doctors based on partial name matching and returns the list of doctors with their available times.
-//    - This method is annotated with `@Transactional` to ensure that the database query and data retrieval are properly managed within a transaction.
-//    - Instruction: Ensure that available times are eagerly loaded for the doctors.
-
-
-// 11. **filterDoctorsByNameSpecilityandTime Method**:
-//    - Filters doctors based on their name, specialty, and availability during a specific time (AM/PM).
-//    - The method fetches doctors matching the name and specialty criteria, then filters them based on their availability during the specified time period.
-//    - Instruction: Ensure proper filtering based on both the name and specialty as well as the specified time period.
-
-// 12. **filterDoctorByTime Method**:
-//    - Filters a list of doctors based on whether their available times match the specified time period (AM/PM).
-//    - This method processes a list of doctors and their available times to return those that fit the time criteria.
-//    - Instruction: Ensure that the time filtering logic correctly handles both AM and PM time slots and edge cases.
-
-
-// 13. **filterDoctorByNameAndTime Method**:
-//    - Filters doctors based on their name and the specified time period (AM/PM).
-//    - Fetches doctors based on partial name matching and filters the results to include only those available during the specified time period.
-//    - Instruction: Ensure that the method correctly filters doctors based on the given name and time of day (AM/PM).
-
-// 14. **filterDoctorByNameAndSpecility Method**:
-//    - Filters doctors by name and specialty.
-//    - It ensures that the resulting list of doctors matches both the name (case-insensitive) and the specified specialty.
-//    - Instruction: Ensure that both name and specialty are considered when filtering doctors.
-
-
-// 15. **filterDoctorByTimeAndSpecility Method**:
-//    - Filters doctors based on their specialty and availability during a specific time period (AM/PM).
-//    - Fetches doctors based on the specified specialty and filters them based on their available time slots for AM/PM.
-//    - Instruction: Ensure the time filtering is accurately applied based on the given specialty and time period (AM/PM).
-
-// 16. **filterDoctorBySpecility Method**:
-//    - Filters doctors based on their specialty.
-//    - This method fetches all doctors matching the specified specialty and returns them.
-//    - Instruction: Make sure the filtering logic works for case-insensitive specialty matching.
-
-// 17. **filterDoctorsByTime Method**:
-//    - Filters all doctors based on their availability during a specific time period (AM/PM).
-//    - The method checks all doctors' available times and returns those available during the specified time period.
-//    - Instruction: Ensure proper filtering logic to handle AM/PM time periods.
+    /***
+     * Validates a doctor's login and generates a token with the doctor's email. <br>
+     * The password is verified on the {@link PasswordHasher}'s executor, so the request thread is released
+     * meanwhile; a password stored with an outdated cost is replaced with a hash of the current cost.
+     * An unknown email takes as long as a wrong password, see {@link PasswordHasher#verifyUnknownUser(String)}.
+     * @param login email and password
+     * @return future of 200 OK with the token under "token", or 401 Unauthorized with an error message
+     * @throws HashingBusyException if too many logins are in progress, mapped to 503 Service Unavailable
+     */
+    public CompletableFuture<ResponseEntity<Map<String, String>>> validateDoctor(Login login) {
+        final Doctor doctor = doctorRepository.findByEmail(login.getEmail());
+        if (doctor == null) {
+            return passwordHasher.verifyUnknownUser(login.getPassword()).thenApply(matches -> INVALID_CREDENTIALS);
+        }
+        return passwordHasher.verify(login.getPassword(), doctor.getPassword(),
+                        rehash -> doctorRepository.updatePassword(doctor.getId(), rehash))
+                .thenApply(matches -> matches
+                        ? ResponseEntity.ok(Map.of("token", tokenService.generateToken(doctor.getEmail())))
+                        : INVALID_CREDENTIALS);
+    }
+
+    /***
+     * Finds doctors based on partial, case-insensitive name matching.
+     * @param name part of the doctor's name
+     * @return map with the list of matching doctors under "doctors"
+     */
+    public Map<String, Object> findDoctorByName(String name) {
+        return filterDoctors(name, null, null);
+    }
+
+    /***
+     * Filters doctors by any combination of name, specialty and availability during a time period (AM/PM).
+     * A null or blank filter matches every doctor, so this single method covers every combination
+     * (name/specialty/time, name/time, name/specialty, time/specialty, specialty only, time only and none).
+     * It is answered from the in-memory {@link DoctorSearchIndex} without touching the database.
+     * @param name part of the doctor's name, case-insensitive
+     * @param specialty doctor's specialty, case-insensitive
+     * @param time "AM" or "PM"
+     * @return map with the list of matching doctors under "doctors"
+     */
+    public Map<String, Object> filterDoctors(String name, String specialty, String time) {
+        Map<String, Object> map = new HashMap<>();
+        map.put("doctors", doctorSearchIndex.search(name, specialty, time));
+        return map;
+    }
+
+    private void refreshDoctor(Long id) {
+        doctorRepository.findById(id).ifPresent(doctor -> {
+            doctorSearchIndex.refreshDoctor(doctor);
+            doctorSlotIndex.refreshDoctor(doctor);
+        });
+    }
 
-   
 }
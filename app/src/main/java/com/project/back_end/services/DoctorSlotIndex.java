@@ -0,0 +1,202 @@
+package com.project.back_end.services;
+
+import com.project.back_end.models.AvailableTimes;
+import com.project.back_end.models.Doctor;
+import com.project.back_end.repo.AppointmentRepository;
+import com.project.back_end.repo.DoctorRepository;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * In-memory occupancy index of the doctors' hourly appointment slots. <br>
+ * For every doctor it keeps a bitmask of the hours at which the doctor's available slots start
+ * (bit <i>n</i> set = a slot starting at <i>n</i>:00), and for every (doctor, day) a bitmask of the hours
+ * already booked. Validating an appointment is then two map lookups and a bit test. <br>
+ * A doctor and a day are loaded from the database once, on first use; afterwards the index is kept current
+ * by {@link AppointmentService} on book, update and cancel. <br>
+ * A day is loaded outside the map, so a slow query doesn't block other days hashed to the same bin. A booking or
+ * cancellation of the day that commits while the day is loaded may be missing from the loaded bits; the load
+ * notices it by the day's change counter and drops its bits again, unless the change was applied on top of them.
+ */
+@Component
+public class DoctorSlotIndex {
+
+    /** The requested slot is available. */
+    public static final int VALID = 1;
+    /** The requested slot is already booked or is outside the doctor's available times. */
+    public static final int TAKEN = 0;
+    /** The doctor doesn't exist. */
+    public static final int UNKNOWN_DOCTOR = -1;
+
+    private final DoctorRepository doctorRepository;
+    private final AppointmentRepository appointmentRepository;
+
+    // doctor id -> bitmask of the hours at which the doctor's available slots start
+    private final ConcurrentMap<Long, Integer> availableHours = new ConcurrentHashMap<>();
+
+    // (doctor id, day) -> bitmask of the hours already booked
+    private final ConcurrentMap<DayKey, Integer> bookedHours = new ConcurrentHashMap<>();
+
+    // changes by book and release, striped by day, for telling if a day changed while it was loaded
+    private final AtomicLongArray changes = new AtomicLongArray(64);
+
+    public DoctorSlotIndex(DoctorRepository doctorRepository, AppointmentRepository appointmentRepository) {
+        this.doctorRepository = doctorRepository;
+        this.appointmentRepository = appointmentRepository;
+    }
+
+    /**
+     * Checks if the doctor has a free slot starting at the given time.
+     * @param doctorId doctor's id
+     * @param time requested appointment start time
+     * @return {@link #VALID}, {@link #TAKEN} or {@link #UNKNOWN_DOCTOR}
+     */
+    public int validate(Long doctorId, LocalDateTime time) {
+        final int available = checkAvailableTime(doctorId, time);
+        if (available != VALID) {
+            return available;
+        }
+        final DayKey key = new DayKey(doctorId, time.toLocalDate());
+        final Integer cached = bookedHours.get(key);
+        final int booked = cached != null ? cached : loadDay(key);
+        return (booked & hourBit(time)) == 0 ? VALID : TAKEN;
+    }
+
+    /**
+     * Checks only if the given time is one of the doctor's available slots, ignoring existing appointments.
+     * @param doctorId doctor's id
+     * @param time requested appointment start time
+     * @return {@link #VALID}, {@link #TAKEN} or {@link #UNKNOWN_DOCTOR}
+     */
+    public int checkAvailableTime(Long doctorId, LocalDateTime time) {
+        if (doctorId == null) {
+            return UNKNOWN_DOCTOR;
+        }
+        Integer available = availableHours.get(doctorId);
+        if (available == null) {
+            available = loadDoctor(doctorId);
+            if (available == null) {
+                return UNKNOWN_DOCTOR;
+            }
+        }
+        final int bit = hourBit(time);
+        return bit != 0 && (available & bit) != 0 ? VALID : TAKEN;
+    }
+
+    /**
+     * Marks the slot as booked. Days that haven't been loaded yet are left alone,
+     * they will pick up the appointment from the database on first use.
+     * @param doctorId doctor's id
+     * @param time appointment start time
+     */
+    public void book(Long doctorId, LocalDateTime time) {
+        final int bit = hourBit(time);
+        if (doctorId != null && bit != 0) {
+            final DayKey key = new DayKey(doctorId, time.toLocalDate());
+            changes.incrementAndGet(key.stripe());
+            bookedHours.computeIfPresent(key, (day, booked) -> booked | bit);
+        }
+    }
+
+    /**
+     * Marks the slot as free again.
+     * @param doctorId doctor's id
+     * @param time appointment start time
+     */
+    public void release(Long doctorId, LocalDateTime time) {
+        final int bit = hourBit(time);
+        if (doctorId != null && bit != 0) {
+            final DayKey key = new DayKey(doctorId, time.toLocalDate());
+            changes.incrementAndGet(key.stripe());
+            bookedHours.computeIfPresent(key, (day, booked) -> booked & ~bit);
+        }
+    }
+
+    /**
+     * Replaces the doctor's available hours, e.g. after the doctor's available times were changed.
+     * @param doctor doctor with up-to-date available times
+     */
+    public void refreshDoctor(Doctor doctor) {
+        availableHours.put(doctor.getId(), availableHours(doctor));
+    }
+
+    /**
+     * Drops everything the index knows about the doctor, e.g. after the doctor was deleted.
+     * @param doctorId doctor's id
+     */
+    public void evictDoctor(Long doctorId) {
+        availableHours.remove(doctorId);
+        bookedHours.keySet().removeIf(key -> key.doctorId() == doctorId);
+    }
+
+    /**
+     * Converts available time slots like "09:00-10:00" to a bitmask of the hours they cover.
+     * Slots longer than an hour set a bit for every hour they cover, malformed slots are ignored.
+     * @param availableTimes doctor's available times
+     * @return bitmask of the hours, bit <i>n</i> for the slot starting at <i>n</i>:00
+     */
+    static int hourMask(Collection<String> availableTimes) {
+        int mask = 0;
+        if (availableTimes == null) {
+            return mask;
+        }
+        for (String slot : availableTimes) {
+            final int packed = AvailableTimes.parseSlot(slot);
+            // not a "HH:mm-HH:mm" slot, it can never match an appointment time
+            if (packed >= 0) {
+                mask |= AvailableTimes.hourMask(packed);
+            }
+        }
+        return mask;
+    }
+
+    private static int hourBit(LocalDateTime time) {
+        if (time == null || time.getMinute() != 0 || time.getSecond() != 0 || time.getNano() != 0) {
+            return 0;
+        }
+        return 1 << time.getHour();
+    }
+
+    private static int availableHours(Doctor doctor) {
+        return doctor.isActive() ? doctor.getAvailableHours() : 0;
+    }
+
+    private Integer loadDoctor(Long doctorId) {
+        return doctorRepository.findById(doctorId)
+                .map(doctor -> availableHours.computeIfAbsent(doctorId, id -> availableHours(doctor)))
+                .orElse(null);
+    }
+
+    private int loadDay(DayKey key) {
+        final long before = changes.get(key.stripe());
+        final LocalDateTime start = key.day().atStartOfDay();
+        int booked = 0;
+        for (LocalDateTime time : appointmentRepository.findAppointmentTimes(key.doctorId(), start, start.plusDays(1))) {
+            booked |= hourBit(time);
+        }
+        final Integer existing = bookedHours.putIfAbsent(key, booked);
+        if (existing != null) {
+            // loaded concurrently
+            return existing;
+        }
+        if (changes.get(key.stripe()) != before) {
+            // the day changed meanwhile: a change applied after the put has merged into the bits and they stay,
+            // a change that found no bits yet may be missing from them, they're dropped and loaded again next time
+            bookedHours.remove(key, booked);
+        }
+        return booked;
+    }
+
+    private record DayKey(long doctorId, LocalDate day) {
+
+        int stripe() {
+            return hashCode() & 63;
+        }
+    }
+}
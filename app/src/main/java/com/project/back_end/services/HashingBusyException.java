@@ -0,0 +1,15 @@
+package com.project.back_end.services;
+
+/**
+ * Thrown by {@link PasswordHasher} when its executor is saturated, i.e. all threads are hashing and the queue
+ * is full. Mapped to 503 Service Unavailable by the global exception handler. <br>
+ * A single instance without a stack trace is reused, failing fast under load shouldn't allocate.
+ */
+public final class HashingBusyException extends RuntimeException {
+
+    static final HashingBusyException INSTANCE = new HashingBusyException();
+
+    private HashingBusyException() {
+        super("Too many logins in progress, try again later", null, false, false);
+    }
+}
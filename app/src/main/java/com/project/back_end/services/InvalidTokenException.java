@@ -0,0 +1,15 @@
+package com.project.back_end.services;
+
+/**
+ * Thrown by {@link Service#requireToken(String, String)} when a token is invalid, expired or doesn't belong
+ * to a user of the required role. Mapped to 401 Unauthorized by the global exception handler. <br>
+ * A single instance without a stack trace is reused, rejecting a token shouldn't cost more than accepting one.
+ */
+public final class InvalidTokenException extends RuntimeException {
+
+    static final InvalidTokenException INSTANCE = new InvalidTokenException();
+
+    private InvalidTokenException() {
+        super("Invalid or expired token", null, false, false);
+    }
+}
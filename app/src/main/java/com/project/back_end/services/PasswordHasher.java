@@ -0,0 +1,216 @@
+package com.project.back_end.services;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.SecretKeyFactory;
+import javax.crypto.spec.PBEKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.Base64;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Hashes and verifies passwords with PBKDF2-HMAC-SHA256 on a dedicated, bounded executor, so that slow hashes
+ * during login spikes don't tie up request threads. <br>
+ * The executor runs password.hash.threads threads with at most password.hash.queue-size waiting hashes;
+ * beyond that {@link #hash(String)} and {@link #verify(String, String, Consumer)} fail fast with
+ * {@link HashingBusyException}, mapped to 503 Service Unavailable. <br>
+ * Hashes are stored as "pbkdf2$iterations$salt$hash", the cost being password.hash.iterations. When a password
+ * is verified against a hash of another cost, or stored in plain text by older versions, a hash of the current
+ * cost is computed on the same thread and handed to the caller to store. <br>
+ * A login for a user that doesn't exist is verified against a dummy hash of the current cost with
+ * {@link #verifyUnknownUser(String)}, so the response time doesn't tell whether the account exists.
+ */
+@Component
+public class PasswordHasher implements DisposableBean, MeterBinder {
+
+    private static final Logger log = LoggerFactory.getLogger(PasswordHasher.class);
+
+    private static final String ALGORITHM = "PBKDF2WithHmacSHA256";
+    private static final String PREFIX = "pbkdf2";
+    private static final int SALT_BYTES = 16;
+    private static final int HASH_BITS = 256;
+
+    private static final Verification MISMATCH = new Verification(false, null);
+    private static final Verification MATCH = new Verification(true, null);
+
+    private final int iterations;
+    private final ThreadPoolExecutor executor;
+    private final SecureRandom random = new SecureRandom();
+
+    // hash of a random password, computed on the first login of an unknown user
+    private volatile String dummyHash;
+
+    public PasswordHasher(@Value("${password.hash.iterations:210000}") int iterations,
+                          @Value("${password.hash.threads:0}") int threads,
+                          @Value("${password.hash.queue-size:64}") int queueSize) {
+        this.iterations = iterations;
+        final int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        final AtomicInteger count = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(poolSize, poolSize, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(Math.max(1, queueSize)), runnable -> {
+                    final Thread thread = new Thread(runnable, "password-hash-" + count.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                }, new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    /**
+     * Registers the hashes in progress and waiting as password.hash.active and password.hash.queued.
+     * @param registry registry of the application's meters
+     */
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("password.hash.active", executor, ThreadPoolExecutor::getActiveCount)
+                .description("Password hashes being computed")
+                .register(registry);
+        Gauge.builder("password.hash.queued", executor, pool -> pool.getQueue().size())
+                .description("Password hashes waiting for a thread")
+                .register(registry);
+    }
+
+    /**
+     * Hashes a password with the current cost.
+     * @param password password in plain text
+     * @return future of the encoded hash
+     * @throws HashingBusyException if the executor's queue is full
+     */
+    public CompletableFuture<String> hash(String password) {
+        return submit(() -> encode(password));
+    }
+
+    /**
+     * Verifies a password against a stored hash, or a stored plain text password.
+     * @param password password in plain text
+     * @param stored stored hash
+     * @param rehash stores a hash of the current cost if the password matches and the stored one is outdated,
+     *               a failure is logged and doesn't fail the verification
+     * @return future of whether the password matches
+     * @throws HashingBusyException if the executor's queue is full
+     */
+    public CompletableFuture<Boolean> verify(String password, String stored, Consumer<String> rehash) {
+        return submit(() -> {
+            final Verification verification = verifyNow(password, stored);
+            if (verification.rehash() != null) {
+                try {
+                    rehash.accept(verification.rehash());
+                } catch (RuntimeException e) {
+                    log.warn("Could not store the password hash of the current cost", e);
+                }
+            }
+            return verification.matches();
+        });
+    }
+
+    /**
+     * Verifies a password against a dummy hash of the current cost, for a login of a user that doesn't exist,
+     * taking as long as the verification of an existing user's password.
+     * @param password password in plain text
+     * @return future of false
+     * @throws HashingBusyException if the executor's queue is full
+     */
+    public CompletableFuture<Boolean> verifyUnknownUser(String password) {
+        return submit(() -> {
+            String dummy = dummyHash;
+            if (dummy == null) {
+                final byte[] secret = new byte[SALT_BYTES];
+                random.nextBytes(secret);
+                dummy = encode(Base64.getEncoder().encodeToString(secret));
+                dummyHash = dummy;
+            }
+            verifyNow(password == null ? "" : password, dummy);
+            return false;
+        });
+    }
+
+    /**
+     * @return number of hashes waiting for a thread
+     */
+    public int queued() {
+        return executor.getQueue().size();
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdownNow();
+    }
+
+    private <T> CompletableFuture<T> submit(Supplier<T> task) {
+        try {
+            return CompletableFuture.supplyAsync(task, executor);
+        } catch (RejectedExecutionException e) {
+            throw HashingBusyException.INSTANCE;
+        }
+    }
+
+    String encode(String password) {
+        final byte[] salt = new byte[SALT_BYTES];
+        random.nextBytes(salt);
+        final Base64.Encoder base64 = Base64.getEncoder().withoutPadding();
+        return PREFIX + "$" + iterations + "$" + base64.encodeToString(salt) + "$"
+                + base64.encodeToString(pbkdf2(password, salt, iterations));
+    }
+
+    Verification verifyNow(String password, String stored) {
+        if (password == null || stored == null) {
+            return MISMATCH;
+        }
+        final String[] parts = stored.split("\\$");
+        final boolean matches;
+        final int cost;
+        if (parts.length == 4 && PREFIX.equals(parts[0])) {
+            try {
+                cost = Integer.parseInt(parts[1]);
+                final Base64.Decoder base64 = Base64.getDecoder();
+                matches = MessageDigest.isEqual(base64.decode(parts[3]),
+                        pbkdf2(password, base64.decode(parts[2]), cost));
+            } catch (IllegalArgumentException e) {
+                return MISMATCH;
+            }
+        } else {
+            // plain text password stored by older versions
+            cost = 0;
+            matches = MessageDigest.isEqual(stored.getBytes(StandardCharsets.UTF_8),
+                    password.getBytes(StandardCharsets.UTF_8));
+        }
+        if (!matches) {
+            return MISMATCH;
+        }
+        return cost == iterations ? MATCH : new Verification(true, encode(password));
+    }
+
+    private static byte[] pbkdf2(String password, byte[] salt, int iterations) {
+        final PBEKeySpec spec = new PBEKeySpec(password.toCharArray(), salt, iterations, HASH_BITS);
+        try {
+            return SecretKeyFactory.getInstance(ALGORITHM).generateSecret(spec).getEncoded();
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(ALGORITHM + " is not available", e);
+        } finally {
+            spec.clearPassword();
+        }
+    }
+
+    /**
+     * Result of a password verification.
+     * @param matches whether the password matches the stored hash
+     * @param rehash new hash of the password with the current cost to store instead, null if the stored one is current
+     */
+    record Verification(boolean matches, String rehash) {
+    }
+}
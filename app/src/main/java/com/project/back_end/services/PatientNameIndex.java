@@ -0,0 +1,188 @@
+package com.project.back_end.services;
+
+import com.github.benmanes.caffeine.cache.AsyncLoadingCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.project.back_end.config.ThreadingConfig;
+import com.project.back_end.repo.AppointmentRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.text.Normalizer;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.regex.Pattern;
+
+/**
+ * In-memory patient-name search over each doctor's patients, for the doctor dashboard's search box. <br>
+ * A doctor's patients are loaded with one query on the doctor's first search and kept as normalized names
+ * (lower case, without accents, single spaces) with a posting list of patients per name trigram.
+ * A search takes the shortest posting list among the trigrams of the fragment and confirms each candidate
+ * with a substring check, so it touches only the doctor's patients sharing the rarest trigram, however many
+ * patients there are in total. Fragments shorter than a trigram scan the doctor's names. <br>
+ * A doctor's entry is dropped when the doctor gets or loses an appointment, so the next search sees the change;
+ * at most patient.search.max-patients names are kept over all doctors.
+ */
+@Component
+public class PatientNameIndex implements MeterBinder {
+
+    private static final int NGRAM = 3;
+
+    private static final Pattern MARKS = Pattern.compile("\\p{M}+");
+    private static final Pattern SPACES = Pattern.compile("\\s+");
+
+    // loads run on the cache load executor, see ThreadingConfig
+    private final AsyncLoadingCache<Long, Names> namesByDoctor;
+
+    public PatientNameIndex(AppointmentRepository appointmentRepository,
+                            @Value("${patient.search.max-patients:1000000}") long maxPatients,
+                            @Qualifier(ThreadingConfig.CACHE_LOAD_EXECUTOR) Executor cacheLoadExecutor) {
+        this.namesByDoctor = Caffeine.newBuilder()
+                .maximumWeight(maxPatients)
+                .weigher((Long doctorId, Names names) -> names.size() + 1)
+                .executor(cacheLoadExecutor)
+                .buildAsync(doctorId -> Names.of(appointmentRepository.findPatientNamesByDoctorId(doctorId)));
+    }
+
+    /**
+     * Registers the number of doctors whose patients are kept as cache.size{cache="patient-names"}.
+     * @param registry registry of the application's meters
+     */
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        new CaffeineCacheMetrics<>(namesByDoctor.synchronous(), "patient-names", Tags.empty()).bindTo(registry);
+    }
+
+    /**
+     * Finds the doctor's patients whose name contains the fragment, ignoring case, accents and extra spaces.
+     * @param doctorId doctor's id
+     * @param fragment part of the patient's name
+     * @return ids of the matching patients in ascending order
+     */
+    public long[] search(Long doctorId, String fragment) {
+        return namesByDoctor.get(doctorId).join().search(normalize(fragment));
+    }
+
+    /**
+     * Drops the doctor's patients, e.g. after the doctor got an appointment with a new patient.
+     * @param doctorId doctor's id
+     */
+    public void evictDoctor(Long doctorId) {
+        namesByDoctor.synchronous().invalidate(doctorId);
+    }
+
+    /**
+     * @param name a name
+     * @return the name in lower case, without accents and with single spaces
+     */
+    static String normalize(String name) {
+        if (name == null) {
+            return "";
+        }
+        final String decomposed = Normalizer.normalize(name.trim(), Normalizer.Form.NFD);
+        return SPACES.matcher(MARKS.matcher(decomposed).replaceAll("")).replaceAll(" ").toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * The patients of one doctor, numbered by their position in ascending id order.
+     */
+    static final class Names {
+
+        private static final int[] NONE = new int[0];
+
+        private final long[] ids;
+        private final String[] names;
+        private final Map<String, int[]> ngrams;
+
+        private Names(long[] ids, String[] names, Map<String, int[]> ngrams) {
+            this.ids = ids;
+            this.names = names;
+            this.ngrams = ngrams;
+        }
+
+        /**
+         * @param rows [patient id, patient name] pairs
+         * @return the patients with their trigram postings
+         */
+        static Names of(List<Object[]> rows) {
+            final Object[][] sorted = rows.toArray(Object[][]::new);
+            Arrays.sort(sorted, (a, b) -> Long.compare(((Number) a[0]).longValue(), ((Number) b[0]).longValue()));
+            final long[] ids = new long[sorted.length];
+            final String[] names = new String[sorted.length];
+            final Map<String, Postings> postings = new HashMap<>();
+            for (int i = 0; i < sorted.length; i++) {
+                ids[i] = ((Number) sorted[i][0]).longValue();
+                names[i] = normalize((String) sorted[i][1]);
+                for (int j = 0; j + NGRAM <= names[i].length(); j++) {
+                    postings.computeIfAbsent(names[i].substring(j, j + NGRAM), key -> new Postings()).add(i);
+                }
+            }
+            final Map<String, int[]> ngrams = new HashMap<>(postings.size() * 4 / 3 + 1);
+            postings.forEach((ngram, positions) -> ngrams.put(ngram, positions.toArray()));
+            return new Names(ids, names, ngrams);
+        }
+
+        int size() {
+            return ids.length;
+        }
+
+        long[] search(String fragment) {
+            if (fragment.isEmpty()) {
+                return ids.clone();
+            }
+            int[] candidates = null;
+            for (int j = 0; j + NGRAM <= fragment.length(); j++) {
+                final int[] positions = ngrams.getOrDefault(fragment.substring(j, j + NGRAM), NONE);
+                if (candidates == null || positions.length < candidates.length) {
+                    candidates = positions;
+                }
+            }
+            final long[] matches = new long[candidates == null ? ids.length : candidates.length];
+            int count = 0;
+            if (candidates == null) {
+                for (int i = 0; i < names.length; i++) {
+                    if (names[i].contains(fragment)) {
+                        matches[count++] = ids[i];
+                    }
+                }
+            } else {
+                // the trigram only narrows down the candidates, the substring check confirms them
+                for (int i : candidates) {
+                    if (names[i].contains(fragment)) {
+                        matches[count++] = ids[i];
+                    }
+                }
+            }
+            return Arrays.copyOf(matches, count);
+        }
+    }
+
+    // positions of the names containing a trigram, ascending and without duplicates
+    private static final class Postings {
+
+        private int[] positions = new int[4];
+        private int size;
+
+        void add(int position) {
+            if (size > 0 && positions[size - 1] == position) {
+                return;
+            }
+            if (size == positions.length) {
+                positions = Arrays.copyOf(positions, size * 2);
+            }
+            positions[size++] = position;
+        }
+
+        int[] toArray() {
+            return Arrays.copyOf(positions, size);
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package com.project.back_end.services;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.util.MinimalPrettyPrinter;
+import com.project.back_end.models.Prescription;
+import org.bson.types.ObjectId;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/**
+ * Exports the whole `prescriptions` collection as NDJSON, one document per line in `_id` order,
+ * read from a Mongo cursor in batches and written to the client as it goes, so memory stays constant
+ * however many documents there are. The client can't be outrun: a batch is only fetched once the previous one
+ * has been written. <br>
+ * An interrupted export is resumed by passing the id of the last line received.
+ */
+@Service
+public class PrescriptionExportService {
+
+    /** Documents fetched per round trip to Mongo. */
+    static final int BATCH_SIZE = 500;
+
+    /** Documents written between flushes, every flush sends a chunk to the client. */
+    private static final int FLUSH_DOCUMENTS = 500;
+
+    private static final JsonFactory JSON = new JsonFactory();
+
+    private final MongoTemplate mongoTemplate;
+
+    public PrescriptionExportService(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    /**
+     * @param id id from a previous export
+     * @return true if the id can be used to resume an export
+     */
+    public static boolean isValidResumeId(String id) {
+        return ObjectId.isValid(id);
+    }
+
+    /**
+     * Writes every prescription with an id greater than after, in id order.
+     * @param after id of the last prescription already exported, null to start from the beginning
+     * @param out stream to write to, not closed
+     * @return number of prescriptions written
+     * @throws IllegalArgumentException if after isn't a valid id, see {@link #isValidResumeId(String)}
+     * @throws UncheckedIOException if writing to the stream fails, e.g. the client went away
+     */
+    public long writeExport(String after, OutputStream out) {
+        final Query query = new Query().with(Sort.by(Sort.Direction.ASC, "_id")).cursorBatchSize(BATCH_SIZE);
+        if (after != null) {
+            if (!isValidResumeId(after)) {
+                throw new IllegalArgumentException("Invalid prescription id " + after);
+            }
+            query.addCriteria(Criteria.where("_id").gt(new ObjectId(after)));
+        }
+        final Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        long count = 0;
+        // closing the stream closes the cursor, also when the client went away halfway
+        try (Stream<Prescription> prescriptions = mongoTemplate.stream(query, Prescription.class);
+             JsonGenerator json = JSON.createGenerator(writer)
+                     .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+                     .disable(JsonGenerator.Feature.FLUSH_PASSED_TO_STREAM)
+                     .setPrettyPrinter(new MinimalPrettyPrinter(""))) {
+            final Iterator<Prescription> iterator = prescriptions.iterator();
+            while (iterator.hasNext()) {
+                write(json, iterator.next());
+                if (++count % FLUSH_DOCUMENTS == 0) {
+                    json.flush();
+                    writer.flush();
+                }
+            }
+            json.flush();
+            writer.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return count;
+    }
+
+    private static void write(JsonGenerator json, Prescription prescription) throws IOException {
+        json.writeStartObject();
+        json.writeStringField("id", prescription.getId());
+        json.writeStringField("patientName", prescription.getPatientName());
+        json.writeNumberField("appointmentId", prescription.getAppointmentId());
+        json.writeStringField("medication", prescription.getMedication());
+        json.writeStringField("dosage", prescription.getDosage());
+        json.writeStringField("doctorNotes", prescription.getDoctorNotes());
+        json.writeStringField("createdAt", prescription.getCreatedAt() == null ? null
+                : prescription.getCreatedAt().toString());
+        json.writeStringField("updatedAt", prescription.getUpdatedAt() == null ? null
+                : prescription.getUpdatedAt().toString());
+        json.writeEndObject();
+        json.writeRaw('\n');
+    }
+}
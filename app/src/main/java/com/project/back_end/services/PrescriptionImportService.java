@@ -0,0 +1,383 @@
+package com.project.back_end.services;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.StreamReadFeature;
+import com.fasterxml.jackson.core.json.JsonReadFeature;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.project.back_end.models.Prescription;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import com.mongodb.bulk.BulkWriteResult;
+import org.bson.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.PushbackReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.DateTimeException;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Imports prescriptions from other systems into the `prescriptions` collection. <br>
+ * The input is a JSON array of prescription documents, or a mongo shell script in the
+ * <code>db.prescriptions.insertMany([...])</code> shape of mongo_data.txt, where shell wrappers such as
+ * <code>ObjectId("...")</code> are read as their argument. The file is parsed one document at a time,
+ * every document is validated against the {@link Prescription} constraints, and the valid ones are written
+ * in unordered bulk batches by parallel workers. <br>
+ * Documents are upserted by `_id`, or by `appointmentId` if they have none, so a re-run of the same file
+ * doesn't duplicate anything. `createdAt` and `updatedAt` are taken from the document when it has them,
+ * as ISO-8601 strings, <code>ISODate("...")</code>, epoch milliseconds or extended JSON <code>{"$date": ...}</code>;
+ * `createdAt` is only written when the prescription is inserted, so a re-run keeps it.
+ */
+@Service
+public class PrescriptionImportService {
+
+    private static final Logger log = LoggerFactory.getLogger(PrescriptionImportService.class);
+
+    /** Documents per bulk write. */
+    static final int BATCH_SIZE = 1000;
+
+    /** Time between progress reports. */
+    private static final long REPORT_INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(5);
+
+    /** Invalid documents logged in detail, the rest are only counted. */
+    private static final int LOGGED_INVALID = 20;
+
+    private static final JsonMapper JSON = JsonMapper.builder()
+            .disable(StreamReadFeature.AUTO_CLOSE_SOURCE)
+            .enable(JsonReadFeature.ALLOW_JAVA_COMMENTS)
+            .enable(JsonReadFeature.ALLOW_TRAILING_COMMA)
+            .enable(JsonReadFeature.ALLOW_UNQUOTED_FIELD_NAMES)
+            .build();
+
+    private final MongoTemplate mongoTemplate;
+    private final Validator validator;
+
+    public PrescriptionImportService(MongoTemplate mongoTemplate, Validator validator) {
+        this.mongoTemplate = mongoTemplate;
+        this.validator = validator;
+    }
+
+    /**
+     * Outcome of an import.
+     * @param read documents read from the input
+     * @param written documents inserted or replaced
+     * @param invalid documents rejected by validation
+     * @param failed valid documents whose bulk write failed
+     * @param millis duration of the import
+     */
+    public record ImportResult(long read, long written, long invalid, long failed, long millis) {
+
+        /**
+         * @return documents written per second
+         */
+        public long documentsPerSecond() {
+            return millis == 0 ? written : written * 1000 / millis;
+        }
+    }
+
+    /**
+     * Imports the prescriptions in a file.
+     * @param file JSON array or mongo shell insertMany script, UTF-8
+     * @param workers number of parallel bulk writers
+     * @return outcome of the import
+     * @throws IOException if the file can't be read or isn't valid JSON
+     */
+    public ImportResult importFile(Path file, int workers) throws IOException {
+        try (Reader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            return importPrescriptions(reader, workers);
+        }
+    }
+
+    /**
+     * Imports the prescriptions read from the reader, see {@link #importFile(Path, int)}.
+     * @param reader JSON array or mongo shell insertMany script, not closed
+     * @param workers number of parallel bulk writers
+     * @return outcome of the import
+     * @throws IOException if the input can't be read or isn't valid JSON
+     */
+    public ImportResult importPrescriptions(Reader reader, int workers) throws IOException {
+        final long start = System.nanoTime();
+        final AtomicLong written = new AtomicLong();
+        final AtomicLong failed = new AtomicLong();
+        long read = 0;
+        long invalid = 0;
+        // a bounded queue and the parser writing batches itself when it's full keep at most 2 batches per worker
+        // in memory however fast the file is parsed
+        final ThreadPoolExecutor executor = new ThreadPoolExecutor(workers, workers, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(workers), runnable -> {
+                    final Thread thread = new Thread(runnable, "prescription-import");
+                    thread.setDaemon(true);
+                    return thread;
+                }, new ThreadPoolExecutor.CallerRunsPolicy());
+        try (JsonParser parser = JSON.createParser(new ShellScriptReader(reader))) {
+            if (parser.nextToken() != JsonToken.START_ARRAY) {
+                throw new IOException("Expected an array of prescriptions");
+            }
+            long lastReport = start;
+            List<Prescription> batch = new ArrayList<>(BATCH_SIZE);
+            while (parser.nextToken() == JsonToken.START_OBJECT) {
+                final JsonNode document = JSON.readTree(parser);
+                read++;
+                final Prescription prescription;
+                try {
+                    prescription = toPrescription(document);
+                } catch (DateTimeException e) {
+                    if (++invalid <= LOGGED_INVALID) {
+                        log.warn("Skipping invalid prescription #{} ({}): {}", read, text(document, "_id"),
+                                e.getMessage());
+                    }
+                    continue;
+                }
+                final Set<ConstraintViolation<Prescription>> violations = validator.validate(prescription);
+                if (!violations.isEmpty()) {
+                    if (++invalid <= LOGGED_INVALID) {
+                        log.warn("Skipping invalid prescription #{} ({}): {}", read, prescription.getId(),
+                                violations.stream().map(v -> v.getPropertyPath() + " " + v.getMessage()).toList());
+                    }
+                    continue;
+                }
+                batch.add(prescription);
+                if (batch.size() == BATCH_SIZE) {
+                    final List<Prescription> full = batch;
+                    executor.execute(() -> write(full, written, failed));
+                    batch = new ArrayList<>(BATCH_SIZE);
+                }
+                final long now = System.nanoTime();
+                if (now - lastReport >= REPORT_INTERVAL_NANOS) {
+                    lastReport = now;
+                    final long seconds = Math.max(1, TimeUnit.NANOSECONDS.toSeconds(now - start));
+                    log.info("Imported {} of {} prescriptions, {} documents/s", written.get(), read,
+                            written.get() / seconds);
+                }
+            }
+            if (!batch.isEmpty()) {
+                final List<Prescription> last = batch;
+                executor.execute(() -> write(last, written, failed));
+            }
+        } finally {
+            executor.shutdown();
+            try {
+                executor.awaitTermination(1, TimeUnit.HOURS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        final ImportResult result = new ImportResult(read, written.get(), invalid, failed.get(),
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        log.info("Imported {} of {} prescriptions in {} ms, {} documents/s, {} invalid, {} failed", result.written(),
+                result.read(), result.millis(), result.documentsPerSecond(), result.invalid(), result.failed());
+        return result;
+    }
+
+    private void write(List<Prescription> batch, AtomicLong written, AtomicLong failed) {
+        try {
+            final BulkOperations operations = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED,
+                    Prescription.class);
+            for (Prescription prescription : batch) {
+                final Criteria key = prescription.getId() != null
+                        ? Criteria.where("_id").is(prescription.getId())
+                        : Criteria.where("appointmentId").is(prescription.getAppointmentId());
+                operations.upsert(new Query(key), toUpdate(prescription));
+            }
+            operations.execute();
+            written.addAndGet(batch.size());
+        } catch (BulkOperationException e) {
+            // unordered: the rest of the batch was still written, so only the rejected upserts count as failed
+            final BulkWriteResult result = e.getResult();
+            written.addAndGet(result.getMatchedCount() + result.getUpserts().size());
+            failed.addAndGet(e.getErrors().size());
+            log.error("Failed to write {} of a batch of {} prescriptions", e.getErrors().size(), batch.size(), e);
+        } catch (RuntimeException e) {
+            log.error("Failed to write a batch of {} prescriptions", batch.size(), e);
+            failed.addAndGet(batch.size());
+        }
+    }
+
+    /**
+     * Replaces every field of the stored prescription like a replace would, except `createdAt`,
+     * which is only set when the prescription is inserted.
+     */
+    private Update toUpdate(Prescription prescription) {
+        final Document document = new Document();
+        mongoTemplate.getConverter().write(prescription, document);
+        document.remove("_id");
+        final Object createdAt = document.remove("createdAt");
+        final Update update = new Update();
+        document.forEach(update::set);
+        if (prescription.getDoctorNotes() == null) {
+            update.unset("doctorNotes");
+        }
+        return update.setOnInsert("createdAt", createdAt);
+    }
+
+    private static Prescription toPrescription(JsonNode document) {
+        final Prescription prescription = new Prescription(text(document, "patientName"), text(document, "medication"),
+                text(document, "dosage"), text(document, "doctorNotes"),
+                document.hasNonNull("appointmentId") && document.get("appointmentId").canConvertToLong()
+                        ? document.get("appointmentId").asLong() : null);
+        prescription.setId(text(document, "_id"));
+        final LocalDateTime createdAt = dateTime(document, "createdAt");
+        final LocalDateTime updatedAt = dateTime(document, "updatedAt");
+        if (createdAt != null) {
+            prescription.setCreatedAt(createdAt);
+        }
+        if (updatedAt != null || createdAt != null) {
+            prescription.setUpdatedAt(updatedAt != null ? updatedAt : createdAt);
+        }
+        return prescription;
+    }
+
+    /**
+     * Reads a date as stored by the application, a local date-time in the server's zone.
+     * @throws DateTimeException if the field isn't a date
+     */
+    static LocalDateTime dateTime(JsonNode document, String field) {
+        JsonNode value = document.get(field);
+        if (value != null && value.isObject()) {
+            // extended JSON: {"$date": "..."} or {"$date": {"$numberLong": "..."}}
+            value = value.get("$date");
+            if (value != null && value.isObject()) {
+                value = value.get("$numberLong");
+            }
+        }
+        if (value == null || value.isNull()) {
+            return null;
+        }
+        if (value.canConvertToLong() && !value.isTextual()) {
+            return LocalDateTime.ofInstant(Instant.ofEpochMilli(value.asLong()), ZoneId.systemDefault());
+        }
+        final String text = value.asText();
+        if (text.matches("-?\\d+")) {
+            return LocalDateTime.ofInstant(Instant.ofEpochMilli(Long.parseLong(text)), ZoneId.systemDefault());
+        }
+        try {
+            return LocalDateTime.ofInstant(OffsetDateTime.parse(text).toInstant(), ZoneId.systemDefault());
+        } catch (DateTimeException e) {
+            return LocalDateTime.parse(text);
+        }
+    }
+
+    private static String text(JsonNode document, String field) {
+        final JsonNode value = document.get(field);
+        return value == null || value.isNull() ? null : value.asText();
+    }
+
+    /**
+     * Turns a mongo shell script into plain JSON while it's read: skips everything before the first '['
+     * and replaces shell wrappers such as <code>ObjectId("...")</code> or <code>NumberLong(5)</code> outside
+     * strings by their argument.
+     */
+    static final class ShellScriptReader extends Reader {
+
+        private final PushbackReader in;
+        private final StringBuilder identifier = new StringBuilder();
+        private int identifierPosition;
+        private boolean started;
+        private boolean inString;
+        private boolean escaped;
+        private int openWrappers;
+
+        ShellScriptReader(Reader in) {
+            this.in = new PushbackReader(in instanceof BufferedReader ? in : new BufferedReader(in));
+        }
+
+        @Override
+        public int read(char[] buffer, int offset, int length) throws IOException {
+            int count = 0;
+            while (count < length) {
+                final int c = next();
+                if (c < 0) {
+                    return count == 0 ? -1 : count;
+                }
+                buffer[offset + count++] = (char) c;
+            }
+            return count;
+        }
+
+        private int next() throws IOException {
+            if (identifierPosition < identifier.length()) {
+                return identifier.charAt(identifierPosition++);
+            }
+            while (true) {
+                final int c = in.read();
+                if (c < 0) {
+                    return c;
+                }
+                if (!started) {
+                    started = c == '[';
+                    if (started) {
+                        return c;
+                    }
+                    continue;
+                }
+                if (inString) {
+                    if (escaped) {
+                        escaped = false;
+                    } else if (c == '\\') {
+                        escaped = true;
+                    } else if (c == '"') {
+                        inString = false;
+                    }
+                    return c;
+                }
+                if (c == '"') {
+                    inString = true;
+                    return c;
+                }
+                if (c == ')' && openWrappers > 0) {
+                    openWrappers--;
+                    continue;
+                }
+                if (!Character.isLetter(c)) {
+                    return c;
+                }
+                identifier.setLength(0);
+                identifierPosition = 0;
+                int d = c;
+                while (d >= 0 && (Character.isLetterOrDigit(d) || d == '_' || d == '.')) {
+                    identifier.append((char) d);
+                    d = in.read();
+                }
+                if (d == '(') {
+                    openWrappers++;
+                    identifier.setLength(0);
+                    continue;
+                }
+                if (d >= 0) {
+                    in.unread(d);
+                }
+                return identifier.charAt(identifierPosition++);
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            in.close();
+        }
+    }
+}
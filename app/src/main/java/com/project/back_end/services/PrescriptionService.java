@@ -1,6 +1,71 @@
 package com.project.back_end.services;
 
-public class PrescriptionService {
+import com.github.benmanes.caffeine.cache.AsyncLoadingCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.project.back_end.DTO.PrescriptionSummary;
+import com.project.back_end.config.MetricsConfig;
+import com.project.back_end.config.ThreadingConfig;
+import com.project.back_end.models.Prescription;
+import com.project.back_end.repo.PrescriptionRepository;
+import io.micrometer.core.annotation.Timed;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
+
+@Timed(value = MetricsConfig.SERVICE_TIMER, histogram = true, percentiles = {0.5, 0.95, 0.99})
+@Service
+public class PrescriptionService implements MeterBinder {
+
+    private static final Logger log = LoggerFactory.getLogger(PrescriptionService.class);
+
+    /** Largest number of appointments whose prescriptions can be looked up at once. */
+    public static final int MAX_BULK_APPOINTMENTS = 500;
+
+    private final PrescriptionRepository prescriptionRepository;
+
+    // prescriptions by appointment id, read through from Mongo and invalidated by savePrescription;
+    // entries written on another instance are picked up once they expire;
+    // loads run on the cache load executor, see ThreadingConfig
+    private final AsyncLoadingCache<Long, List<Prescription>> prescriptions;
+
+    public PrescriptionService(PrescriptionRepository prescriptionRepository,
+                               @Value("${prescription.cache.max-size:10000}") long cacheSize,
+                               @Value("${prescription.cache.ttl-minutes:10}") long cacheTtlMinutes,
+                               @Qualifier(ThreadingConfig.CACHE_LOAD_EXECUTOR) Executor cacheLoadExecutor) {
+        this.prescriptionRepository = prescriptionRepository;
+        this.prescriptions = Caffeine.newBuilder()
+                .maximumSize(cacheSize)
+                .expireAfterWrite(Duration.ofMinutes(cacheTtlMinutes))
+                .executor(cacheLoadExecutor)
+                .recordStats()
+                .buildAsync(appointmentId -> List.copyOf(prescriptionRepository.findByAppointmentId(appointmentId)));
+    }
+
+    /***
+     * Registers the prescription cache's size, hits, misses and evictions as cache.*{cache="prescriptions"}.
+     * @param registry registry of the application's meters
+     */
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        new CaffeineCacheMetrics<>(prescriptions.synchronous(), "prescriptions", Tags.empty()).bindTo(registry);
+    }
     
  // 1. **Add @Service Annotation**:
 //    - The `@Service` annotation marks this class as a Spring service component, allowing Spring's container to manage it.
@@ -19,16 +84,95 @@ public class PrescriptionService {
 //    - If no prescription exists, it saves the new prescription and returns a `201 Created` status with a success message.
 //    - Instruction: Handle errors by providing appropriate status codes and messages, ensuring that multiple prescriptions for the same appointment are not saved.
 
+    /***
+     * Saves a new prescription, at most one per appointment, and drops the appointment's cached prescriptions.
+     * The unique index on appointmentId rejects a second prescription, also when two are saved concurrently.
+     * @param prescription prescription to save
+     * @return 201 Created, 400 Bad Request if the appointment already has a prescription,
+     * or 500 Internal Server Error, each with a message
+     */
+    public ResponseEntity<Map<String, String>> savePrescription(Prescription prescription) {
+        Map<String, String> map = new HashMap<>();
+        try {
+            prescriptionRepository.save(prescription);
+            map.put("message", "Prescription saved");
+            return ResponseEntity.status(HttpStatus.CREATED).body(map);
+        } catch (DuplicateKeyException e) {
+            map.put("message", "Prescription already exists for this appointment");
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(map);
+        } catch (Exception e) {
+            log.error("Failed to save prescription", e);
+            map.put("message", "Error saving prescription");
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(map);
+        } finally {
+            // also after a failed save, which may still have been written
+            prescriptions.synchronous().invalidate(prescription.getAppointmentId());
+        }
+    }
+
 // 4. **getPrescription Method**:
 //    - Retrieves a prescription associated with a specific appointment based on the `appointmentId`.
 //    - If a prescription is found, it returns it within a map wrapped in a `200 OK` status.
 //    - If there is an error while fetching the prescription, it logs the error and returns a `500 Internal Server Error` status with an error message.
 //    - Instruction: Ensure that this method handles edge cases, such as no prescriptions found for the given appointment, by returning meaningful responses.
 
+    /***
+     * Retrieves the prescription of an appointment. Repeated reads are answered from a bounded cache
+     * until the entry expires or the appointment's prescription is saved, see {@link #cacheStats()}.
+     * @param appointmentId appointment's id
+     * @return 200 OK with the prescriptions under "prescription", or 500 Internal Server Error with a message
+     */
+    public ResponseEntity<Map<String, Object>> getPrescription(Long appointmentId) {
+        Map<String, Object> map = new HashMap<>();
+        try {
+            map.put("prescription", prescriptions.get(appointmentId).join());
+            return ResponseEntity.ok(map);
+        } catch (Exception e) {
+            log.error("Failed to fetch prescription", e);
+            map.put("message", "Error fetching prescription");
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(map);
+        }
+    }
+
+    /***
+     * Retrieves the prescription summaries of many appointments at once, e.g. all appointments of a doctor's day,
+     * with a single query instead of one round trip per appointment.
+     * @param appointmentIds appointments' ids, at most {@link #MAX_BULK_APPOINTMENTS}
+     * @return prescription summary by appointment id, appointments without a prescription are left out
+     * @throws IllegalArgumentException if there are more than {@link #MAX_BULK_APPOINTMENTS} ids
+     */
+    public Map<Long, PrescriptionSummary> getPrescriptionSummaries(Collection<Long> appointmentIds) {
+        if (appointmentIds.size() > MAX_BULK_APPOINTMENTS) {
+            throw new IllegalArgumentException("At most " + MAX_BULK_APPOINTMENTS + " appointments per request");
+        }
+        final Map<Long, PrescriptionSummary> summaries = new HashMap<>();
+        if (appointmentIds.isEmpty()) {
+            return summaries;
+        }
+        for (PrescriptionSummary summary : prescriptionRepository.findSummariesByAppointmentIdIn(appointmentIds)) {
+            summaries.putIfAbsent(summary.appointmentId(), summary);
+        }
+        return summaries;
+    }
+
 // 5. **Exception Handling and Error Responses**:
 //    - Both methods (`savePrescription` and `getPrescription`) contain try-catch blocks to handle exceptions that may occur during database interaction.
 //    - If an error occurs, the method logs the error and returns an HTTP `500 Internal Server Error` response with a corresponding error message.
 //    - Instruction: Ensure that all potential exceptions are handled properly, and meaningful responses are returned to the client.
 
+    /***
+     * Hit, miss, load and eviction counts of the prescription cache since startup.
+     * @return snapshot of the cache statistics
+     */
+    public CacheStats cacheStats() {
+        return prescriptions.synchronous().stats();
+    }
 
+    /***
+     * Number of appointments whose prescriptions are cached, approximately.
+     * @return cache size
+     */
+    public long cacheSize() {
+        return prescriptions.synchronous().estimatedSize();
+    }
 }
@@ -0,0 +1,215 @@
+package com.project.back_end.services;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.util.MinimalPrettyPrinter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+
+/**
+ * Streams reports straight from a forward-only JDBC cursor to the client, one row at a time,
+ * so memory stays constant however many rows a report has. <br>
+ * The queries filter on half-open time ranges (time &gt;= start AND time &lt; end) rather than DATE(time),
+ * so the database can use the index on appointment_time instead of scanning the whole table.
+ */
+@Service
+public class ReportService {
+
+    /** Rows fetched per round trip, with MySQL this needs useCursorFetch=true on the JDBC URL. */
+    static final int FETCH_SIZE = 500;
+
+    /** Rows written between flushes, every flush sends a chunk to the client. */
+    private static final int FLUSH_ROWS = 500;
+
+    private static final JsonFactory JSON = new JsonFactory();
+
+    // same join and columns as GetDailyAppointmentReportByDoctor.sql, with a sargable time range
+    private static final String DAILY_APPOINTMENT_REPORT = "SELECT d.name AS doctor_name, a.appointment_time, "
+            + "a.status, p.name AS patient_name, p.phone AS patient_phone "
+            + "FROM appointment a "
+            + "JOIN doctor d ON a.doctor_id = d.id "
+            + "JOIN patient p ON a.patient_id = p.id "
+            + "WHERE a.appointment_time >= ? AND a.appointment_time < ? "
+            + "ORDER BY d.name, a.appointment_time";
+
+    private static final String[] COLUMNS = {"doctor_name", "appointment_time", "status", "patient_name", "patient_phone"};
+
+    /**
+     * Output format of a report.
+     */
+    public enum Format {
+        /** Comma separated values with a header line, RFC 4180 quoting. */
+        CSV("text/csv"),
+        /** One JSON object per line. */
+        NDJSON("application/x-ndjson");
+
+        private final String contentType;
+
+        Format(String contentType) {
+            this.contentType = contentType;
+        }
+
+        /**
+         * @return media type of the format
+         */
+        public String contentType() {
+            return contentType;
+        }
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public ReportService(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Writes the daily appointment report: every appointment of the day with the doctor's name, the status
+     * and the patient's name and phone, ordered by doctor's name and appointment time.
+     * @param date day of the report
+     * @param format output format
+     * @param out stream to write to, not closed
+     * @return number of appointments written
+     * @throws UncheckedIOException if writing to the stream fails, e.g. the client went away
+     */
+    @Transactional(readOnly = true)
+    public long writeDailyAppointmentReport(LocalDate date, Format format, OutputStream out) {
+        final Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        final RowWriter rows = format == Format.CSV ? new CsvRowWriter(writer) : new NdjsonRowWriter(writer);
+        final long[] count = {0};
+        try {
+            rows.start();
+            jdbcTemplate.query(connection -> {
+                final PreparedStatement statement = connection.prepareStatement(DAILY_APPOINTMENT_REPORT,
+                        ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+                statement.setFetchSize(FETCH_SIZE);
+                statement.setTimestamp(1, Timestamp.valueOf(date.atStartOfDay()));
+                statement.setTimestamp(2, Timestamp.valueOf(date.plusDays(1).atStartOfDay()));
+                return statement;
+            }, (RowCallbackHandler) resultSet -> {
+                try {
+                    rows.write(resultSet);
+                    if (++count[0] % FLUSH_ROWS == 0) {
+                        writer.flush();
+                    }
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            rows.end();
+            writer.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return count[0];
+    }
+
+    private interface RowWriter {
+        void start() throws IOException;
+
+        void write(ResultSet row) throws IOException, SQLException;
+
+        void end() throws IOException;
+    }
+
+    private static final class CsvRowWriter implements RowWriter {
+
+        private final Writer writer;
+
+        CsvRowWriter(Writer writer) {
+            this.writer = writer;
+        }
+
+        @Override
+        public void start() throws IOException {
+            writer.write(String.join(",", COLUMNS));
+            writer.write("\r\n");
+        }
+
+        @Override
+        public void write(ResultSet row) throws IOException, SQLException {
+            field(row.getString(1));
+            writer.write(',');
+            writer.write(row.getTimestamp(2).toLocalDateTime().toString());
+            writer.write(',');
+            writer.write(Integer.toString(row.getInt(3)));
+            writer.write(',');
+            field(row.getString(4));
+            writer.write(',');
+            field(row.getString(5));
+            writer.write("\r\n");
+        }
+
+        @Override
+        public void end() {
+        }
+
+        private void field(String value) throws IOException {
+            if (value == null) {
+                return;
+            }
+            if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+                writer.write(value);
+                return;
+            }
+            writer.write('"');
+            writer.write(value.replace("\"", "\"\""));
+            writer.write('"');
+        }
+    }
+
+    private static final class NdjsonRowWriter implements RowWriter {
+
+        private final JsonGenerator json;
+
+        NdjsonRowWriter(Writer writer) {
+            try {
+                // the generator must not close or flush the response, that's left to the caller
+                json = JSON.createGenerator(writer)
+                        .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+                        .disable(JsonGenerator.Feature.FLUSH_PASSED_TO_STREAM)
+                        .setPrettyPrinter(new MinimalPrettyPrinter(""));
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        @Override
+        public void start() {
+        }
+
+        @Override
+        public void write(ResultSet row) throws IOException, SQLException {
+            json.writeStartObject();
+            json.writeStringField(COLUMNS[0], row.getString(1));
+            json.writeStringField(COLUMNS[1], row.getTimestamp(2).toLocalDateTime().toString());
+            json.writeNumberField(COLUMNS[2], row.getInt(3));
+            json.writeStringField(COLUMNS[3], row.getString(4));
+            json.writeStringField(COLUMNS[4], row.getString(5));
+            json.writeEndObject();
+            json.writeRaw('\n');
+            // the generator buffers on its own, hand the row to the writer so flushes reach the client
+            json.flush();
+        }
+
+        @Override
+        public void end() throws IOException {
+            json.close();
+        }
+    }
+}
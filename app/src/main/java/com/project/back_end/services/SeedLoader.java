@@ -0,0 +1,151 @@
+package com.project.back_end.services;
+
+import com.project.back_end.models.Appointment;
+import com.project.back_end.models.Doctor;
+import com.project.back_end.models.Patient;
+import jakarta.persistence.EntityManager;
+import org.hibernate.Session;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntFunction;
+
+/**
+ * Loads generated doctors, patients and appointments in bulk, e.g. to seed a test database with
+ * a multiple of the mysql_data.sql sample. <br>
+ * Rows are inserted through Hibernate in transactions of {@link #BATCH_SIZE} rows, flushed as JDBC batches
+ * of the same size, which the MySQL driver rewrites into multi-row INSERTs (rewriteBatchedStatements=true).
+ * This works because ids come from the pooled sequences, not identity columns,
+ * so Hibernate knows the ids before inserting. <br>
+ * Appointments are spread over the doctors' slots from tomorrow on, and the appointment rollups are rebuilt
+ * afterwards. The availability calendar picks the appointments up when a date is first read.
+ */
+@Service
+public class SeedLoader {
+
+    private static final Logger log = LoggerFactory.getLogger(SeedLoader.class);
+
+    /** Rows per transaction and per JDBC batch. */
+    public static final int BATCH_SIZE = 1000;
+
+    /** Sample size of mysql_data.sql, loaded once per unit of scale. */
+    static final int DOCTORS = 25;
+    static final int PATIENTS = 25;
+    static final int APPOINTMENTS = 130;
+
+    private static final String[] SPECIALTIES = {"Cardiologist", "Neurologist", "Orthopedist", "Pediatrician",
+            "Dermatologist"};
+    private static final int[] HOURS = {9, 10, 11, 14, 15, 16};
+    private static final Set<String> AVAILABLE_TIMES = Set.of("09:00-10:00", "10:00-11:00", "11:00-12:00",
+            "14:00-15:00", "15:00-16:00", "16:00-17:00");
+
+    private final EntityManager entityManager;
+    private final TransactionTemplate transactionTemplate;
+    private final AppointmentRollupService appointmentRollupService;
+
+    public SeedLoader(EntityManager entityManager, TransactionTemplate transactionTemplate,
+                      AppointmentRollupService appointmentRollupService) {
+        this.entityManager = entityManager;
+        this.transactionTemplate = transactionTemplate;
+        this.appointmentRollupService = appointmentRollupService;
+    }
+
+    /**
+     * Outcome of a load.
+     * @param doctors doctors inserted
+     * @param patients patients inserted
+     * @param appointments appointments inserted
+     * @param millis duration of the inserts, without the rollup rebuild
+     */
+    public record LoadResult(int doctors, int patients, int appointments, long millis) {
+
+        /**
+         * @return rows inserted per second
+         */
+        public long rowsPerSecond() {
+            final long rows = (long) doctors + patients + appointments;
+            return millis == 0 ? rows : rows * 1000 / millis;
+        }
+    }
+
+    /**
+     * Loads scale times the mysql_data.sql sample size: 25 doctors, 25 patients and 130 appointments each.
+     * @param scale multiple of the sample size
+     * @return outcome of the load
+     */
+    public LoadResult load(int scale) {
+        final LoadResult result = load(DOCTORS * scale, PATIENTS * scale, APPOINTMENTS * scale, BATCH_SIZE);
+        appointmentRollupService.rebuild();
+        log.info("Loaded {} doctors, {} patients and {} appointments in {} ms, {} rows/s", result.doctors(),
+                result.patients(), result.appointments(), result.millis(), result.rowsPerSecond());
+        return result;
+    }
+
+    /**
+     * Inserts generated rows, without rebuilding the rollups.
+     * Emails are tagged with the start time, so loads can be repeated on the same database.
+     * @param doctors number of doctors
+     * @param patients number of patients
+     * @param appointments number of appointments, at most 6 per doctor and day
+     * @param batchSize rows per JDBC batch, 1 sends an INSERT per row as identity ids did
+     * @return outcome of the load
+     */
+    public LoadResult load(int doctors, int patients, int appointments, int batchSize) {
+        final long start = System.nanoTime();
+        final String tag = Long.toString(System.currentTimeMillis(), 36);
+        final List<Long> doctorIds = insert(doctors, batchSize, i -> {
+            final Doctor doctor = new Doctor("Dr. Seed " + tag + " " + i, "dr." + tag + "." + i + "@seed.example.com",
+                    "seedPass" + i, "555-" + phone(i), SPECIALTIES[i % SPECIALTIES.length]);
+            doctor.setAvailableTimes(AVAILABLE_TIMES);
+            return doctor;
+        });
+        final List<Long> patientIds = insert(patients, batchSize, i -> new Patient("Seed Patient " + tag + " " + i,
+                "patient." + tag + "." + i + "@seed.example.com", "seedPass" + i, "888-" + phone(i),
+                i + " Seed St"));
+        final LocalDate first = LocalDate.now().plusDays(1);
+        insert(appointments, batchSize, i -> {
+            // round robin over the doctors, then over each doctor's slots day by day
+            final int slot = i / doctors;
+            return new Appointment(entityManager.getReference(Doctor.class, doctorIds.get(i % doctors)),
+                    entityManager.getReference(Patient.class, patientIds.get(i % patients)),
+                    first.plusDays(slot / HOURS.length).atTime(HOURS[slot % HOURS.length], 0));
+        });
+        return new LoadResult(doctors, patients, appointments,
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+    }
+
+    private <T> List<Long> insert(int count, int batchSize, IntFunction<T> factory) {
+        final List<Long> ids = new ArrayList<>(count);
+        for (int from = 0; from < count; from += BATCH_SIZE) {
+            final int to = Math.min(count, from + BATCH_SIZE);
+            final int batchStart = from;
+            transactionTemplate.executeWithoutResult(status -> {
+                entityManager.unwrap(Session.class).setJdbcBatchSize(batchSize);
+                final List<T> entities = new ArrayList<>(to - batchStart);
+                for (int i = batchStart; i < to; i++) {
+                    final T entity = factory.apply(i);
+                    entityManager.persist(entity);
+                    entities.add(entity);
+                }
+                entityManager.flush();
+                for (T entity : entities) {
+                    ids.add((Long) entityManager.getEntityManagerFactory().getPersistenceUnitUtil()
+                            .getIdentifier(entity));
+                }
+                entityManager.clear();
+            });
+        }
+        return ids;
+    }
+
+    private static String phone(int i) {
+        return String.format("%03d-%04d", (i / 10_000) % 1000, i % 10_000);
+    }
+}
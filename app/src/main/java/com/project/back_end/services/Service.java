@@ -1,11 +1,22 @@
 package com.project.back_end.services;
 
+import com.project.back_end.DTO.Login;
+import com.project.back_end.DTO.MessageResponse;
+import com.project.back_end.config.MetricsConfig;
+import com.project.back_end.models.Admin;
 import com.project.back_end.models.Appointment;
+import com.project.back_end.models.Patient;
+import com.project.back_end.repo.AdminRepository;
+import com.project.back_end.repo.PatientRepository;
+import io.micrometer.core.annotation.Timed;
 import jakarta.validation.Valid;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
+@Timed(value = MetricsConfig.SERVICE_TIMER, histogram = true, percentiles = {0.5, 0.95, 0.99})
 @org.springframework.stereotype.Service
 public class Service {
 // 1. **@Service Annotation**
@@ -16,20 +27,56 @@ public class Service {
 // The constructor injects all required dependencies (TokenService, Repositories, and other Services). This approach promotes loose coupling, improves testability,
 // and ensures that all required dependencies are provided at object creation time.
 
-    public Service() {
+    private final TokenService tokenService;
+    private final DoctorSlotIndex doctorSlotIndex;
+    private final DoctorService doctorService;
+    private final AdminRepository adminRepository;
+    private final PatientRepository patientRepository;
+    private final PasswordHasher passwordHasher;
+
+    public Service(TokenService tokenService, DoctorSlotIndex doctorSlotIndex, DoctorService doctorService,
+                   AdminRepository adminRepository, PatientRepository patientRepository,
+                   PasswordHasher passwordHasher) {
+        this.tokenService = tokenService;
+        this.doctorSlotIndex = doctorSlotIndex;
+        this.doctorService = doctorService;
+        this.adminRepository = adminRepository;
+        this.patientRepository = patientRepository;
+        this.passwordHasher = passwordHasher;
     }
 
+    private static final ResponseEntity<Map<String, String>> VALID_TOKEN = ResponseEntity.ok(Map.of());
+    private static final ResponseEntity<Map<String, String>> INVALID_TOKEN = ResponseEntity
+            .status(HttpStatus.UNAUTHORIZED).body(Map.of("message", MessageResponse.INVALID_TOKEN.message()));
+    private static final ResponseEntity<Map<String, String>> INVALID_CREDENTIALS = ResponseEntity
+            .status(HttpStatus.UNAUTHORIZED).body(Map.of("message", MessageResponse.INVALID_CREDENTIALS.message()));
+
     /***
      * This method checks if the provided JWT token is valid for a specific user. It uses the TokenService to perform the validation.
      * If the token is invalid or expired, it returns a 401 Unauthorized response with an appropriate error message.
      * This ensures security by preventing unauthorized access to protected resources.
+     * The returned responses are shared and immutable.
      * @param token
-     * @param doctor
-     * @return ?????????????
+     * @param user role of the user: "admin", "doctor" or "patient"
+     * @return an empty map with 200 OK if the token is valid, otherwise 401 Unauthorized with an error message
      */
-    public ResponseEntity<Map<String, String>> validateToken(String token, String doctor) {
-        //TODO: implement
-        return null;
+    public ResponseEntity<Map<String, String>> validateToken(String token, String user) {
+        return tokenService.validateToken(token, user) ? VALID_TOKEN : INVALID_TOKEN;
+    }
+
+    /***
+     * Lean variant of {@link #validateToken(String, String)} for request handlers.
+     * @param token
+     * @param user role of the user: "admin", "doctor" or "patient"
+     * @return the verified token
+     * @throws InvalidTokenException if the token is invalid or expired, mapped to 401 Unauthorized
+     */
+    public TokenService.VerifiedToken requireToken(String token, String user) {
+        final TokenService.VerifiedToken verified = tokenService.verify(token, user);
+        if (verified == null) {
+            throw InvalidTokenException.INSTANCE;
+        }
+        return verified;
     }
 
 
@@ -43,11 +90,41 @@ public class Service {
 // - If any unexpected error occurs during the process, a 500 Internal Server Error response is returned.
 // This method ensures that only valid admin users can access secured parts of the system.
 
-// 5. **filterDoctor Method**
-// This method provides filtering functionality for doctors based on name, specialty, and available time slots.
-// - It supports various combinations of the three filters.
-// - If none of the filters are provided, it returns all available doctors.
-// This flexible filtering mechanism allows the frontend or consumers of the API to search and narrow down doctors based on user criteria.
+    /***
+     * Validates an admin's login and generates a token with the admin's username. <br>
+     * The password is verified on the {@link PasswordHasher}'s executor, so the request thread is released
+     * meanwhile; a password stored with an outdated cost is replaced with a hash of the current cost.
+     * An unknown username takes as long as a wrong password, see {@link PasswordHasher#verifyUnknownUser(String)}.
+     * @param receivedAdmin username and password
+     * @return future of 200 OK with the token under "token", or 401 Unauthorized with an error message
+     * @throws HashingBusyException if too many logins are in progress, mapped to 503 Service Unavailable
+     */
+    public CompletableFuture<ResponseEntity<Map<String, String>>> validateAdmin(Admin receivedAdmin) {
+        final Admin admin = adminRepository.findByUsername(receivedAdmin.getUsername());
+        if (admin == null) {
+            return passwordHasher.verifyUnknownUser(receivedAdmin.getPassword())
+                    .thenApply(matches -> INVALID_CREDENTIALS);
+        }
+        return passwordHasher.verify(receivedAdmin.getPassword(), admin.getPassword(),
+                        rehash -> adminRepository.updatePassword(admin.getId(), rehash))
+                .thenApply(matches -> matches
+                        ? ResponseEntity.ok(Map.of("token", tokenService.generateToken(admin.getUsername())))
+                        : INVALID_CREDENTIALS);
+    }
+
+    /***
+     * This method provides filtering functionality for doctors based on name, specialty, and available time slots.
+     * - It supports any combination of the three filters, a missing filter ("null" from the frontend) matches every doctor. <br>
+     * - If none of the filters are provided, it returns all doctors. <br>
+     * The filters are answered from the in-memory {@link DoctorSearchIndex}.
+     * @param name part of the doctor's name
+     * @param specialty doctor's specialty
+     * @param time "AM" or "PM"
+     * @return map with the list of matching doctors under "doctors"
+     */
+    public Map<String, Object> filterDoctor(String name, String specialty, String time) {
+        return doctorService.filterDoctors(name, specialty, time);
+    }
 
     /***
      *  This method validates if the requested appointment time for a doctor is available. <br>
@@ -56,13 +133,17 @@ public class Service {
      *  - It compares the requested appointment time with the start times of these slots. <br>
      *  - If a match is found, it returns 1 (valid appointment time). <br>
      *  - If no matching time slot is found, it returns 0 (invalid). <br>
-     *  This logic prevents overlapping or invalid appointment bookings.
+     *  This logic prevents overlapping or invalid appointment bookings. <br>
+     *  The check is answered from the in-memory {@link DoctorSlotIndex}, so it doesn't touch the database
+     *  once the doctor and the day are loaded.
      * @param appointment
      * @return If the doctor doesn’t exist, it returns -1. <br>
      */
     public int validateAppointment(@Valid Appointment appointment) {
-        //TODO: implement
-        return -1;
+        if (appointment.getDoctor() == null) {
+            return DoctorSlotIndex.UNKNOWN_DOCTOR;
+        }
+        return doctorSlotIndex.validate(appointment.getDoctor().getId(), appointment.getAppointmentTime());
     }
 
 
@@ -81,6 +162,25 @@ public class Service {
 // - If an exception occurs, it returns a 500 Internal Server Error.
 // This method ensures only legitimate patients can log in and access their data securely.
 
+    /***
+     * Validates a patient's login and generates a token with the patient's email,
+     * verifying the password like {@link #validateAdmin(Admin)}.
+     * @param login email and password
+     * @return future of 200 OK with the token under "token", or 401 Unauthorized with an error message
+     * @throws HashingBusyException if too many logins are in progress, mapped to 503 Service Unavailable
+     */
+    public CompletableFuture<ResponseEntity<Map<String, String>>> validatePatientLogin(Login login) {
+        final Patient patient = patientRepository.findByEmail(login.getEmail());
+        if (patient == null) {
+            return passwordHasher.verifyUnknownUser(login.getPassword()).thenApply(matches -> INVALID_CREDENTIALS);
+        }
+        return passwordHasher.verify(login.getPassword(), patient.getPassword(),
+                        rehash -> patientRepository.updatePassword(patient.getId(), rehash))
+                .thenApply(matches -> matches
+                        ? ResponseEntity.ok(Map.of("token", tokenService.generateToken(patient.getEmail())))
+                        : INVALID_CREDENTIALS);
+    }
+
 // 9. **filterPatient Method**
 // This method filters a patient's appointment history based on condition and doctor name.
 // - It extracts the email from the JWT token to identify the patient.
@@ -1,43 +1,263 @@
 package com.project.back_end.services;
 
-public class TokenService {
+import com.project.back_end.repo.AdminRepository;
+import com.project.back_end.repo.DoctorRepository;
+import com.project.back_end.repo.PatientRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.project.back_end.config.MetricsConfig;
+import com.project.back_end.models.Admin;
+import com.project.back_end.models.Doctor;
+import com.project.back_end.models.Patient;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.annotation.Timed;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.SecretKey;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Date;
+
 // 1. **@Component Annotation**
 // The @Component annotation marks this class as a Spring component, meaning Spring will manage it as a bean within its application context.
 // This allows the class to be injected into other Spring-managed components (like services or controllers) where it's needed.
+@Timed(value = MetricsConfig.SERVICE_TIMER, histogram = true, percentiles = {0.5, 0.95, 0.99})
+@Component
+public class TokenService implements MeterBinder {
+
+    private static final Duration TOKEN_VALIDITY = Duration.ofDays(7);
+
+    private final AdminRepository adminRepository;
+    private final DoctorRepository doctorRepository;
+    private final PatientRepository patientRepository;
+    private final SecretKey signingKey;
+    // issues tokens, checks their expiration and expires the cached ones, a fixed one in tests
+    private final Clock clock;
+
+    // verified tokens by (token digest, role), each entry expires with its token
+    private final Cache<TokenKey, VerifiedToken> verifiedTokens;
 
 // 2. **Constructor Injection for Dependencies**
 // The constructor injects dependencies for `AdminRepository`, `DoctorRepository`, and `PatientRepository`,
 // allowing the service to interact with the database and validate users based on their role (admin, doctor, or patient).
 // Constructor injection ensures that the class is initialized with all required dependencies, promoting immutability and making the class testable.
+    @Autowired
+    public TokenService(AdminRepository adminRepository,
+                        DoctorRepository doctorRepository,
+                        PatientRepository patientRepository,
+                        @Value("${jwt.secret}") String secret,
+                        @Value("${jwt.cache.max-size:10000}") long cacheSize) {
+        this(adminRepository, doctorRepository, patientRepository, secret, cacheSize, Clock.systemUTC());
+    }
+
+    TokenService(AdminRepository adminRepository,
+                 DoctorRepository doctorRepository,
+                 PatientRepository patientRepository,
+                 String secret,
+                 long cacheSize,
+                 Clock clock) {
+        this.adminRepository = adminRepository;
+        this.doctorRepository = doctorRepository;
+        this.patientRepository = patientRepository;
+        this.signingKey = Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8));
+        this.clock = clock;
+        this.verifiedTokens = Caffeine.newBuilder()
+                .maximumSize(cacheSize)
+                .ticker(() -> {
+                    final Instant now = clock.instant();
+                    return now.getEpochSecond() * 1_000_000_000L + now.getNano();
+                })
+                .expireAfter(new Expiry<TokenKey, VerifiedToken>() {
+                    @Override
+                    public long expireAfterCreate(TokenKey key, VerifiedToken token, long currentTime) {
+                        return Duration.between(clock.instant(), token.expiresAt()).toNanos();
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(TokenKey key, VerifiedToken token, long currentTime,
+                                                  long currentDuration) {
+                        return expireAfterCreate(key, token, currentTime);
+                    }
+
+                    @Override
+                    public long expireAfterRead(TokenKey key, VerifiedToken token, long currentTime,
+                                                long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .build();
+    }
+
+    /***
+     * Registers the size of the verified-token cache as cache.size{cache="verified-tokens"}.
+     * @param registry registry of the application's meters
+     */
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        new CaffeineCacheMetrics<>(verifiedTokens, "verified-tokens", Tags.empty()).bindTo(registry);
+    }
+
+    /***
+     * Retrieves the HMAC SHA key used to sign JWT tokens.
+     * The key is derived once from the `jwt.secret` property.
+     * @return signing key
+     */
+    public SecretKey getSigningKey() {
+        return signingKey;
+    }
+
+    /***
+     * Generates a JWT token for a user based on their email (or username for admins).
+     * The token expires 7 days after issue.
+     * @param email user's identifier stored as the token subject
+     * @return signed JWT token
+     */
+    public String generateToken(String email) {
+        final Date issuedAt = Date.from(clock.instant());
+        return Jwts.builder()
+                .subject(email)
+                .issuedAt(issuedAt)
+                .expiration(new Date(issuedAt.getTime() + TOKEN_VALIDITY.toMillis()))
+                .signWith(signingKey)
+                .compact();
+    }
+
+    /***
+     * Extracts the user's email (subject) from the provided JWT token.
+     * The token signature and expiration are verified before the subject is returned.
+     * @param token JWT token
+     * @return the subject of the token
+     * @throws io.jsonwebtoken.JwtException if the token is invalid or expired
+     */
+    public String extractEmail(String token) {
+        return Jwts.parser()
+                .verifyWith(signingKey)
+                .clock(() -> Date.from(clock.instant()))
+                .build()
+                .parseSignedClaims(token)
+                .getPayload()
+                .getSubject();
+    }
+
+    /***
+     * Validates whether a provided JWT token is valid for a specific user role (admin, doctor, or patient).
+     * @param token JWT token
+     * @param user role of the user: "admin", "doctor" or "patient"
+     * @return true if the token is valid and belongs to an existing user of the given role, false otherwise
+     * @see #verify(String, String)
+     */
+    public boolean validateToken(String token, String user) {
+        return verify(token, user) != null;
+    }
+
+    /***
+     * Verifies a JWT token for a specific user role (admin, doctor, or patient).
+     * A token that was verified for the role before is answered from a bounded cache until the token expires,
+     * so a hot session doesn't pay the signature check and the user lookup on every request.
+     * Deactivated doctors and patients are not valid, see {@link #invalidateUser(String, Long)}.
+     * @param token JWT token
+     * @param user role of the user: "admin", "doctor" or "patient"
+     * @return the verified token, or null if the token is invalid, expired
+     * or doesn't belong to an existing user of the given role
+     */
+    public VerifiedToken verify(String token, String user) {
+        if (token == null || user == null) {
+            return null;
+        }
+        final TokenKey key = TokenKey.of(token, user);
+        final VerifiedToken cached = verifiedTokens.getIfPresent(key);
+        if (cached != null) {
+            return cached;
+        }
+        try {
+            final Claims claims = Jwts.parser()
+                    .verifyWith(signingKey)
+                    .clock(() -> Date.from(clock.instant()))
+                    .build()
+                    .parseSignedClaims(token)
+                    .getPayload();
+            final Long userId = findUserId(claims.getSubject(), user);
+            if (userId == null) {
+                return null;
+            }
+            final Instant expiresAt = claims.getExpiration() == null ? null : claims.getExpiration().toInstant();
+            final VerifiedToken verified = new VerifiedToken(claims.getSubject(), userId, expiresAt);
+            if (expiresAt != null) {
+                verifiedTokens.put(key, verified);
+            }
+            return verified;
+        } catch (Exception e) {
+            return null;
+        }
+    }
+
+    /***
+     * Drops the cached tokens of a user, e.g. after the user was deactivated, deleted or changed their email.
+     * The next request with such a token is verified against the database again.
+     * @param user role of the user: "admin", "doctor" or "patient"
+     * @param userId user's id
+     */
+    public void invalidateUser(String user, Long userId) {
+        verifiedTokens.asMap().entrySet().removeIf(entry -> entry.getKey().role().equals(user)
+                && userId.equals(entry.getValue().userId()));
+    }
+
+    private Long findUserId(String email, String user) {
+        return switch (user) {
+            case "admin" -> {
+                final Admin admin = adminRepository.findByUsername(email);
+                yield admin == null ? null : admin.getId();
+            }
+            case "doctor" -> {
+                final Doctor doctor = doctorRepository.findByEmail(email);
+                yield doctor == null || !doctor.isActive() ? null : doctor.getId();
+            }
+            case "patient" -> {
+                final Patient patient = patientRepository.findByEmail(email);
+                yield patient == null || !patient.isActive() ? null : patient.getId();
+            }
+            default -> null;
+        };
+    }
+
+    /**
+     * A token verified for a role.
+     * @param subject user's email (or username for admins)
+     * @param userId user's id
+     * @param expiresAt token's expiration, null if the token doesn't expire
+     */
+    public record VerifiedToken(String subject, Long userId, Instant expiresAt) {
+    }
+
+    // 128 bits of the token's SHA-256 digest, so the cache doesn't hold on to the bearer tokens themselves
+    private record TokenKey(long high, long low, String role) {
 
-// 3. **getSigningKey Method**
-// This method retrieves the HMAC SHA key used to sign JWT tokens.
-// It uses the `jwt.secret` value, which is provided from an external source (like application properties).
-// The `Keys.hmacShaKeyFor()` method converts the secret key string into a valid `SecretKey` for signing and verification of JWTs.
-
-// 4. **generateToken Method**
-// This method generates a JWT token for a user based on their email.
-// - The `subject` of the token is set to the user's email, which is used as an identifier.
-// - The `issuedAt` is set to the current date and time.
-// - The `expiration` is set to 7 days from the issue date, ensuring the token expires after one week.
-// - The token is signed using the signing key generated by `getSigningKey()`, making it secure and tamper-proof.
-// The method returns the JWT token as a string.
-
-// 5. **extractEmail Method**
-// This method extracts the user's email (subject) from the provided JWT token.
-// - The token is first verified using the signing key to ensure it hasn’t been tampered with.
-// - After verification, the token is parsed, and the subject (which represents the email) is extracted.
-// This method allows the application to retrieve the user's identity (email) from the token for further use.
-
-// 6. **validateToken Method**
-// This method validates whether a provided JWT token is valid for a specific user role (admin, doctor, or patient).
-// - It first extracts the email from the token using the `extractEmail()` method.
-// - Depending on the role (`admin`, `doctor`, or `patient`), it checks the corresponding repository (AdminRepository, DoctorRepository, or PatientRepository)
-//   to see if a user with the extracted email exists.
-// - If a match is found for the specified user role, it returns true, indicating the token is valid.
-// - If the role or user does not exist, it returns false, indicating the token is invalid.
-// - The method gracefully handles any errors by returning false if the token is invalid or an exception occurs.
-// This ensures secure access control based on the user's role and their existence in the system.
+        private static final ThreadLocal<MessageDigest> SHA_256 = ThreadLocal.withInitial(() -> {
+            try {
+                return MessageDigest.getInstance("SHA-256");
+            } catch (NoSuchAlgorithmException e) {
+                throw new IllegalStateException(e);
+            }
+        });
 
+        static TokenKey of(String token, String role) {
+            final ByteBuffer digest = ByteBuffer.wrap(SHA_256.get().digest(token.getBytes(StandardCharsets.UTF_8)));
+            return new TokenKey(digest.getLong(), digest.getLong(), role);
+        }
+    }
 
 }
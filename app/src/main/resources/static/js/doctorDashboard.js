@@ -93,10 +93,10 @@ async function loadAppointments(selectedDate, patientName, token) {
         // - Loop through each appointment and construct a 'patient' object with id, name, phone, and email
         appointments.forEach(appointment => {
             const patient = {
-                id: appointment.patient.id,
-                name: appointment.patient.name,
-                phone: appointment.patient.phone,
-                email: appointment.patient.email
+                id: appointment.patientId,
+                name: appointment.patientName,
+                phone: appointment.patientPhone,
+                email: appointment.patientEmail
             };
 
             // Call createPatientRow to generate a table row for the appointment
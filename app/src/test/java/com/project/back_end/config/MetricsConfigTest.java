@@ -0,0 +1,50 @@
+package com.project.back_end.config;
+
+import com.project.back_end.services.TokenService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+public class MetricsConfigTest {
+
+    @Autowired
+    private TokenService tokenService;
+
+    @Autowired
+    private MeterRegistry registry;
+
+    /**
+     * Test case to validate that service calls are timed by method with percentiles, and their meters' binding isn't
+     */
+    @Test
+    public void testServiceTimers() {
+        assertFalse(tokenService.validateToken("not a token", "doctor"));
+        assertFalse(tokenService.validateToken("not a token", "patient"));
+
+        final Timer timer = registry.get(MetricsConfig.SERVICE_TIMER)
+                .tag("class", TokenService.class.getName())
+                .tag("method", "validateToken")
+                .timer();
+        assertEquals(2, timer.count());
+        assertEquals(3, timer.takeSnapshot().percentileValues().length);
+        assertNull(registry.find(MetricsConfig.SERVICE_TIMER).tag("method", "bindTo").timer());
+    }
+
+    /**
+     * Test case to validate that cache sizes and queue lengths are registered
+     */
+    @Test
+    public void testGauges() {
+        for (String cache : new String[]{"verified-tokens", "prescriptions", "patient-names"}) {
+            assertNotNull(registry.find("cache.size").tag("cache", cache).gauge(), cache);
+        }
+        assertEquals(0, registry.get("appointment.status.pending").gauge().value());
+        assertEquals(0, registry.get("password.hash.queued").gauge().value());
+        assertNotNull(registry.find("hikaricp.connections.active").gauge());
+    }
+}
@@ -0,0 +1,112 @@
+package com.project.back_end.config;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Two embedded H2 databases stand in for the primary and the replica, each knowing its own name.
+ */
+public class ReadReplicaDataSourceTest {
+
+    private static final String LAG_QUERY = "SELECT seconds FROM replica_lag";
+
+    private EmbeddedDatabase primary;
+    private EmbeddedDatabase replica;
+
+    @BeforeEach
+    public void setUp() {
+        primary = database("primary");
+        replica = database("replica");
+        new JdbcTemplate(replica).execute("CREATE TABLE replica_lag (seconds BIGINT)");
+        new JdbcTemplate(replica).update("INSERT INTO replica_lag VALUES (0)");
+    }
+
+    @AfterEach
+    public void tearDown() {
+        primary.shutdown();
+        replica.shutdown();
+    }
+
+    /**
+     * Test case to validate that read-only transactions read from the replica and everything else
+     * from the primary
+     */
+    @Test
+    public void testReadOnlyTransactionsUseReplica() {
+        final DataSource dataSource = routing(replica, 5, 0);
+
+        assertEquals("replica", name(dataSource, true));
+        assertEquals("primary", name(dataSource, false));
+        assertEquals("primary", new JdbcTemplate(dataSource).queryForObject("SELECT name FROM server", String.class));
+    }
+
+    /**
+     * Test case to validate that reads go to the primary while the replica lags behind more than the tolerance
+     * or replication is stopped
+     */
+    @Test
+    public void testLaggingReplicaFallsBackToPrimary() {
+        final DataSource dataSource = routing(replica, 5, 0);
+        final JdbcTemplate replicaJdbc = new JdbcTemplate(replica);
+
+        replicaJdbc.update("UPDATE replica_lag SET seconds = 6");
+        assertEquals("primary", name(dataSource, true));
+        replicaJdbc.update("UPDATE replica_lag SET seconds = 5");
+        assertEquals("replica", name(dataSource, true));
+        replicaJdbc.update("UPDATE replica_lag SET seconds = NULL");
+        assertEquals("primary", name(dataSource, true));
+    }
+
+    /**
+     * Test case to validate that reads go to the primary when the replica can't be reached,
+     * and stay there until the next check
+     */
+    @Test
+    public void testUnreachableReplicaFallsBackToPrimary() {
+        final DataSource unreachable = new DriverManagerDataSource("jdbc:h2:tcp://localhost:1/replica", "sa", "");
+        assertEquals("primary", name(routing(unreachable, 5, 0), true));
+
+        final ReadReplicaDataSource dataSource = new ReadReplicaDataSource(primary, replica, 5, LAG_QUERY, 60_000);
+        new JdbcTemplate(replica).update("UPDATE replica_lag SET seconds = 60");
+        assertFalse(dataSource.replicaUsable());
+        new JdbcTemplate(replica).update("UPDATE replica_lag SET seconds = 0");
+        assertFalse(dataSource.replicaUsable());
+    }
+
+    private static EmbeddedDatabase database(String name) {
+        final EmbeddedDatabase database = new EmbeddedDatabaseBuilder()
+                .setType(EmbeddedDatabaseType.H2)
+                .setName(name)
+                .build();
+        final JdbcTemplate jdbcTemplate = new JdbcTemplate(database);
+        jdbcTemplate.execute("CREATE TABLE server (name VARCHAR(10))");
+        jdbcTemplate.update("INSERT INTO server VALUES (?)", name);
+        return database;
+    }
+
+    private DataSource routing(DataSource replica, long maxLagSeconds, long checkIntervalMillis) {
+        return new LazyConnectionDataSourceProxy(new ReadReplicaDataSource(primary, replica, maxLagSeconds, LAG_QUERY,
+                checkIntervalMillis));
+    }
+
+    private static String name(DataSource dataSource, boolean readOnly) {
+        final TransactionTemplate transactionTemplate =
+                new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+        transactionTemplate.setReadOnly(readOnly);
+        return transactionTemplate.execute(status ->
+                new JdbcTemplate(dataSource).queryForObject("SELECT name FROM server", String.class));
+    }
+}
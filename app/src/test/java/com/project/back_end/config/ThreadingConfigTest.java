@@ -0,0 +1,49 @@
+package com.project.back_end.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+import org.springframework.core.task.VirtualThreadTaskExecutor;
+
+import java.util.concurrent.Executor;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ThreadingConfigTest {
+
+    private final ApplicationContextRunner runner = new ApplicationContextRunner()
+            .withUserConfiguration(ThreadingConfig.class);
+
+    /**
+     * Test case to validate that caches load on the calling thread with platform threads
+     */
+    @Test
+    public void testPlatformThreads() {
+        runner.run(context -> {
+            assertNull(context.getStartupFailure());
+            assertFalse(context.getBean(ThreadingConfig.CACHE_LOAD_EXECUTOR, Executor.class)
+                    instanceof VirtualThreadTaskExecutor);
+        });
+    }
+
+    /**
+     * Test case to validate that asking for virtual threads loads caches on virtual threads on Java 21 or later,
+     * and fails the startup on older runtimes
+     */
+    @Test
+    public void testVirtualThreads() {
+        runner.withPropertyValues("spring.threads.virtual.enabled=true").run(context -> {
+            if (Runtime.version().feature() >= 21) {
+                assertNull(context.getStartupFailure());
+                assertInstanceOf(VirtualThreadTaskExecutor.class,
+                        context.getBean(ThreadingConfig.CACHE_LOAD_EXECUTOR, Executor.class));
+            } else {
+                assertNotNull(context.getStartupFailure());
+                Throwable cause = context.getStartupFailure();
+                while (cause.getCause() != null) {
+                    cause = cause.getCause();
+                }
+                assertTrue(cause.getMessage().contains("needs Java 21"), cause.getMessage());
+            }
+        });
+    }
+}
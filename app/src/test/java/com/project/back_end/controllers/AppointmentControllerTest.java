@@ -0,0 +1,135 @@
+package com.project.back_end.controllers;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.project.back_end.DTO.BookingResult;
+import com.project.back_end.DTO.MessageResponse;
+import com.project.back_end.models.Appointment;
+import com.project.back_end.models.Doctor;
+import com.project.back_end.models.Patient;
+import com.project.back_end.services.AppointmentService;
+import com.project.back_end.services.DoctorService;
+import com.project.back_end.services.DoctorSlotIndex;
+import com.project.back_end.services.InvalidTokenException;
+import com.project.back_end.services.Service;
+import com.project.back_end.services.TokenService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+public class AppointmentControllerTest {
+
+    private static final String TOKEN = "token";
+    private static final String BAD_TOKEN = "bad";
+
+    private AppointmentService appointmentService;
+    private Service service;
+    private AppointmentController controller;
+    private MeterRegistry registry;
+    private Appointment appointment;
+
+    @BeforeEach
+    public void setUp() {
+        final TokenService.VerifiedToken verified = new TokenService.VerifiedToken("john.smith@example.com", 1L,
+                Instant.now().plusSeconds(3600));
+        final TokenService tokenService = new TokenService(null, null, null, "0123456789abcdef0123456789abcdef", 1) {
+            @Override
+            public VerifiedToken verify(String token, String user) {
+                return TOKEN.equals(token) ? verified : null;
+            }
+        };
+        final DoctorSlotIndex doctorSlotIndex = new DoctorSlotIndex(null, null) {
+            @Override
+            public int validate(Long doctorId, java.time.LocalDateTime time) {
+                return VALID;
+            }
+        };
+        appointmentService = mock(AppointmentService.class);
+        when(appointmentService.bookAppointment(any())).thenReturn(1);
+        when(appointmentService.bookAppointments(any(), eq(1L))).thenReturn(List.of(
+                BookingResult.booked(7L), BookingResult.booked(8L), BookingResult.SLOT_TAKEN,
+                BookingResult.INVALID_DOCTOR, BookingResult.invalid("Appointment time must be in the future")));
+
+        service = new Service(tokenService, doctorSlotIndex, mock(DoctorService.class), null, null, null);
+        registry = new SimpleMeterRegistry();
+        controller = new AppointmentController(appointmentService, service, null, registry);
+
+        Doctor doctor = new Doctor();
+        doctor.setId(1L);
+        Patient patient = new Patient();
+        patient.setId(1L);
+        appointment = new Appointment(doctor, patient, LocalDate.now().plusDays(1).atTime(9, 0));
+    }
+
+    /**
+     * Test case to validate the responses of booking and the mapping of an invalid token
+     */
+    @Test
+    public void testBookAppointment() {
+        ResponseEntity<MessageResponse> response = controller.bookAppointment(appointment, TOKEN);
+        assertEquals(HttpStatus.CREATED, response.getStatusCode());
+        assertSame(MessageResponse.APPOINTMENT_BOOKED, response.getBody());
+
+        when(appointmentService.bookAppointment(any())).thenReturn(-1);
+        assertSame(MessageResponse.SLOT_TAKEN, controller.bookAppointment(appointment, TOKEN).getBody());
+
+        Patient other = new Patient();
+        other.setId(2L);
+        appointment.setPatient(other);
+        assertEquals(HttpStatus.UNAUTHORIZED, controller.bookAppointment(appointment, TOKEN).getStatusCode());
+
+        assertThrows(InvalidTokenException.class, () -> controller.bookAppointment(appointment, BAD_TOKEN));
+        ResponseEntity<MessageResponse> unauthorized = new ValidationFailed().handleInvalidToken(
+                assertThrows(InvalidTokenException.class, () -> service.requireToken(BAD_TOKEN, "patient")));
+        assertEquals(HttpStatus.UNAUTHORIZED, unauthorized.getStatusCode());
+        assertEquals("Invalid or expired token", unauthorized.getBody().message());
+    }
+
+    /**
+     * Test case to validate that single and batch bookings are counted by outcome
+     */
+    @Test
+    public void testBookingOutcomeCounters() {
+        controller.bookAppointment(appointment, TOKEN);
+        when(appointmentService.bookAppointment(any())).thenReturn(-1);
+        controller.bookAppointment(appointment, TOKEN);
+        when(appointmentService.bookAppointment(any())).thenReturn(0);
+        controller.bookAppointment(appointment, TOKEN);
+        controller.bookAppointments(List.of(appointment), TOKEN);
+
+        assertEquals(3, bookings("booked"));
+        assertEquals(2, bookings("slot_taken"));
+        assertEquals(1, bookings("invalid_doctor"));
+        assertEquals(1, bookings("invalid"));
+        assertEquals(1, bookings("error"));
+    }
+
+    private double bookings(String outcome) {
+        return registry.get("appointment.bookings").tag("outcome", outcome).counter().count();
+    }
+
+    /**
+     * Test case to validate that the typed responses serialize to the same JSON as the former maps
+     */
+    @Test
+    public void testJson() throws Exception {
+        ObjectMapper mapper = new ObjectMapper();
+        assertEquals("{\"message\":\"Appointment Booked Successfully\"}",
+                mapper.writeValueAsString(MessageResponse.APPOINTMENT_BOOKED));
+        assertEquals("{\"results\":[{\"status\":\"201\",\"message\":\"Appointment Booked Successfully\",\"id\":\"7\"},"
+                        + "{\"status\":\"400\",\"message\":\"Invalid doctor id\"}]}",
+                mapper.writeValueAsString(new AppointmentController.BatchBookingResponse(
+                        List.of(BookingResult.booked(7L), BookingResult.INVALID_DOCTOR))));
+    }
+}
@@ -0,0 +1,102 @@
+package com.project.back_end.models;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class AvailableTimesTest {
+
+    private static final List<String> SLOTS = List.of("09:00-10:00", "10:00-11:00", "14:00-15:00", "15:00-16:00");
+
+    /**
+     * Test case to validate conversion between slots, the stored column and the hour bitmask
+     */
+    @Test
+    public void testRoundTrip() {
+        AvailableTimes times = AvailableTimes.of(Set.of("14:00-15:00", "09:00-10:00", "23:00-00:00"));
+        assertEquals("09:00-10:00,14:00-15:00,23:00-00:00", times.format());
+        assertEquals(times, AvailableTimes.parse(times.format()));
+        assertEquals(List.of("09:00-10:00", "14:00-15:00", "23:00-00:00"), new ArrayList<>(times.toSet()));
+        assertEquals((1 << 9) | (1 << 14) | (1 << 23), times.hourMask());
+
+        assertEquals((1 << 14) | (1 << 15), AvailableTimes.of(Set.of("14:00-16:00")).hourMask());
+        assertEquals(Set.of("09:30-10:30"), AvailableTimes.of(Set.of("9:30-10:30")).toSet());
+        assertEquals(AvailableTimes.EMPTY, AvailableTimes.parse(""));
+        assertEquals(0, AvailableTimes.of(null).size());
+    }
+
+    /**
+     * Test case to validate that malformed slots are rejected
+     */
+    @Test
+    public void testInvalidSlots() {
+        for (String slot : List.of("morning", "09:00", "10:00-09:00", "25:00-26:00", "09:60-10:00", "24:00-01:00")) {
+            assertEquals(-1, AvailableTimes.parseSlot(slot), slot);
+            assertThrows(IllegalArgumentException.class, () -> AvailableTimes.of(Set.of(slot)), slot);
+        }
+    }
+
+    /**
+     * Test case to validate that a doctor's available times serialize to the same JSON array of strings
+     */
+    @Test
+    public void testJson() throws Exception {
+        ObjectMapper mapper = new ObjectMapper().findAndRegisterModules();
+        Doctor doctor = new Doctor("Dr. Emily Adams", "dr.adams@example.com", "pass12345", "555-101-2020", "Cardiologist");
+        doctor.setAvailableTimes(new HashSet<>(SLOTS));
+
+        JsonNode json = mapper.readTree(mapper.writeValueAsString(doctor));
+        assertEquals(mapper.valueToTree(SLOTS), json.get("availableTimes"));
+        assertNull(json.get("availableHours"));
+
+        Doctor read = mapper.readValue(mapper.writeValueAsString(doctor), Doctor.class);
+        assertEquals(new HashSet<>(SLOTS), read.getAvailableTimes());
+    }
+
+    /**
+     * Test case to validate that the compact form retains less heap per doctor than the former Set&lt;String&gt;.
+     * The cost of parsing the hour bitmask against reading the precomputed one is measured by AvailableTimesBenchmark.
+     */
+    @Test
+    public void testFootprint() {
+        final int doctors = 50_000;
+
+        final long baseline = usedHeap();
+        final Object[] sets = new Object[doctors];
+        for (int i = 0; i < doctors; i++) {
+            // fresh strings, as read from the join table
+            final Set<String> set = new HashSet<>();
+            for (String slot : SLOTS) {
+                set.add(new String(slot.toCharArray()));
+            }
+            sets[i] = set;
+        }
+        final long setBytes = (usedHeap() - baseline) / doctors;
+
+        final long baseline2 = usedHeap();
+        final Object[] compact = new Object[doctors];
+        for (int i = 0; i < doctors; i++) {
+            compact[i] = AvailableTimes.parse(String.join(",", SLOTS));
+        }
+        final long compactBytes = (usedHeap() - baseline2) / doctors;
+
+        assertEquals(doctors, sets.length);
+        assertEquals(doctors, compact.length);
+        assertTrue(compactBytes < setBytes, "compact " + compactBytes + " B, set " + setBytes + " B");
+    }
+
+    private static long usedHeap() {
+        final Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
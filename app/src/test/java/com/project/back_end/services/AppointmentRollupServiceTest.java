@@ -0,0 +1,143 @@
+package com.project.back_end.services;
+
+import com.project.back_end.models.Appointment;
+import com.project.back_end.models.Doctor;
+import com.project.back_end.models.Patient;
+import com.project.back_end.repo.AppointmentRepository;
+import com.project.back_end.repo.DoctorRepository;
+import com.project.back_end.repo.PatientRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+public class AppointmentRollupServiceTest {
+
+    @Autowired
+    private AppointmentRollupService appointmentRollupService;
+
+    @Autowired
+    private AppointmentService appointmentService;
+
+
+    @Autowired
+    private AppointmentRepository appointmentRepository;
+
+    @Autowired
+    private DoctorRepository doctorRepository;
+
+    @Autowired
+    private PatientRepository patientRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Doctor adams;
+    private Doctor brown;
+    private Patient patient;
+    private LocalDate month;
+
+    @BeforeEach
+    public void setUp() {
+        adams = new Doctor("Dr. Emily Adams", "dr.adams@example.com", "pass12345", "555-101-2020", "Cardiologist");
+        adams.setAvailableTimes(Set.of("09:00-10:00", "10:00-11:00"));
+        brown = new Doctor("Dr. Mark Brown", "dr.brown@example.com", "pass12345", "555-101-2021", "Neurologist");
+        brown.setAvailableTimes(Set.of("09:00-10:00", "10:00-11:00"));
+        doctorRepository.saveAll(List.of(adams, brown));
+        patient = patientRepository.save(new Patient("John Smith", "john.smith@example.com", "smithSecure",
+                "888-111-1111", "1 Main St"));
+        // first day of next month, so all appointments of a test fall into the same future month
+        month = LocalDate.now().plusMonths(1).withDayOfMonth(1);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        appointmentRepository.deleteAll();
+        patientRepository.deleteAll();
+        doctorRepository.deleteAll();
+    }
+
+    /**
+     * Test case to validate that booking, batch booking, rescheduling and cancelling keep the counts
+     * equal to a rebuild from the appointment table
+     */
+    @Test
+    public void testIncrementalCountsMatchRebuild() {
+        final LocalDateTime first = month.atTime(9, 0);
+        assertEquals(1, appointmentService.bookAppointment(new Appointment(adams, patient, first)));
+        assertEquals(-1, appointmentService.bookAppointment(new Appointment(adams, patient, first)));
+
+        final List<Appointment> batch = new ArrayList<>();
+        for (int day = 1; day <= 3; day++) {
+            batch.add(new Appointment(brown, patient, month.plusDays(day).atTime(9, 0)));
+            batch.add(new Appointment(brown, patient, month.plusDays(day).atTime(10, 0)));
+        }
+        batch.add(new Appointment(adams, patient, month.plusMonths(1).atTime(10, 0)));
+        appointmentService.bookAppointments(batch, patient.getId());
+
+        assertEquals(Map.of("doctorId", brown.getId(), "patients_seen", 6L),
+                appointmentRollupService.topDoctorByMonth(month.getYear(), month.getMonthValue()));
+
+        // move one of Brown's appointments to Adams in the following month, then cancel one of Brown's
+        final Appointment moved = batch.get(0);
+        moved.setDoctor(adams);
+        moved.setAppointmentTime(month.plusMonths(1).atTime(9, 0));
+        assertEquals(HttpStatus.OK, appointmentService.updateAppointment(moved, patient.getId()).getStatusCode());
+        assertEquals(HttpStatus.OK, appointmentService.cancelAppointment(batch.get(1).getId(), patient.getId())
+                .getStatusCode());
+
+        assertEquals(4L, appointmentRollupService.topDoctorByMonth(month.getYear(), month.getMonthValue())
+                .get("patients_seen"));
+        assertEquals(Map.of("doctorId", adams.getId(), "patients_seen", 2L), appointmentRollupService
+                .topDoctorByMonth(month.plusMonths(1).getYear(), month.plusMonths(1).getMonthValue()));
+
+        final List<Map<String, Object>> incremental = counts();
+        appointmentRollupService.rebuild();
+        assertEquals(counts(), incremental);
+        assertTrue(appointmentRollupService.topDoctorByMonth(2000, 1).isEmpty());
+    }
+
+    /**
+     * Test case to validate the yearly counts and that a doctor's counts are deleted with the doctor
+     */
+    @Test
+    public void testTopDoctorByYear() {
+        final LocalDateTime start = LocalDate.now().plusYears(1).withDayOfYear(1).atTime(9, 0);
+        final List<Appointment> appointments = new ArrayList<>();
+        for (int m = 0; m < 3; m++) {
+            appointments.add(new Appointment(adams, patient, start.plusMonths(m)));
+        }
+        appointments.add(new Appointment(brown, patient, start));
+        appointments.add(new Appointment(brown, patient, start.plusYears(1)));
+        appointmentService.bookAppointments(appointments, patient.getId());
+
+        assertEquals(Map.of("doctorId", adams.getId(), "patients_seen", 3L),
+                appointmentRollupService.topDoctorByYear(start.getYear()));
+        assertEquals(Map.of("doctorId", brown.getId(), "patients_seen", 1L),
+                appointmentRollupService.topDoctorByYear(start.getYear() + 1));
+
+        appointmentRepository.deleteAllByDoctorId(adams.getId());
+        doctorRepository.deleteById(adams.getId());
+        assertEquals(0, jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM doctor_appointment_count WHERE doctor_id = ?", Integer.class, adams.getId()));
+    }
+
+    private List<Map<String, Object>> counts() {
+        return jdbcTemplate.queryForList("SELECT doctor_id, rollup_year, rollup_month, appointment_count "
+                + "FROM doctor_appointment_count WHERE appointment_count <> 0 "
+                + "ORDER BY doctor_id, rollup_year, rollup_month");
+    }
+}
@@ -0,0 +1,396 @@
+package com.project.back_end.services;
+
+import com.project.back_end.DTO.AppointmentCursor;
+import com.project.back_end.DTO.AppointmentDTO;
+import com.project.back_end.DTO.BookingResult;
+import com.project.back_end.models.Appointment;
+import com.project.back_end.models.Doctor;
+import com.project.back_end.models.Patient;
+import com.project.back_end.repo.AppointmentRepository;
+import com.project.back_end.repo.DoctorRepository;
+import com.project.back_end.repo.PatientRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpStatus;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+public class AppointmentServiceTest {
+
+    private static final int THREADS = 64;
+    private static final int BOOKINGS = 500;
+
+    @Autowired
+    private AppointmentService appointmentService;
+
+    @Autowired
+    private AppointmentRepository appointmentRepository;
+
+    @Autowired
+    private DoctorRepository doctorRepository;
+
+    @Autowired
+    private PatientRepository patientRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private TokenService tokenService;
+
+    @Autowired
+    private PatientNameIndex patientNameIndex;
+
+    private Doctor doctor;
+    private Patient patient;
+
+    @BeforeEach
+    public void setUp() {
+        doctor = new Doctor("Dr. Emily Adams", "dr.adams@example.com", "pass12345", "555-101-2020", "Cardiologist");
+        doctor.setAvailableTimes(Set.of("09:00-10:00", "10:00-11:00"));
+        doctor = doctorRepository.save(doctor);
+        patient = patientRepository.save(new Patient("John Smith", "john.smith@example.com", "smithSecure",
+                "888-111-1111", "1 Main St"));
+    }
+
+    @AfterEach
+    public void tearDown() {
+        appointmentRepository.deleteAll();
+        patientRepository.deleteAll();
+        doctorRepository.deleteAll();
+    }
+
+    /**
+     * Test case to validate that booking a slot twice is rejected by the unique (doctor, time) key
+     */
+    @Test
+    public void testBookSameSlotTwice() {
+        final LocalDateTime time = LocalDate.now().plusDays(1).atTime(9, 0);
+
+        assertEquals(1, appointmentService.bookAppointment(new Appointment(doctor, patient, time)));
+        assertEquals(-1, appointmentService.bookAppointment(new Appointment(doctor, patient, time)));
+        assertEquals(1, appointmentRepository.count());
+    }
+
+    /**
+     * Test case to validate per-item results of a batch booking
+     */
+    @Test
+    public void testBookAppointmentsResults() {
+        final LocalDate tomorrow = LocalDate.now().plusDays(1);
+        appointmentService.bookAppointment(new Appointment(doctor, patient, tomorrow.atTime(10, 0)));
+
+        Doctor unknown = new Doctor();
+        unknown.setId(-1L);
+        Appointment noPatient = new Appointment();
+        noPatient.setDoctor(doctor);
+        noPatient.setAppointmentTime(tomorrow.atTime(9, 0));
+        Patient stranger = new Patient();
+        stranger.setId(-1L);
+
+        final List<BookingResult> results = appointmentService.bookAppointments(List.of(
+                new Appointment(doctor, patient, tomorrow.atTime(9, 0)),
+                new Appointment(doctor, patient, tomorrow.atTime(9, 0)),
+                new Appointment(doctor, patient, tomorrow.atTime(10, 0)),
+                new Appointment(doctor, patient, tomorrow.atTime(12, 0)),
+                new Appointment(unknown, patient, tomorrow.atTime(9, 0)),
+                noPatient,
+                new Appointment(doctor, stranger, tomorrow.atTime(14, 0))), patient.getId());
+
+        assertEquals(7, results.size());
+        assertEquals("201", results.get(0).status());
+        assertNotNull(results.get(0).id());
+        assertEquals("400", results.get(1).status());
+        assertEquals("400", results.get(2).status());
+        assertEquals("400", results.get(3).status());
+        assertEquals("Invalid doctor id", results.get(4).message());
+        assertEquals("400", results.get(5).status());
+        assertEquals("401", results.get(6).status());
+        assertEquals(2, appointmentRepository.count());
+    }
+
+    /**
+     * Test case to validate that a batch booking is inserted with JDBC batches instead of one statement per row
+     */
+    @Test
+    public void testBookAppointmentsIsBatched() {
+        final int count = 200;
+        final LocalDate tomorrow = LocalDate.now().plusDays(1);
+        final List<Appointment> appointments = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            appointments.add(new Appointment(doctor, patient, tomorrow.plusDays(i).atTime(9, 0)));
+        }
+
+        final Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        final List<BookingResult> results = appointmentService.bookAppointments(appointments, patient.getId());
+
+        assertTrue(results.stream().allMatch(result -> "201".equals(result.status())));
+        assertEquals(count, appointmentRepository.count());
+        assertEquals(count, statistics.getEntityInsertCount());
+        assertTrue(statistics.getPrepareStatementCount() < count / 10,
+                "expected batched inserts, got " + statistics.getPrepareStatementCount() + " statements");
+    }
+
+    /**
+     * Test case to validate that following the cursors pages through a doctor's day in order, one query per page
+     */
+    @Test
+    public void testKeysetPagination() {
+        final Patient jane = patientRepository.save(new Patient("Jane Doe", "jane.doe@example.com", "doeSecure",
+                "888-222-2222", "2 Main St"));
+        final Doctor other = new Doctor("Dr. Mark Johnson", "dr.johnson@example.com", "pass12345", "555-202-3030",
+                "Neurologist");
+        other.setAvailableTimes(Set.of("09:00-10:00"));
+        doctorRepository.save(other);
+        final LocalDate tomorrow = LocalDate.now().plusDays(1);
+        final List<Appointment> appointments = new ArrayList<>();
+        for (int hour = 17; hour >= 8; hour--) {
+            appointments.add(new Appointment(doctor, hour % 2 == 0 ? patient : jane, tomorrow.atTime(hour, 0)));
+            appointments.add(new Appointment(other, patient, tomorrow.atTime(hour, 0)));
+        }
+        appointments.add(new Appointment(doctor, patient, tomorrow.plusDays(1).atTime(8, 0)));
+        appointmentRepository.saveAll(appointments);
+        final String token = tokenService.generateToken(doctor.getEmail());
+        assertTrue(tokenService.validateToken(token, "doctor"));
+
+        final Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        final List<LocalDateTime> times = new ArrayList<>();
+        AppointmentCursor cursor = null;
+        int pages = 0;
+        do {
+            statistics.clear();
+            final Map<String, Object> page = appointmentService.getAppointment("null", tomorrow, token, cursor, 3);
+            assertEquals(1, statistics.getPrepareStatementCount());
+            for (AppointmentDTO appointment : appointmentsOf(page)) {
+                assertEquals(doctor.getId(), appointment.getDoctorId());
+                times.add(appointment.getAppointmentTime());
+            }
+            cursor = page.get("nextCursor") == null ? null : AppointmentCursor.decode((String) page.get("nextCursor"));
+            pages++;
+        } while (cursor != null);
+
+        assertEquals(4, pages);
+        assertEquals(10, times.size());
+        for (int i = 0; i < times.size(); i++) {
+            assertEquals(tomorrow.atTime(8 + i, 0), times.get(i));
+        }
+
+        final List<AppointmentDTO> janes = appointmentsOf(appointmentService.getAppointment(" JANE ", tomorrow, token));
+        assertEquals(5, janes.size());
+        assertTrue(janes.stream().allMatch(appointment -> appointment.getPatientId().equals(jane.getId())));
+        assertTrue(appointmentService.getAppointment("null", tomorrow, "bad").containsKey("message"));
+        assertNull(AppointmentCursor.decode("not a cursor"));
+    }
+
+    /**
+     * Test case to validate that rescheduling with another doctor drops the patient from the previous doctor's search
+     */
+    @Test
+    public void testRescheduleToOtherDoctor() {
+        final Doctor other = new Doctor("Dr. Mark Johnson", "dr.johnson@example.com", "pass12345", "555-202-3030",
+                "Neurologist");
+        other.setAvailableTimes(Set.of("09:00-10:00"));
+        doctorRepository.save(other);
+        final LocalDate tomorrow = LocalDate.now().plusDays(1);
+        final Appointment booked = appointmentRepository.save(new Appointment(doctor, patient, tomorrow.atTime(9, 0)));
+        final String token = tokenService.generateToken(doctor.getEmail());
+        final String otherToken = tokenService.generateToken(other.getEmail());
+        assertEquals(1, appointmentsOf(appointmentService.getAppointment("john", tomorrow, token)).size());
+        assertEquals(0, appointmentsOf(appointmentService.getAppointment("john", tomorrow, otherToken)).size());
+
+        final Appointment rescheduled = new Appointment(other, patient, tomorrow.atTime(9, 0));
+        rescheduled.setId(booked.getId());
+        assertEquals(HttpStatus.OK, appointmentService.updateAppointment(rescheduled, patient.getId()).getStatusCode());
+
+        assertEquals(0, patientNameIndex.search(doctor.getId(), "john").length);
+        assertEquals(0, appointmentsOf(appointmentService.getAppointment("john", tomorrow, token)).size());
+        assertEquals(1, appointmentsOf(appointmentService.getAppointment("john", tomorrow, otherToken)).size());
+    }
+
+    /**
+     * Test case to validate that a name matching more than MAX_PATIENT_IDS patients is paged in id order,
+     * matching like the patient name index, i.e. ignoring accents
+     */
+    @Test
+    public void testNameMatchingManyPatients() {
+        final LocalDateTime start = LocalDate.now().plusDays(1).atStartOfDay();
+        final int count = AppointmentService.MAX_PATIENT_IDS + 10;
+        final List<Patient> patients = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            patients.add(new Patient("Ana Núñez " + i, "ana" + i + "@example.com", "secret123",
+                    "888-444-" + (1000 + i), i + " Oak St"));
+        }
+        patientRepository.saveAll(patients);
+        final List<Appointment> appointments = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            // later patients first, so the page order differs from the patients' id order
+            appointments.add(new Appointment(doctor, patients.get(count - 1 - i), start.plusMinutes(i)));
+        }
+        appointmentRepository.saveAll(appointments);
+        final String token = tokenService.generateToken(doctor.getEmail());
+
+        final List<LocalDateTime> times = new ArrayList<>();
+        AppointmentCursor cursor = null;
+        do {
+            final Map<String, Object> page = appointmentService.getAppointment("nunez", start.toLocalDate(), token,
+                    cursor, AppointmentService.MAX_PAGE_SIZE);
+            appointmentsOf(page).forEach(appointment -> times.add(appointment.getAppointmentTime()));
+            cursor = page.get("nextCursor") == null ? null : AppointmentCursor.decode((String) page.get("nextCursor"));
+        } while (cursor != null);
+        assertEquals(count, times.size());
+        for (int i = 0; i < count; i++) {
+            assertEquals(start.plusMinutes(i), times.get(i));
+        }
+    }
+
+    /**
+     * Test case to validate paging and streaming a patient's history, appointments at the same time ordered by id
+     */
+    @Test
+    public void testPatientHistory() {
+        final Doctor other = new Doctor("Dr. Mark Johnson", "dr.johnson@example.com", "pass12345", "555-202-3030",
+                "Neurologist");
+        other.setAvailableTimes(Set.of("09:00-10:00"));
+        doctorRepository.save(other);
+        final List<Appointment> appointments = new ArrayList<>();
+        for (int day = 1; day <= 30; day++) {
+            appointments.add(new Appointment(doctor, patient, LocalDate.now().plusDays(day).atTime(9, 0)));
+            appointments.add(new Appointment(other, patient, LocalDate.now().plusDays(day).atTime(9, 0)));
+        }
+        appointmentRepository.saveAll(appointments);
+        final List<Long> expected = appointments.stream()
+                .sorted(java.util.Comparator.comparing(Appointment::getAppointmentTime).thenComparing(Appointment::getId))
+                .map(Appointment::getId)
+                .toList();
+
+        final List<Long> paged = new ArrayList<>();
+        AppointmentCursor cursor = null;
+        do {
+            final Map<String, Object> page = appointmentService.getPatientAppointments(patient.getId(), cursor, 7);
+            appointmentsOf(page).forEach(appointment -> paged.add(appointment.getId()));
+            cursor = page.get("nextCursor") == null ? null : AppointmentCursor.decode((String) page.get("nextCursor"));
+        } while (cursor != null);
+        assertEquals(expected, paged);
+
+        final List<Long> streamed = new ArrayList<>();
+        assertEquals(60, appointmentService.forEachPatientAppointment(patient.getId(),
+                appointment -> streamed.add(appointment.getId())));
+        assertEquals(expected, streamed);
+        assertEquals(1, appointmentService.forEachDoctorAppointment(other.getId(),
+                LocalDate.now().plusDays(1).atStartOfDay(), LocalDate.now().plusDays(2).atStartOfDay(), appointment -> { }));
+    }
+
+    /**
+     * Test case to validate that an appointment list takes one statement and loads no entity however many
+     * appointments and distinct patients it has, and that the streams load the doctor and patient with
+     * the appointments
+     */
+    @Test
+    public void testStatementsIndependentOfRowCount() {
+        final LocalDate tomorrow = LocalDate.now().plusDays(1);
+        final String token = tokenService.generateToken(doctor.getEmail());
+        assertTrue(tokenService.validateToken(token, "doctor"));
+        final Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        final List<Appointment> appointments = new ArrayList<>();
+        for (int rows : new int[]{1, 40}) {
+            while (appointments.size() < rows) {
+                final int i = appointments.size();
+                final Patient other = patientRepository.save(new Patient("Patient " + i, "patient" + i + "@example.com",
+                        "secret123", "888-333-" + (1000 + i), i + " Elm St"));
+                appointments.add(appointmentRepository.save(new Appointment(doctor, other,
+                        tomorrow.atTime(8, 0).plusMinutes(10L * i))));
+            }
+            entityManagerFactory.getCache().evictAll();
+            statistics.clear();
+            final List<AppointmentDTO> page = appointmentsOf(appointmentService.getAppointment("null", tomorrow, token,
+                    null, AppointmentService.MAX_PAGE_SIZE));
+            assertEquals(rows, page.size());
+            assertEquals(1, statistics.getPrepareStatementCount());
+            assertEquals(0, statistics.getEntityLoadCount());
+            assertEquals("Patient 0", page.get(0).getPatientName());
+            assertEquals("Dr. Emily Adams", page.get(0).getDoctorName());
+        }
+
+        statistics.clear();
+        final List<String> names = new ArrayList<>();
+        assertEquals(40, appointmentService.forEachDoctorAppointment(doctor.getId(), tomorrow.atStartOfDay(),
+                tomorrow.plusDays(1).atStartOfDay(), appointment -> names.add(appointment.getPatient().getName())));
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertEquals("Patient 39", names.get(39));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static List<AppointmentDTO> appointmentsOf(Map<String, Object> page) {
+        return (List<AppointmentDTO>) page.get("appointments");
+    }
+
+    /**
+     * Test case to validate that exactly one of concurrent bookings of one slot succeeds
+     */
+    @Test
+    public void testConcurrentBookingsOfOneSlot() throws Exception {
+        final LocalDateTime time = LocalDate.now().plusDays(1).atTime(10, 0);
+
+        final List<Integer> results = bookConcurrently(i -> time);
+
+        assertEquals(1, results.stream().filter(res -> res == 1).count());
+        assertEquals(BOOKINGS - 1, results.stream().filter(res -> res == -1).count());
+        assertEquals(1, appointmentRepository.count());
+    }
+
+    /**
+     * Test case to validate that concurrent bookings of distinct slots all succeed
+     */
+    @Test
+    public void testConcurrentBookingsOfDistinctSlots() throws Exception {
+        final LocalDate tomorrow = LocalDate.now().plusDays(1);
+
+        final List<Integer> results = bookConcurrently(i -> tomorrow.plusDays(i).atTime(9, 0));
+
+        assertTrue(results.stream().allMatch(res -> res == 1));
+        assertEquals(BOOKINGS, appointmentRepository.count());
+    }
+
+    private List<Integer> bookConcurrently(java.util.function.IntFunction<LocalDateTime> time) throws Exception {
+        final ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            final CountDownLatch ready = new CountDownLatch(1);
+            final List<Future<Integer>> futures = new ArrayList<>();
+            for (int i = 0; i < BOOKINGS; i++) {
+                final Appointment appointment = new Appointment(doctor, patient, time.apply(i));
+                futures.add(executor.submit(() -> {
+                    ready.await();
+                    return appointmentService.bookAppointment(appointment);
+                }));
+            }
+            ready.countDown();
+            final List<Integer> results = new ArrayList<>();
+            for (Future<Integer> future : futures) {
+                results.add(future.get());
+            }
+            return results;
+        } finally {
+            executor.shutdown();
+        }
+    }
+}
@@ -0,0 +1,257 @@
+package com.project.back_end.services;
+
+import com.project.back_end.DTO.AppointmentDTO;
+import com.project.back_end.models.Appointment;
+import com.project.back_end.models.Doctor;
+import com.project.back_end.models.Patient;
+import com.project.back_end.repo.AppointmentRepository;
+import com.project.back_end.repo.DoctorRepository;
+import com.project.back_end.repo.PatientRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.CannotGetJdbcConnectionException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@SpringBootTest
+public class AppointmentStatusWriterTest {
+
+    private static final long HOUR_MILLIS = 3_600_000;
+
+    @Autowired
+    private AppointmentService appointmentService;
+
+    @Autowired
+    private TokenService tokenService;
+
+    @Autowired
+    private AppointmentRepository appointmentRepository;
+
+    @Autowired
+    private DoctorRepository doctorRepository;
+
+    @Autowired
+    private PatientRepository patientRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private Doctor doctor;
+    private Appointment first;
+    private Appointment second;
+
+    @BeforeEach
+    public void setUp() {
+        doctor = new Doctor("Dr. Emily Adams", "dr.adams@example.com", "pass12345", "555-101-2020", "Cardiologist");
+        doctor.setAvailableTimes(Set.of("09:00-10:00", "10:00-11:00"));
+        doctor = doctorRepository.save(doctor);
+        final Patient patient = patientRepository.save(new Patient("John Smith", "john.smith@example.com",
+                "smithSecure", "888-111-1111", "1 Main St"));
+        final LocalDate day = LocalDate.now().plusDays(1);
+        first = appointmentRepository.save(new Appointment(doctor, patient, day.atTime(9, 0)));
+        second = appointmentRepository.save(new Appointment(doctor, patient, day.atTime(10, 0)));
+    }
+
+    @AfterEach
+    public void tearDown() {
+        appointmentRepository.deleteAll();
+        patientRepository.deleteAll();
+        doctorRepository.deleteAll();
+    }
+
+    /**
+     * Test case to validate that changes are coalesced per appointment, visible before they're written
+     * and written with one batch on flush
+     */
+    @Test
+    public void testChangesCoalescedUntilFlush() {
+        final AppointmentStatusWriter writer = new AppointmentStatusWriter(jdbcTemplate, transactionTemplate,
+                HOUR_MILLIS, 100, 1000);
+        writer.start();
+        try {
+            writer.submit(first.getId(), 1);
+            writer.submit(first.getId(), 0);
+            writer.submit(first.getId(), 1);
+            writer.submit(second.getId(), 1);
+
+            assertEquals(1, writer.pendingStatus(first.getId()));
+            assertEquals(0, status(first));
+            assertEquals(2, writer.flush());
+            assertEquals(1, status(first));
+            assertEquals(1, status(second));
+            assertNull(writer.pendingStatus(first.getId()));
+            assertEquals(0, writer.flush());
+        } finally {
+            writer.stop();
+        }
+    }
+
+    /**
+     * Test case to validate that reaching the batch size flushes in the background,
+     * stopping drains the buffer and a stopped writer writes right away
+     */
+    @Test
+    public void testBatchSizeAndShutdownFlush() throws InterruptedException {
+        final AppointmentStatusWriter writer = new AppointmentStatusWriter(jdbcTemplate, transactionTemplate,
+                HOUR_MILLIS, 2, 1000);
+        writer.start();
+        writer.submit(first.getId(), 1);
+        writer.submit(second.getId(), 1);
+        for (int i = 0; i < 100 && (status(first) != 1 || status(second) != 1); i++) {
+            Thread.sleep(50);
+        }
+        assertEquals(1, status(first));
+        assertEquals(1, status(second));
+
+        writer.submit(first.getId(), 0);
+        assertEquals(1, status(first));
+        writer.stop();
+        assertFalse(writer.isRunning());
+        assertEquals(0, status(first));
+
+        writer.submit(second.getId(), 0);
+        assertEquals(0, status(second));
+    }
+
+    /**
+     * Test case to validate that a full buffer rejects new changes without queueing them while it can't be flushed,
+     * and accepts them again once the database is back
+     */
+    @Test
+    public void testFullBufferRejectsWhileDatabaseDown() {
+        final TransactionTemplate failing = spy(transactionTemplate);
+        doThrow(new CannotGetJdbcConnectionException("database down")).when(failing).executeWithoutResult(any());
+        final AppointmentStatusWriter writer = new AppointmentStatusWriter(jdbcTemplate, failing,
+                HOUR_MILLIS, 100, 1);
+        writer.start();
+        try {
+            assertTrue(writer.submit(first.getId(), 1));
+            assertFalse(writer.submit(second.getId(), 1));
+            assertNull(writer.pendingStatus(second.getId()));
+            assertTrue(writer.submit(first.getId(), 0));
+            assertTrue(writer.submit(first.getId(), 1));
+
+            doCallRealMethod().when(failing).executeWithoutResult(any());
+            assertTrue(writer.submit(second.getId(), 1));
+            assertEquals(1, status(first));
+            assertEquals(1, writer.pendingStatus(second.getId()));
+        } finally {
+            writer.stop();
+        }
+        assertEquals(1, status(second));
+    }
+
+    /**
+     * Test case to validate that concurrent callers can't queue more than max-pending changes
+     */
+    @Test
+    public void testBoundHoldsUnderConcurrentSubmits() throws Exception {
+        final TransactionTemplate failing = spy(transactionTemplate);
+        doThrow(new CannotGetJdbcConnectionException("database down")).when(failing).executeWithoutResult(any());
+        final AppointmentStatusWriter writer = new AppointmentStatusWriter(jdbcTemplate, failing,
+                HOUR_MILLIS, 100, 4);
+        final ExecutorService pool = Executors.newFixedThreadPool(8);
+        writer.start();
+        try {
+            final CountDownLatch go = new CountDownLatch(1);
+            final List<Future<Boolean>> results = new ArrayList<>();
+            for (long id = 1000; id < 1064; id++) {
+                final long appointmentId = id;
+                results.add(pool.submit(() -> {
+                    go.await();
+                    return writer.submit(appointmentId, 1);
+                }));
+            }
+            go.countDown();
+            int accepted = 0;
+            for (Future<Boolean> result : results) {
+                accepted += result.get() ? 1 : 0;
+            }
+            int pending = 0;
+            for (long id = 1000; id < 1064; id++) {
+                pending += writer.pendingStatus(id) != null ? 1 : 0;
+            }
+            assertEquals(4, accepted);
+            assertEquals(4, pending);
+        } finally {
+            pool.shutdown();
+            doCallRealMethod().when(failing).executeWithoutResult(any());
+            writer.stop();
+        }
+    }
+
+    /**
+     * Test case to validate that a change accepted while the writer stops is written, either by the final flush
+     * or right away
+     */
+    @Test
+    public void testNoChangeLostWhileStopping() throws Exception {
+        for (int round = 0; round < 20; round++) {
+            final AppointmentStatusWriter writer = new AppointmentStatusWriter(jdbcTemplate, transactionTemplate,
+                    HOUR_MILLIS, 1000, 1000);
+            writer.start();
+            final int[] last = {-1};
+            final CountDownLatch submitting = new CountDownLatch(1);
+            final Thread submitter = new Thread(() -> {
+                int status = 0;
+                while (writer.isRunning()) {
+                    status ^= 1;
+                    assertTrue(writer.submit(first.getId(), status));
+                    last[0] = status;
+                    submitting.countDown();
+                }
+            });
+            submitter.start();
+            submitting.await();
+            writer.stop();
+            submitter.join();
+            assertEquals(last[0], status(first), "round " + round);
+        }
+    }
+
+    /**
+     * Test case to validate that a doctor's status change shows in the doctor's list right away
+     * and that other doctors' appointments can't be changed
+     */
+    @Test
+    public void testChangeStatusVisibleInList() {
+        assertEquals(HttpStatus.ACCEPTED, appointmentService.changeStatus(first.getId(), 1, doctor.getId())
+                .getStatusCode());
+        final String token = tokenService.generateToken(doctor.getEmail());
+        final Map<String, Object> page = appointmentService.getAppointment("null", LocalDate.now().plusDays(1), token);
+        final List<?> appointments = (List<?>) page.get("appointments");
+        assertEquals(1, ((AppointmentDTO) appointments.get(0)).getStatus());
+        assertEquals(0, ((AppointmentDTO) appointments.get(1)).getStatus());
+
+        assertEquals(HttpStatus.BAD_REQUEST, appointmentService.changeStatus(first.getId(), 1, doctor.getId() + 1)
+                .getStatusCode());
+        assertEquals(HttpStatus.BAD_REQUEST, appointmentService.changeStatus(first.getId(), 2, doctor.getId())
+                .getStatusCode());
+    }
+
+    private int status(Appointment appointment) {
+        return jdbcTemplate.queryForObject("SELECT status FROM appointment WHERE id = ?", Integer.class,
+                appointment.getId());
+    }
+}
@@ -0,0 +1,189 @@
+package com.project.back_end.services;
+
+import com.project.back_end.models.Appointment;
+import com.project.back_end.models.Doctor;
+import com.project.back_end.models.Patient;
+import com.project.back_end.repo.AppointmentRepository;
+import com.project.back_end.repo.DoctorAvailabilityRepository;
+import com.project.back_end.repo.DoctorRepository;
+import com.project.back_end.repo.PatientRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+public class DoctorAvailabilityServiceTest {
+
+    private static final LocalDate TOMORROW = LocalDate.now().plusDays(1);
+
+    @Autowired
+    private DoctorService doctorService;
+
+    @Autowired
+    private AppointmentService appointmentService;
+
+
+    @Autowired
+    private DoctorAvailabilityRepository availabilityRepository;
+
+    @Autowired
+    private AppointmentRepository appointmentRepository;
+
+    @Autowired
+    private DoctorRepository doctorRepository;
+
+    @Autowired
+    private PatientRepository patientRepository;
+
+    @Autowired
+    private DoctorAvailabilityService doctorAvailabilityService;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Doctor doctor;
+    private Patient patient;
+
+    @BeforeEach
+    public void setUp() {
+        doctor = new Doctor("Dr. Mark Johnson", "dr.johnson@example.com", "secure4567", "555-202-3030", "Neurologist");
+        doctor.setAvailableTimes(Set.of("09:00-10:00", "10:00-11:00", "14:00-15:00"));
+        doctor = doctorRepository.save(doctor);
+        patient = patientRepository.save(new Patient("Emily Rose", "emily.rose@example.com", "emilyPass99",
+                "888-222-2222", "2 Oak St"));
+    }
+
+    @AfterEach
+    public void tearDown() {
+        availabilityRepository.deleteAll();
+        appointmentRepository.deleteAll();
+        patientRepository.deleteAll();
+        doctorRepository.deleteAll();
+    }
+
+    /**
+     * Test case to validate that a date is materialized from available times minus existing appointments
+     */
+    @Test
+    public void testMaterializesDate() {
+        appointmentRepository.save(new Appointment(doctor, patient, TOMORROW.atTime(10, 0)));
+
+        assertEquals(List.of("09:00-10:00", "14:00-15:00"), doctorService.getDoctorAvailability(doctor.getId(), TOMORROW));
+        assertEquals(3, availabilityRepository.count());
+    }
+
+    /**
+     * Test case to validate that book, reschedule and cancel keep the calendar current
+     */
+    @Test
+    public void testBookRescheduleAndCancel() {
+        assertEquals(3, doctorService.getDoctorAvailability(doctor.getId(), TOMORROW).size());
+
+        final Appointment appointment = new Appointment(doctor, patient, TOMORROW.atTime(9, 0));
+        assertEquals(1, appointmentService.bookAppointment(appointment));
+        assertEquals(List.of("10:00-11:00", "14:00-15:00"), doctorService.getDoctorAvailability(doctor.getId(), TOMORROW));
+
+        final Appointment moved = new Appointment(doctor, patient, TOMORROW.atTime(14, 0));
+        moved.setId(appointment.getId());
+        assertTrue(appointmentService.updateAppointment(moved, patient.getId()).getStatusCode().is2xxSuccessful());
+        assertEquals(List.of("09:00-10:00", "10:00-11:00"), doctorService.getDoctorAvailability(doctor.getId(), TOMORROW));
+
+        assertTrue(appointmentService.cancelAppointment(appointment.getId(), patient.getId()).getStatusCode().is2xxSuccessful());
+        assertEquals(3, doctorService.getDoctorAvailability(doctor.getId(), TOMORROW).size());
+    }
+
+    /**
+     * Test case to validate that a booking still in progress while its date is materialized
+     * on another thread ends up booked in the calendar
+     */
+    @Test
+    public void testBookingRacesMaterialization() {
+        final Appointment appointment = new Appointment(doctor, patient, TOMORROW.atTime(9, 0));
+        final ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                appointmentRepository.saveAndFlush(appointment);
+                doctorAvailabilityService.book(doctor.getId(), appointment.getAppointmentTime());
+                // the date isn't materialized yet and the materialization doesn't see this booking
+                assertEquals(3, materializeConcurrently(executor).size());
+            });
+        } finally {
+            executor.shutdown();
+        }
+        assertEquals(List.of("10:00-11:00", "14:00-15:00"), doctorService.getDoctorAvailability(doctor.getId(), TOMORROW));
+    }
+
+    /**
+     * Test case to validate that a cancellation still in progress while its date is materialized
+     * on another thread ends up free in the calendar
+     */
+    @Test
+    public void testCancellationRacesMaterialization() {
+        final Appointment appointment = appointmentRepository.save(new Appointment(doctor, patient, TOMORROW.atTime(9, 0)));
+        final ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                appointmentRepository.deleteById(appointment.getId());
+                appointmentRepository.flush();
+                doctorAvailabilityService.release(doctor.getId(), appointment.getAppointmentTime());
+                assertEquals(2, materializeConcurrently(executor).size());
+            });
+        } finally {
+            executor.shutdown();
+        }
+        assertEquals(3, doctorService.getDoctorAvailability(doctor.getId(), TOMORROW).size());
+    }
+
+    private List<String> materializeConcurrently(ExecutorService executor) {
+        try {
+            return executor.submit(() -> doctorService.getDoctorAvailability(doctor.getId(), TOMORROW)).get();
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Test case to validate that a month of materialized availability is read with a single statement
+     */
+    @Test
+    public void testMonthIsOneRead() {
+        final LocalDate to = TOMORROW.plusMonths(1).minusDays(1);
+        doctorService.getDoctorAvailability(doctor.getId(), TOMORROW, to);
+
+        final Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        final Map<LocalDate, List<String>> month = doctorService.getDoctorAvailability(doctor.getId(), TOMORROW, to);
+
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertEquals(TOMORROW.until(to).getDays() + 1, month.size());
+        assertTrue(month.values().stream().allMatch(slots -> slots.size() == 3));
+    }
+
+    /**
+     * Test case to validate that unknown doctors and past dates have no free slots
+     */
+    @Test
+    public void testUnknownDoctorAndPastDates() {
+        assertTrue(doctorService.getDoctorAvailability(-1L, TOMORROW).isEmpty());
+        assertTrue(doctorService.getDoctorAvailability(doctor.getId(), LocalDate.now().minusDays(1)).isEmpty());
+        assertEquals(0, availabilityRepository.count());
+    }
+}
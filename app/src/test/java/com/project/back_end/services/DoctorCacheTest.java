@@ -0,0 +1,102 @@
+package com.project.back_end.services;
+
+import com.project.back_end.models.Doctor;
+import com.project.back_end.repo.DoctorRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.List;
+import java.util.Set;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+public class DoctorCacheTest {
+
+    @Autowired
+    private DoctorService doctorService;
+
+    @Autowired
+    private DoctorRepository doctorRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+    private Doctor doctor;
+
+    @BeforeEach
+    public void setUp() {
+        doctor = new Doctor("Dr. Emily Adams", "dr.adams@example.com", "pass12345", "555-101-2020", "Cardiologist");
+        doctor.setAvailableTimes(Set.of("09:00-10:00", "10:00-11:00"));
+        doctor = doctorRepository.save(doctor);
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        entityManagerFactory.getCache().evictAll();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        doctorRepository.deleteAll();
+    }
+
+    /**
+     * Test case to validate that repeated doctor lookups by id, email and specialty don't query the database.
+     * Availability and booking checks go through DoctorSlotIndex and doctor searches through DoctorSearchIndex,
+     * these are the repository lookups behind them and behind logins.
+     */
+    @Test
+    public void testRepeatedLookupsServedFromCache() {
+        assertStatements("doctor by id (slot index and calendar loads)", 1, 0,
+                () -> doctorRepository.findById(doctor.getId()).orElseThrow());
+        assertStatements("doctor by email (login, token cache miss)", 1, 0,
+                () -> doctorRepository.findByEmail("dr.adams@example.com"));
+        assertStatements("doctors by specialty (repository query)", 1, 0,
+                () -> doctorRepository.findBySpecialtyIgnoreCase("cardiologist"));
+        assertEquals("Dr. Emily Adams", doctorRepository.findByEmail("dr.adams@example.com").getName());
+    }
+
+    /**
+     * Test case to validate that an admin's update and delete replace the cached doctor
+     * and invalidate the cached query results
+     */
+    @Test
+    public void testAdminWritesInvalidate() {
+        assertEquals(1, doctorRepository.findBySpecialtyIgnoreCase("cardiologist").size());
+        assertNotNull(doctorRepository.findByEmail("dr.adams@example.com"));
+        doctorRepository.findById(doctor.getId());
+
+        doctor.setSpecialty("Neurologist");
+        doctor.setEmail("emily.adams@example.com");
+        assertEquals(1, doctorService.updateDoctor(doctor).join());
+
+        assertEquals("Neurologist", doctorRepository.findById(doctor.getId()).orElseThrow().getSpecialty());
+        assertTrue(doctorRepository.findBySpecialtyIgnoreCase("cardiologist").isEmpty());
+        assertEquals(List.of(doctor.getId()), doctorRepository.findBySpecialtyIgnoreCase("neurologist").stream()
+                .map(Doctor::getId).toList());
+        assertNull(doctorRepository.findByEmail("dr.adams@example.com"));
+        assertEquals(doctor.getId(), doctorRepository.findByEmail("emily.adams@example.com").getId());
+
+        assertEquals(1, doctorService.deleteDoctor(doctor.getId()));
+        assertTrue(doctorRepository.findById(doctor.getId()).isEmpty());
+        assertNull(doctorRepository.findByEmail("emily.adams@example.com"));
+        assertTrue(doctorRepository.findBySpecialtyIgnoreCase("neurologist").isEmpty());
+    }
+
+    private void assertStatements(String lookup, long first, long repeated, Supplier<Object> query) {
+        statistics.clear();
+        assertNotNull(query.get());
+        final long before = statistics.getPrepareStatementCount();
+        statistics.clear();
+        assertNotNull(query.get());
+        final long after = statistics.getPrepareStatementCount();
+        assertEquals(first, before, lookup + " uncached");
+        assertEquals(repeated, after, lookup + " cached");
+    }
+}
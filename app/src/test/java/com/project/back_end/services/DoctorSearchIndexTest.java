@@ -0,0 +1,159 @@
+package com.project.back_end.services;
+
+import com.project.back_end.models.Doctor;
+import com.project.back_end.repo.DoctorRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+public class DoctorSearchIndexTest {
+
+    private DoctorRepository doctorRepository;
+    private DoctorSearchIndex index;
+
+    @BeforeEach
+    public void setUp() {
+        doctorRepository = mock(DoctorRepository.class);
+        when(doctorRepository.findAll()).thenReturn(List.of(
+                doctor(1L, "Dr. Emily Adams", "Cardiologist", "09:00-10:00"),
+                doctor(2L, "Dr. Mark Johnson", "Neurologist", "14:00-15:00"),
+                doctor(3L, "Dr. Sarah Lee", "Cardiologist", "11:00-13:00"),
+                doctor(4L, "Dr. Tom Adamson", "Dentist", "16:00-17:00")));
+        index = new DoctorSearchIndex(doctorRepository);
+    }
+
+    /**
+     * Test case to validate every combination of the name, specialty and time filters
+     */
+    @Test
+    public void testSearch() {
+        assertEquals(List.of(1L, 2L, 3L, 4L), ids(index.search(null, null, null)));
+        assertEquals(List.of(1L, 2L, 3L, 4L), ids(index.search("null", "null", "null")));
+        assertEquals(List.of(1L, 4L), ids(index.search("adam", null, null)));
+        assertEquals(List.of(1L, 4L), ids(index.search(" ADAM ", null, null)));
+        assertEquals(List.of(1L, 3L), ids(index.search(null, "cardiologist", null)));
+        assertEquals(List.of(1L, 3L), ids(index.search(null, null, "AM")));
+        assertEquals(List.of(2L, 3L, 4L), ids(index.search(null, null, "pm")));
+        assertEquals(List.of(1L), ids(index.search("adam", "Cardiologist", null)));
+        assertEquals(List.of(4L), ids(index.search("adam", null, "PM")));
+        assertEquals(List.of(3L), ids(index.search(null, "Cardiologist", "PM")));
+        assertEquals(List.of(3L), ids(index.search("lee", "Cardiologist", "AM")));
+        assertEquals(List.of(2L), ids(index.search("k", null, null)));
+        assertTrue(index.search("adams lee", null, null).isEmpty());
+        assertTrue(index.search(null, "Pediatrician", null).isEmpty());
+        assertTrue(index.search(null, null, "noon").isEmpty());
+    }
+
+    /**
+     * Test case to validate that the doctors are loaded from the database only once
+     */
+    @Test
+    public void testLoadsOnce() {
+        for (int i = 0; i < 10; i++) {
+            index.search("adam", null, "AM");
+        }
+        verify(doctorRepository, times(1)).findAll();
+    }
+
+    /**
+     * Test case to validate that inactive doctors aren't found, and deactivated ones are removed
+     */
+    @Test
+    public void testSkipsInactiveDoctors() {
+        final Doctor inactive = doctor(5L, "Dr. Anna Grey", "Dentist", "08:00-09:00");
+        inactive.setActive(false);
+        final List<Doctor> doctors = new ArrayList<>(doctorRepository.findAll());
+        doctors.add(inactive);
+        when(doctorRepository.findAll()).thenReturn(doctors);
+        index = new DoctorSearchIndex(doctorRepository);
+        assertTrue(index.search("grey", null, null).isEmpty());
+
+        final Doctor deactivated = doctor(1L, "Dr. Emily Adams", "Cardiologist", "09:00-10:00");
+        deactivated.setActive(false);
+        index.refreshDoctor(deactivated);
+        assertEquals(List.of(4L), ids(index.search("adam", null, null)));
+    }
+
+    /**
+     * Test case to validate that created, updated and deleted doctors are picked up
+     */
+    @Test
+    public void testRefreshAndEvictDoctor() {
+        assertTrue(index.search("grey", null, null).isEmpty());
+
+        index.refreshDoctor(doctor(5L, "Dr. Anna Grey", "Dentist", "08:00-09:00"));
+        assertEquals(List.of(5L), ids(index.search("grey", "dentist", "AM")));
+
+        index.refreshDoctor(doctor(5L, "Dr. Anna Grey", "Dermatologist", "18:00-19:00"));
+        assertTrue(index.search("grey", "dentist", null).isEmpty());
+        assertEquals(List.of(5L), ids(index.search("grey", "dermatologist", "PM")));
+
+        index.evictDoctor(5L);
+        assertTrue(index.search("grey", null, null).isEmpty());
+        assertEquals(4, index.search(null, null, null).size());
+    }
+
+    /**
+     * Test case to validate that the index finds the same doctors as the former approach of a name scan
+     * followed by filtering the specialty and AM/PM in Java, over a few thousand doctors.
+     * The index's latency is measured by DoctorFilterBenchmark.
+     */
+    @Test
+    public void testMatchesScan() {
+        final String[] specialties = {"Cardiologist", "Dentist", "Dermatologist", "Neurologist", "Pediatrician"};
+        final List<Doctor> doctors = new ArrayList<>();
+        for (long i = 1; i <= 5_000; i++) {
+            doctors.add(doctor(i, "Dr. Doctor" + i + " Name" + (i * 7919 % 5_000), specialties[(int) (i % 5)],
+                    String.format("%02d:00-%02d:00", i % 24, (i + 1) % 24)));
+        }
+        when(doctorRepository.findAll()).thenReturn(doctors);
+        index = new DoctorSearchIndex(doctorRepository);
+
+        for (String name : new String[]{"name42", "doctor1", "r12"}) {
+            for (String specialty : new String[]{"Dentist", "Neurologist"}) {
+                for (String time : new String[]{"AM", "PM"}) {
+                    // the scan keeps the repository's order, the index sorts by name
+                    assertEquals(Set.copyOf(ids(scan(doctors, name, specialty, time))),
+                            Set.copyOf(ids(index.search(name, specialty, time))),
+                            name + " " + specialty + " " + time);
+                }
+            }
+        }
+    }
+
+    private static List<Doctor> scan(List<Doctor> doctors, String name, String specialty, String time) {
+        final List<Doctor> result = new ArrayList<>();
+        for (Doctor doctor : doctors) {
+            if (!doctor.getName().toLowerCase(Locale.ROOT).contains(name.toLowerCase(Locale.ROOT))
+                    || !doctor.getSpecialty().equalsIgnoreCase(specialty)) {
+                continue;
+            }
+            for (String slot : doctor.getAvailableTimes()) {
+                final int hour = Integer.parseInt(slot.substring(0, 2));
+                if ("AM".equals(time) == hour < 12) {
+                    result.add(doctor);
+                    break;
+                }
+            }
+        }
+        return result;
+    }
+
+    private static Doctor doctor(Long id, String name, String specialty, String availableTime) {
+        Doctor doctor = new Doctor(name, "doctor" + id + "@example.com", "password", "555-101-2020", specialty);
+        doctor.setId(id);
+        doctor.setAvailableTimes(Set.of(availableTime));
+        return doctor;
+    }
+
+    private static List<Long> ids(List<Doctor> doctors) {
+        return doctors.stream().map(Doctor::getId).toList();
+    }
+}
@@ -0,0 +1,169 @@
+package com.project.back_end.services;
+
+import com.project.back_end.models.Doctor;
+import com.project.back_end.repo.AppointmentRepository;
+import com.project.back_end.repo.DoctorRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+public class DoctorSlotIndexTest {
+
+    private static final long DOCTOR_ID = 1L;
+    private static final LocalDate DAY = LocalDate.now().plusDays(1);
+
+    private DoctorRepository doctorRepository;
+    private AppointmentRepository appointmentRepository;
+    private DoctorSlotIndex index;
+
+    @BeforeEach
+    public void setUp() {
+        Doctor doctor = new Doctor("Dr. Smith", "dr.smith@example.com", "password", "555-101-2020", "Cardiology");
+        doctor.setId(DOCTOR_ID);
+        doctor.setAvailableTimes(Set.of("09:00-10:00", "10:00-11:00", "14:00-16:00"));
+
+        doctorRepository = mock(DoctorRepository.class);
+        appointmentRepository = mock(AppointmentRepository.class);
+        when(doctorRepository.findById(DOCTOR_ID)).thenReturn(Optional.of(doctor));
+        when(doctorRepository.findById(2L)).thenReturn(Optional.empty());
+        when(appointmentRepository.findAppointmentTimes(eq(DOCTOR_ID), any(), any()))
+                .thenReturn(List.of(DAY.atTime(10, 0)));
+
+        index = new DoctorSlotIndex(doctorRepository, appointmentRepository);
+    }
+
+    /**
+     * Test case to validate conversion of available times into an hour bitmask
+     */
+    @Test
+    public void testHourMask() {
+        assertEquals(0, DoctorSlotIndex.hourMask(null));
+        assertEquals(1 << 9, DoctorSlotIndex.hourMask(Set.of("09:00-10:00")));
+        assertEquals((1 << 14) | (1 << 15), DoctorSlotIndex.hourMask(Set.of("14:00-16:00")));
+        assertEquals(1 << 23, DoctorSlotIndex.hourMask(Set.of("23:00-00:00")));
+        assertEquals(1 << 9, DoctorSlotIndex.hourMask(Set.of("09:00-10:00", "morning")));
+    }
+
+    /**
+     * Test case to validate free, booked, unavailable slots and unknown doctors
+     */
+    @Test
+    public void testValidate() {
+        assertEquals(DoctorSlotIndex.VALID, index.validate(DOCTOR_ID, DAY.atTime(9, 0)));
+        assertEquals(DoctorSlotIndex.VALID, index.validate(DOCTOR_ID, DAY.atTime(15, 0)));
+        assertEquals(DoctorSlotIndex.TAKEN, index.validate(DOCTOR_ID, DAY.atTime(10, 0)));
+        assertEquals(DoctorSlotIndex.TAKEN, index.validate(DOCTOR_ID, DAY.atTime(12, 0)));
+        assertEquals(DoctorSlotIndex.TAKEN, index.validate(DOCTOR_ID, DAY.atTime(9, 30)));
+        assertEquals(DoctorSlotIndex.UNKNOWN_DOCTOR, index.validate(2L, DAY.atTime(9, 0)));
+        assertEquals(DoctorSlotIndex.UNKNOWN_DOCTOR, index.validate(null, DAY.atTime(9, 0)));
+    }
+
+    /**
+     * Test case to validate that the doctor and the day are loaded from the database only once
+     */
+    @Test
+    public void testLoadsOnce() {
+        for (int i = 0; i < 10; i++) {
+            index.validate(DOCTOR_ID, DAY.atTime(9, 0));
+        }
+        verify(doctorRepository, times(1)).findById(DOCTOR_ID);
+        verify(appointmentRepository, times(1)).findAppointmentTimes(anyLong(), any(), any());
+    }
+
+    /**
+     * Test case to validate that book and release keep the index current
+     */
+    @Test
+    public void testBookAndRelease() {
+        final LocalDateTime nine = DAY.atTime(9, 0);
+        assertEquals(DoctorSlotIndex.VALID, index.validate(DOCTOR_ID, nine));
+
+        index.book(DOCTOR_ID, nine);
+        assertEquals(DoctorSlotIndex.TAKEN, index.validate(DOCTOR_ID, nine));
+
+        index.release(DOCTOR_ID, nine);
+        assertEquals(DoctorSlotIndex.VALID, index.validate(DOCTOR_ID, nine));
+
+        index.release(DOCTOR_ID, DAY.atTime(10, 0));
+        assertEquals(DoctorSlotIndex.VALID, index.validate(DOCTOR_ID, DAY.atTime(10, 0)));
+    }
+
+    /**
+     * Test case to validate that a booking committed while its day is loaded isn't lost
+     */
+    @Test
+    public void testBookDuringLoad() {
+        final LocalDateTime nine = DAY.atTime(9, 0);
+        when(appointmentRepository.findAppointmentTimes(eq(DOCTOR_ID), any(), any()))
+                .thenAnswer(invocation -> {
+                    // the load read the day before the booking committed
+                    index.book(DOCTOR_ID, nine);
+                    return List.of(DAY.atTime(10, 0));
+                })
+                .thenReturn(List.of(nine, DAY.atTime(10, 0)));
+
+        assertEquals(DoctorSlotIndex.VALID, index.validate(DOCTOR_ID, nine));
+        assertEquals(DoctorSlotIndex.TAKEN, index.validate(DOCTOR_ID, nine));
+        assertEquals(DoctorSlotIndex.TAKEN, index.validate(DOCTOR_ID, nine));
+        verify(appointmentRepository, times(2)).findAppointmentTimes(anyLong(), any(), any());
+    }
+
+    /**
+     * Test case to validate that changed available times and deleted doctors are picked up
+     */
+    @Test
+    public void testRefreshAndEvictDoctor() {
+        assertEquals(DoctorSlotIndex.TAKEN, index.validate(DOCTOR_ID, DAY.atTime(12, 0)));
+
+        Doctor changed = doctorRepository.findById(DOCTOR_ID).orElseThrow();
+        changed.setAvailableTimes(Set.of("12:00-13:00"));
+        index.refreshDoctor(changed);
+        assertEquals(DoctorSlotIndex.VALID, index.validate(DOCTOR_ID, DAY.atTime(12, 0)));
+        assertEquals(DoctorSlotIndex.TAKEN, index.validate(DOCTOR_ID, DAY.atTime(9, 0)));
+
+        when(doctorRepository.findById(DOCTOR_ID)).thenReturn(Optional.empty());
+        index.evictDoctor(DOCTOR_ID);
+        assertEquals(DoctorSlotIndex.UNKNOWN_DOCTOR, index.validate(DOCTOR_ID, DAY.atTime(12, 0)));
+    }
+
+    /**
+     * Test case to validate that the index gives the same answers as the former per-request approach
+     * (load the doctor, load the day's appointments, parse the available time strings).
+     * The index's latency is measured by AppointmentValidationBenchmark.
+     */
+    @Test
+    public void testMatchesPerRequestValidation() {
+        for (int hour = 8; hour < 16; hour++) {
+            final LocalDateTime time = DAY.atTime(hour, 0);
+            assertEquals(validatePerRequest(time), index.validate(DOCTOR_ID, time), time.toString());
+        }
+    }
+
+    private int validatePerRequest(LocalDateTime time) {
+        Optional<Doctor> doctor = doctorRepository.findById(DOCTOR_ID);
+        if (doctor.isEmpty()) {
+            return DoctorSlotIndex.UNKNOWN_DOCTOR;
+        }
+        final LocalDateTime start = time.toLocalDate().atStartOfDay();
+        final List<LocalDateTime> booked = appointmentRepository.findAppointmentTimes(DOCTOR_ID, start, start.plusDays(1));
+        for (String slot : doctor.get().getAvailableTimes()) {
+            final LocalTime slotStart = LocalTime.parse(slot.substring(0, slot.indexOf('-')));
+            if (slotStart.equals(time.toLocalTime())) {
+                return booked.contains(time) ? DoctorSlotIndex.TAKEN : DoctorSlotIndex.VALID;
+            }
+        }
+        return DoctorSlotIndex.TAKEN;
+    }
+}
@@ -0,0 +1,103 @@
+package com.project.back_end.services;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PasswordHasherTest {
+
+    private final PasswordHasher hasher = new PasswordHasher(1000, 1, 1);
+    private final PasswordHasher costlierHasher = new PasswordHasher(2000, 1, 1);
+
+    @AfterEach
+    public void tearDown() {
+        hasher.destroy();
+        costlierHasher.destroy();
+    }
+
+    /**
+     * Test case to validate that a hashed password verifies, a wrong one doesn't, and neither is rehashed
+     */
+    @Test
+    public void testHashAndVerify() {
+        final String hash = hasher.hash("pass12345").join();
+        assertTrue(hash.startsWith("pbkdf2$1000$"));
+        assertNotEquals(hash, hasher.hash("pass12345").join());
+
+        final List<String> rehashes = new ArrayList<>();
+        assertTrue(hasher.verify("pass12345", hash, rehashes::add).join());
+        assertFalse(hasher.verify("pass12346", hash, rehashes::add).join());
+        assertFalse(hasher.verify("pass12345", "pbkdf2$1000$not$base64!", rehashes::add).join());
+        assertFalse(hasher.verify("pass12345", null, rehashes::add).join());
+        assertTrue(rehashes.isEmpty());
+    }
+
+    /**
+     * Test case to validate that a login of an unknown user is verified against a dummy hash and never matches
+     */
+    @Test
+    public void testVerifyUnknownUser() {
+        assertFalse(hasher.verifyUnknownUser("pass12345").join());
+        assertFalse(hasher.verifyUnknownUser("pass12345").join());
+        assertFalse(hasher.verifyUnknownUser(null).join());
+    }
+
+    /**
+     * Test case to validate that a password stored with another cost or in plain text is rehashed on login
+     */
+    @Test
+    public void testRehashOnCostChange() {
+        final List<String> rehashes = new ArrayList<>();
+        final String hash = hasher.hash("pass12345").join();
+        assertTrue(costlierHasher.verify("pass12345", hash, rehashes::add).join());
+        assertEquals(1, rehashes.size());
+        assertTrue(rehashes.get(0).startsWith("pbkdf2$2000$"));
+        assertTrue(costlierHasher.verify("pass12345", rehashes.get(0), rehashes::add).join());
+        assertEquals(1, rehashes.size());
+
+        assertFalse(costlierHasher.verify("pass12345", hash.replace("$1000$", "$2000$"), rehashes::add).join());
+        assertFalse(costlierHasher.verify("wrong", "pass12345", rehashes::add).join());
+        assertEquals(1, rehashes.size());
+        assertTrue(costlierHasher.verify("pass12345", "pass12345", rehashes::add).join());
+        assertEquals(2, rehashes.size());
+        assertTrue(costlierHasher.verify("pass12345", rehashes.get(1), rehash -> fail()).join());
+
+        assertTrue(costlierHasher.verify("pass12345", "pass12345", rehash -> {
+            throw new IllegalStateException("database down");
+        }).join());
+    }
+
+    /**
+     * Test case to validate that hashing fails fast once the thread is busy and the queue is full
+     */
+    @Test
+    public void testFailsFastWhenSaturated() throws InterruptedException {
+        final CountDownLatch running = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        final CompletableFuture<Boolean> busy = hasher.verify("pass12345", "pass12345", rehash -> {
+            running.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        running.await();
+        final CompletableFuture<String> queued = hasher.hash("pass12345");
+
+        assertSame(HashingBusyException.INSTANCE, assertThrows(HashingBusyException.class,
+                () -> hasher.hash("pass12345")));
+        assertThrows(HashingBusyException.class, () -> hasher.verify("pass12345", "pass12345", rehash -> { }));
+
+        release.countDown();
+        assertTrue(busy.join());
+        assertTrue(queued.join().startsWith("pbkdf2$1000$"));
+        assertTrue(hasher.verify("pass12345", queued.join(), rehash -> fail()).join());
+    }
+}
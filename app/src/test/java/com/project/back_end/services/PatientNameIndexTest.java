@@ -0,0 +1,108 @@
+package com.project.back_end.services;
+
+import com.project.back_end.repo.AppointmentRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+public class PatientNameIndexTest {
+
+    private static final String[] FIRST = {"Jane", "John", "Amélie", "Omar", "Priya", "Chen", "Lucía", "Noah",
+            "Fatima", "Liam", "Sofia", "Kwame", "Yuki", "Mateo", "Ingrid", "Ravi"};
+    private static final String[] LAST = {"Doe", "Smith", "Müller", "García", "Nakamura", "Okafor", "Kowalski",
+            "Dubois", "Rossi", "Andersson", "Haddad", "Nguyen", "O'Brien", "Silva", "Novak", "Ivanova"};
+
+    private AppointmentRepository appointmentRepository;
+    private PatientNameIndex index;
+
+    @BeforeEach
+    public void setUp() {
+        appointmentRepository = mock(AppointmentRepository.class);
+        when(appointmentRepository.findPatientNamesByDoctorId(1L)).thenReturn(List.of(
+                new Object[]{3L, "Jane  Doe"},
+                new Object[]{1L, "John Smith"},
+                new Object[]{2L, "Amélie Dubois"},
+                new Object[]{4L, "Janet Müller"}));
+        index = new PatientNameIndex(appointmentRepository, 1000, Runnable::run);
+    }
+
+    /**
+     * Test case to validate substring, prefix and short searches, ignoring case, accents and extra spaces
+     */
+    @Test
+    public void testSearch() {
+        assertArrayEquals(new long[]{3, 4}, index.search(1L, "jan"));
+        assertArrayEquals(new long[]{3, 4}, index.search(1L, " JA "));
+        assertArrayEquals(new long[]{3}, index.search(1L, "jane doe"));
+        assertArrayEquals(new long[]{3}, index.search(1L, "Jane   DOE"));
+        assertArrayEquals(new long[]{2}, index.search(1L, "amelie"));
+        assertArrayEquals(new long[]{2}, index.search(1L, "Amélie"));
+        assertArrayEquals(new long[]{4}, index.search(1L, "muller"));
+        assertArrayEquals(new long[]{1, 4}, index.search(1L, "t"));
+        assertArrayEquals(new long[]{}, index.search(1L, "jane smith"));
+        assertArrayEquals(new long[]{}, index.search(1L, "xyz"));
+        assertArrayEquals(new long[]{}, index.search(2L, "jane"));
+    }
+
+    /**
+     * Test case to validate that a doctor's patients are loaded once and again after an eviction
+     */
+    @Test
+    public void testLoadsOncePerEviction() {
+        for (int i = 0; i < 10; i++) {
+            index.search(1L, "jane");
+        }
+        verify(appointmentRepository, times(1)).findPatientNamesByDoctorId(1L);
+
+        when(appointmentRepository.findPatientNamesByDoctorId(1L)).thenReturn(List.<Object[]>of(
+                new Object[]{3L, "Jane Doe"}, new Object[]{5L, "Jane Roe"}));
+        index.evictDoctor(1L);
+        assertArrayEquals(new long[]{3, 5}, index.search(1L, "jane"));
+        verify(appointmentRepository, times(2)).findPatientNamesByDoctorId(1L);
+    }
+
+    /**
+     * Test case to validate that fragments of one or two characters, which are shorter than a trigram and scan
+     * the names, are normalized like the names
+     */
+    @Test
+    public void testShortFragments() {
+        assertArrayEquals(new long[]{2, 3, 4}, index.search(1L, "e"));
+        assertArrayEquals(new long[]{2, 3, 4}, index.search(1L, "É"));
+        assertArrayEquals(new long[]{2, 4}, index.search(1L, "ü"));
+        assertArrayEquals(new long[]{3}, index.search(1L, "DO"));
+        assertArrayEquals(new long[]{2, 3}, index.search(1L, "e d"));
+        assertArrayEquals(new long[]{2, 3}, index.search(1L, "e  d"));
+        assertArrayEquals(new long[]{1, 2, 3, 4}, index.search(1L, "  "));
+        assertArrayEquals(new long[]{}, index.search(1L, "zz"));
+    }
+
+    /**
+     * Test case to validate that trigram searches find the same patients as a substring check of every name
+     */
+    @Test
+    public void testMatchesScan() {
+        final Random random = new Random(42);
+        final List<Object[]> rows = new ArrayList<>();
+        for (long id = 1; id <= 10_000; id++) {
+            rows.add(new Object[]{id, FIRST[random.nextInt(FIRST.length)] + " " + LAST[random.nextInt(LAST.length)]
+                    + " " + Long.toString(id * 7919, 36)});
+        }
+        final PatientNameIndex.Names names = PatientNameIndex.Names.of(rows);
+        for (String fragment : new String[]{"jan", "amelie mul", "o'b", "garcia", "ivanova 1", "uci", "ne",
+                Long.toString(1234L * 7919, 36), "xyz"}) {
+            final String normalized = PatientNameIndex.normalize(fragment);
+            final long[] expected = rows.stream()
+                    .filter(row -> PatientNameIndex.normalize((String) row[1]).contains(normalized))
+                    .mapToLong(row -> (Long) row[0])
+                    .toArray();
+            assertArrayEquals(expected, names.search(normalized), fragment);
+        }
+    }
+}
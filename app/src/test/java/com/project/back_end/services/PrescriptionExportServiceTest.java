@@ -0,0 +1,113 @@
+package com.project.back_end.services;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.project.back_end.models.Prescription;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+public class PrescriptionExportServiceTest {
+
+    /**
+     * Test case to validate that the export writes one JSON line per prescription, resumes after an id
+     * and closes the cursor
+     */
+    @Test
+    public void testExportResumesAfterId() throws Exception {
+        final MongoTemplate mongoTemplate = mock(MongoTemplate.class);
+        final PrescriptionExportService exportService = new PrescriptionExportService(mongoTemplate);
+        final String after = new ObjectId().toHexString();
+        final AtomicBoolean closed = new AtomicBoolean();
+        final int total = 1200;
+        when(mongoTemplate.stream(any(Query.class), eq(Prescription.class))).thenReturn(
+                Stream.iterate(0, i -> i + 1).limit(total).map(PrescriptionExportServiceTest::prescription)
+                        .onClose(() -> closed.set(true)));
+
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        assertEquals(total, exportService.writeExport(after, out));
+
+        final String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(total, lines.length);
+        final JsonNode last = new ObjectMapper().readTree(lines[total - 1]);
+        assertEquals("Ibuprofen \"forte\" " + (total - 1), last.get("medication").asText());
+        assertEquals(total - 1, last.get("appointmentId").asLong());
+        assertTrue(last.get("doctorNotes").isNull());
+        assertTrue(closed.get());
+
+        final ArgumentCaptor<Query> query = ArgumentCaptor.forClass(Query.class);
+        verify(mongoTemplate).stream(query.capture(), eq(Prescription.class));
+        assertEquals(new Document("_id", new Document("$gt", new ObjectId(after))), query.getValue().getQueryObject());
+        assertEquals(new Document("_id", 1), query.getValue().getSortObject());
+    }
+
+    /**
+     * Test case to validate that an export is cut off at the first write after the client disconnected:
+     * the rest of the cursor isn't read and the cursor is closed
+     */
+    @Test
+    public void testStopsWhenClientDisconnects() {
+        final MongoTemplate mongoTemplate = mock(MongoTemplate.class);
+        final PrescriptionExportService exportService = new PrescriptionExportService(mongoTemplate);
+        final AtomicBoolean closed = new AtomicBoolean();
+        final AtomicInteger read = new AtomicInteger();
+        final int total = 100_000;
+        when(mongoTemplate.stream(any(Query.class), eq(Prescription.class))).thenReturn(
+                Stream.iterate(0, i -> i + 1).limit(total).map(PrescriptionExportServiceTest::prescription)
+                        .peek(prescription -> read.incrementAndGet())
+                        .onClose(() -> closed.set(true)));
+
+        final OutputStream disconnected = new OutputStream() {
+            @Override
+            public void write(int b) throws IOException {
+                throw new IOException("Broken pipe");
+            }
+
+            @Override
+            public void write(byte[] b, int off, int len) throws IOException {
+                throw new IOException("Broken pipe");
+            }
+        };
+        assertThrows(UncheckedIOException.class, () -> exportService.writeExport(null, disconnected));
+        assertTrue(read.get() <= PrescriptionExportService.BATCH_SIZE, "read " + read.get());
+        assertTrue(closed.get());
+    }
+
+    /**
+     * Test case to validate that a malformed resume id is rejected before querying
+     */
+    @Test
+    public void testInvalidResumeId() {
+        final MongoTemplate mongoTemplate = mock(MongoTemplate.class);
+        final PrescriptionExportService exportService = new PrescriptionExportService(mongoTemplate);
+
+        assertFalse(PrescriptionExportService.isValidResumeId("not-an-id"));
+        assertThrows(IllegalArgumentException.class,
+                () -> exportService.writeExport("not-an-id", new ByteArrayOutputStream()));
+        verifyNoInteractions(mongoTemplate);
+    }
+
+    private static Prescription prescription(int i) {
+        final Prescription prescription = new Prescription("John Smith", "Ibuprofen \"forte\" " + i, "200mg",
+                null, (long) i);
+        prescription.setId(new ObjectId().toHexString());
+        return prescription;
+    }
+}
@@ -0,0 +1,211 @@
+package com.project.back_end.services;
+
+import com.mongodb.bulk.BulkWriteError;
+import com.mongodb.bulk.BulkWriteResult;
+import com.mongodb.bulk.BulkWriteUpsert;
+import com.project.back_end.models.Prescription;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import org.bson.BsonDocument;
+import org.bson.BsonInt64;
+import org.bson.Document;
+import org.mockito.ArgumentCaptor;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.convert.MappingMongoConverter;
+import org.springframework.data.mongodb.core.convert.NoOpDbRefResolver;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Date;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+public class PrescriptionImportServiceTest {
+
+    private static final Validator VALIDATOR = Validation.buildDefaultValidatorFactory().getValidator();
+
+    private MongoTemplate mongoTemplate;
+    private BulkOperations bulkOperations;
+    private PrescriptionImportService importService;
+
+    @BeforeEach
+    public void setUp() {
+        mongoTemplate = mock(MongoTemplate.class);
+        bulkOperations = mock(BulkOperations.class);
+        when(mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Prescription.class)).thenReturn(bulkOperations);
+        when(mongoTemplate.getConverter())
+                .thenReturn(new MappingMongoConverter(NoOpDbRefResolver.INSTANCE, new MongoMappingContext()));
+        importService = new PrescriptionImportService(mongoTemplate, VALIDATOR);
+    }
+
+    /**
+     * Test case to validate that the mongo shell script of the sample data is imported
+     * with upserts by _id
+     */
+    @Test
+    public void testImportMongoShellScript() throws IOException {
+        final Path sample = Path.of("..", "mongo_data.txt");
+        final PrescriptionImportService.ImportResult result;
+        try (Reader reader = Files.newBufferedReader(sample)) {
+            result = importService.importPrescriptions(reader, 2);
+        }
+
+        assertEquals(24, result.read());
+        assertEquals(24, result.written());
+        assertEquals(0, result.invalid());
+
+        final ArgumentCaptor<Query> query = ArgumentCaptor.forClass(Query.class);
+        final ArgumentCaptor<Update> update = ArgumentCaptor.forClass(Update.class);
+        verify(bulkOperations, times(24)).upsert(query.capture(), update.capture());
+        assertEquals("6807dd712725f013281e7201", query.getAllValues().get(0).getQueryObject().get("_id"));
+        final Document set = set(update.getAllValues().get(0));
+        assertEquals(51L, set.get("appointmentId"));
+        assertEquals("Take 1 tablet every 6 hours.", set.get("doctorNotes"));
+        assertFalse(set.containsKey("_id"));
+        verify(bulkOperations, times(1)).execute();
+    }
+
+    /**
+     * Test case to validate that invalid documents are skipped, documents without an id are keyed
+     * by appointment and large inputs are written in batches
+     */
+    @Test
+    public void testValidationAndBatching() throws IOException {
+        final int count = PrescriptionImportService.BATCH_SIZE * 2 + 1;
+        final StringBuilder json = new StringBuilder("[");
+        for (int i = 0; i < count; i++) {
+            json.append("{\"patientName\": \"John (Jack) Smith\", \"appointmentId\": NumberLong(").append(i)
+                    .append("), \"medication\": \"Paracetamol\", \"dosage\": \"500mg\"},\n");
+        }
+        json.append("{\"patientName\": \"Jo\", \"appointmentId\": 1, \"medication\": \"Aspirin\", \"dosage\": \"1mg\"},");
+        json.append("{\"_id\": \"6807dd712725f013281e7299\", \"patientName\": \"Emily Rose\", \"medication\": \"Aspirin\"}");
+        json.append("]");
+
+        final PrescriptionImportService.ImportResult result =
+                importService.importPrescriptions(new StringReader(json.toString()), 4);
+
+        assertEquals(count + 2, result.read());
+        assertEquals(count, result.written());
+        assertEquals(2, result.invalid());
+        assertEquals(0, result.failed());
+        verify(bulkOperations, times(3)).execute();
+        verify(bulkOperations).upsert(eq(new Query(Criteria.where("appointmentId").is(7L))), any(Update.class));
+    }
+
+    /**
+     * Test case to validate that the source's timestamps are written, that createdAt is only set on insert
+     * so a re-run keeps it, and that a document with an unreadable date is skipped
+     */
+    @Test
+    public void testTimestamps() throws IOException {
+        final PrescriptionImportService.ImportResult result = importService.importPrescriptions(new StringReader(
+                "[{\"patientName\": \"John Smith\", \"appointmentId\": 1, \"medication\": \"Aspirin\", "
+                        + "\"dosage\": \"300mg\", \"createdAt\": ISODate(\"2025-04-20T09:30:00Z\"), "
+                        + "\"updatedAt\": {\"$date\": \"2025-04-21T10:00:00Z\"}},"
+                        + "{\"patientName\": \"Emily Rose\", \"appointmentId\": 2, \"medication\": \"Aspirin\", "
+                        + "\"dosage\": \"300mg\", \"createdAt\": \"2025-04-20 09:30\"}]"), 1);
+
+        assertEquals(1, result.written());
+        assertEquals(1, result.invalid());
+
+        final ArgumentCaptor<Update> update = ArgumentCaptor.forClass(Update.class);
+        verify(bulkOperations, times(1)).upsert(any(Query.class), update.capture());
+        final Document document = update.getValue().getUpdateObject();
+        assertEquals(Date.from(Instant.parse("2025-04-20T09:30:00Z")),
+                ((Document) document.get("$setOnInsert")).get("createdAt"));
+        assertEquals(Date.from(Instant.parse("2025-04-21T10:00:00Z")), set(update.getValue()).get("updatedAt"));
+        assertFalse(set(update.getValue()).containsKey("createdAt"));
+    }
+
+    /**
+     * Test case to validate the date formats read for timestamps
+     */
+    @Test
+    public void testDateTime() throws IOException {
+        final LocalDateTime expected = LocalDateTime.ofInstant(Instant.parse("2025-04-20T09:30:00Z"),
+                ZoneId.systemDefault());
+        final long millis = Instant.parse("2025-04-20T09:30:00Z").toEpochMilli();
+        for (String json : new String[]{"\"2025-04-20T09:30:00Z\"", String.valueOf(millis),
+                "{\"$date\": \"2025-04-20T09:30:00.000Z\"}", "{\"$date\": {\"$numberLong\": \"" + millis + "\"}}"}) {
+            assertEquals(expected, PrescriptionImportService.dateTime(
+                    JsonMapper.builder().build().readTree("{\"at\": " + json + "}"), "at"), json);
+        }
+        assertEquals(LocalDateTime.of(2025, 4, 20, 9, 30), PrescriptionImportService.dateTime(
+                JsonMapper.builder().build().readTree("{\"at\": \"2025-04-20T09:30\"}"), "at"));
+        assertNull(PrescriptionImportService.dateTime(JsonMapper.builder().build().readTree("{}"), "at"));
+    }
+
+    /**
+     * Test case to validate that a failed batch is counted and doesn't stop the import
+     */
+    @Test
+    public void testFailedBatch() throws IOException {
+        when(bulkOperations.execute()).thenThrow(new IllegalStateException("bulk write failed"));
+
+        final PrescriptionImportService.ImportResult result = importService.importPrescriptions(new StringReader(
+                "[{\"patientName\": \"John Smith\", \"appointmentId\": 1, \"medication\": \"Aspirin\", "
+                        + "\"dosage\": \"300mg\"}]"), 1);
+
+        assertEquals(1, result.read());
+        assertEquals(0, result.written());
+        assertEquals(1, result.failed());
+    }
+
+    /**
+     * Test case to validate that only the rejected documents of a partially written batch are counted as failed
+     */
+    @Test
+    public void testPartiallyFailedBatch() throws IOException {
+        final BulkWriteResult writeResult = mock(BulkWriteResult.class);
+        when(writeResult.getMatchedCount()).thenReturn(1);
+        when(writeResult.getUpserts()).thenReturn(List.of(new BulkWriteUpsert(2, new BsonInt64(3))));
+        final BulkOperationException exception = mock(BulkOperationException.class);
+        when(exception.getResult()).thenReturn(writeResult);
+        when(exception.getErrors()).thenReturn(List.of(new BulkWriteError(11000, "duplicate key", new BsonDocument(), 1)));
+        when(bulkOperations.execute()).thenThrow(exception);
+
+        final PrescriptionImportService.ImportResult result = importService.importPrescriptions(new StringReader(
+                "[{\"patientName\": \"John Smith\", \"appointmentId\": 1, \"medication\": \"Aspirin\", "
+                        + "\"dosage\": \"300mg\"}, "
+                        + "{\"patientName\": \"Jane Doe\", \"appointmentId\": 2, \"medication\": \"Ibuprofen\", "
+                        + "\"dosage\": \"200mg\"}, "
+                        + "{\"patientName\": \"Mark Lee\", \"appointmentId\": 3, \"medication\": \"Paracetamol\", "
+                        + "\"dosage\": \"500mg\"}]"), 1);
+
+        assertEquals(3, result.read());
+        assertEquals(2, result.written());
+        assertEquals(1, result.failed());
+    }
+
+    /**
+     * Test case to validate that input that isn't an array is rejected
+     */
+    @Test
+    public void testRejectsNonArray() {
+        assertThrows(IOException.class, () -> importService.importPrescriptions(new StringReader(""), 1));
+        verifyNoInteractions(mongoTemplate);
+    }
+
+    private static Document set(Update update) {
+        return (Document) update.getUpdateObject().get("$set");
+    }
+}
@@ -0,0 +1,98 @@
+package com.project.back_end.services;
+
+import com.project.back_end.DTO.PrescriptionSummary;
+import com.project.back_end.models.Prescription;
+import com.project.back_end.repo.PrescriptionRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+public class PrescriptionServiceTest {
+
+    /**
+     * Test case to validate that the summaries of many appointments are fetched with a single query
+     */
+    @Test
+    public void testSummariesFetchedInOneQuery() {
+        final PrescriptionRepository repository = mock(PrescriptionRepository.class);
+        final PrescriptionService prescriptionService = new PrescriptionService(repository, 100, 10, Runnable::run);
+        final PrescriptionSummary first = new PrescriptionSummary(1L, "Paracetamol", "500mg", "After meals");
+        final PrescriptionSummary second = new PrescriptionSummary(3L, "Ibuprofen", "200mg", null);
+        when(repository.findSummariesByAppointmentIdIn(List.of(1L, 2L, 3L))).thenReturn(List.of(first, second));
+
+        final Map<Long, PrescriptionSummary> summaries = prescriptionService.getPrescriptionSummaries(List.of(1L, 2L, 3L));
+
+        assertEquals(Map.of(1L, first, 3L, second), summaries);
+        verify(repository, times(1)).findSummariesByAppointmentIdIn(any());
+        verifyNoMoreInteractions(repository);
+    }
+
+    /**
+     * Test case to validate that an empty request doesn't query and an oversized one is rejected
+     */
+    @Test
+    public void testEmptyAndOversizedRequests() {
+        final PrescriptionRepository repository = mock(PrescriptionRepository.class);
+        final PrescriptionService prescriptionService = new PrescriptionService(repository, 100, 10, Runnable::run);
+
+        assertTrue(prescriptionService.getPrescriptionSummaries(List.of()).isEmpty());
+
+        final List<Long> ids = new ArrayList<>();
+        for (long id = 0; id <= PrescriptionService.MAX_BULK_APPOINTMENTS; id++) {
+            ids.add(id);
+        }
+        assertThrows(IllegalArgumentException.class, () -> prescriptionService.getPrescriptionSummaries(ids));
+        verifyNoInteractions(repository);
+    }
+
+    /**
+     * Test case to validate that repeated reads are served from the cache and a save invalidates the entry
+     */
+    @Test
+    public void testReadThroughCacheInvalidatedBySave() {
+        final PrescriptionRepository repository = mock(PrescriptionRepository.class);
+        final PrescriptionService prescriptionService = new PrescriptionService(repository, 100, 10, Runnable::run);
+        final Prescription prescription = new Prescription("John Smith", "Paracetamol", "500mg", null, 7L);
+        when(repository.findByAppointmentId(7L)).thenReturn(List.of(), List.of(prescription));
+
+        for (int i = 0; i < 3; i++) {
+            assertEquals(List.of(), prescriptionService.getPrescription(7L).getBody().get("prescription"));
+        }
+        verify(repository, times(1)).findByAppointmentId(7L);
+        assertEquals(2, prescriptionService.cacheStats().hitCount());
+        assertEquals(1, prescriptionService.cacheStats().missCount());
+
+        assertEquals(HttpStatus.CREATED, prescriptionService.savePrescription(prescription).getStatusCode());
+        assertEquals(List.of(prescription), prescriptionService.getPrescription(7L).getBody().get("prescription"));
+        assertEquals(List.of(prescription), prescriptionService.getPrescription(7L).getBody().get("prescription"));
+        verify(repository, times(2)).findByAppointmentId(7L);
+    }
+
+    /**
+     * Test case to validate that a second prescription for an appointment, rejected by the unique index,
+     * is answered like an existing one
+     */
+    @Test
+    public void testDuplicatePrescription() {
+        final PrescriptionRepository repository = mock(PrescriptionRepository.class);
+        final PrescriptionService prescriptionService = new PrescriptionService(repository, 100, 10, Runnable::run);
+        final Prescription prescription = new Prescription("John Smith", "Paracetamol", "500mg", null, 7L);
+        when(repository.save(prescription)).thenReturn(prescription)
+                .thenThrow(new DuplicateKeyException("E11000 duplicate key error"));
+
+        assertEquals(HttpStatus.CREATED, prescriptionService.savePrescription(prescription).getStatusCode());
+        final ResponseEntity<Map<String, String>> duplicate = prescriptionService.savePrescription(prescription);
+        assertEquals(HttpStatus.BAD_REQUEST, duplicate.getStatusCode());
+        assertEquals("Prescription already exists for this appointment", duplicate.getBody().get("message"));
+        verify(repository, never()).findByAppointmentId(any());
+    }
+}
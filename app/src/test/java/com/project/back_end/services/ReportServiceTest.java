@@ -0,0 +1,162 @@
+package com.project.back_end.services;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.project.back_end.models.Appointment;
+import com.project.back_end.models.Doctor;
+import com.project.back_end.models.Patient;
+import com.project.back_end.repo.AppointmentRepository;
+import com.project.back_end.repo.DoctorRepository;
+import com.project.back_end.repo.PatientRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+public class ReportServiceTest {
+
+    @Autowired
+    private ReportService reportService;
+
+    @Autowired
+    private AppointmentRepository appointmentRepository;
+
+    @Autowired
+    private DoctorRepository doctorRepository;
+
+    @Autowired
+    private PatientRepository patientRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private LocalDate day;
+
+    @BeforeEach
+    public void setUp() {
+        Doctor adams = new Doctor("Dr. Adams, Emily", "dr.adams@example.com", "pass12345", "555-101-2020", "Cardiologist");
+        adams.setAvailableTimes(Set.of("09:00-10:00"));
+        Doctor brown = new Doctor("Dr. Brown", "dr.brown@example.com", "pass12345", "555-101-2021", "Neurologist");
+        brown.setAvailableTimes(Set.of("09:00-10:00"));
+        doctorRepository.saveAll(List.of(adams, brown));
+        Patient john = patientRepository.save(new Patient("John \"Jack\" Smith", "john.smith@example.com",
+                "smithSecure", "888-111-1111", "1 Main St"));
+
+        day = LocalDate.now().plusDays(1);
+        appointmentRepository.saveAll(List.of(
+                new Appointment(brown, john, day.atTime(9, 0)),
+                new Appointment(adams, john, day.atTime(14, 0)),
+                new Appointment(adams, john, day.atTime(9, 0)),
+                new Appointment(adams, john, day.plusDays(1).atStartOfDay()),
+                new Appointment(brown, john, day.plusDays(1).atTime(9, 0))));
+    }
+
+    @AfterEach
+    public void tearDown() {
+        appointmentRepository.deleteAll();
+        patientRepository.deleteAll();
+        doctorRepository.deleteAll();
+    }
+
+    /**
+     * Test case to validate the CSV report: the day's rows only, ordered by doctor and time, quoted where needed
+     */
+    @Test
+    public void testCsv() {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        assertEquals(3, reportService.writeDailyAppointmentReport(day, ReportService.Format.CSV, out));
+
+        assertEquals(List.of(
+                "doctor_name,appointment_time,status,patient_name,patient_phone",
+                "\"Dr. Adams, Emily\"," + day.atTime(9, 0) + ",0,\"John \"\"Jack\"\" Smith\",888-111-1111",
+                "\"Dr. Adams, Emily\"," + day.atTime(14, 0) + ",0,\"John \"\"Jack\"\" Smith\",888-111-1111",
+                "Dr. Brown," + day.atTime(9, 0) + ",0,\"John \"\"Jack\"\" Smith\",888-111-1111"),
+                List.of(out.toString(StandardCharsets.UTF_8).split("\r\n")));
+    }
+
+    /**
+     * Test case to validate the NDJSON report, one object per line
+     */
+    @Test
+    public void testNdjson() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        assertEquals(3, reportService.writeDailyAppointmentReport(day, ReportService.Format.NDJSON, out));
+
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(3, lines.length);
+        JsonNode first = new ObjectMapper().readTree(lines[0]);
+        assertEquals("Dr. Adams, Emily", first.get("doctor_name").asText());
+        assertEquals(day.atTime(9, 0).toString(), first.get("appointment_time").asText());
+        assertEquals(0, first.get("status").asInt());
+        assertEquals("John \"Jack\" Smith", first.get("patient_name").asText());
+        assertEquals("Dr. Brown", new ObjectMapper().readTree(lines[2]).get("doctor_name").asText());
+
+        out.reset();
+        assertEquals(0, reportService.writeDailyAppointmentReport(day.plusDays(5), ReportService.Format.NDJSON, out));
+        assertEquals(0, out.size());
+    }
+
+    /**
+     * Test case to validate that a report is cut off at the first write after the client disconnected,
+     * rather than read to the end, and that the next report runs normally
+     */
+    @Test
+    public void testStopsWhenClientDisconnects() {
+        Doctor clark = new Doctor("Dr. Clark", "dr.clark@example.com", "pass12345", "555-101-2022", "Dentist");
+        clark.setAvailableTimes(Set.of("09:00-10:00"));
+        clark = doctorRepository.save(clark);
+        final Patient john = patientRepository.findByEmail("john.smith@example.com");
+        final List<Appointment> appointments = new ArrayList<>();
+        for (int i = 0; i < 1200; i++) {
+            appointments.add(new Appointment(clark, john, day.atStartOfDay().plusMinutes(i)));
+        }
+        appointmentRepository.saveAll(appointments);
+
+        final AtomicInteger writes = new AtomicInteger();
+        final OutputStream disconnected = new OutputStream() {
+            @Override
+            public void write(int b) throws IOException {
+                write(new byte[]{(byte) b}, 0, 1);
+            }
+
+            @Override
+            public void write(byte[] b, int off, int len) throws IOException {
+                writes.incrementAndGet();
+                throw new IOException("Broken pipe");
+            }
+        };
+        assertThrows(UncheckedIOException.class,
+                () -> reportService.writeDailyAppointmentReport(day, ReportService.Format.CSV, disconnected));
+        assertEquals(1, writes.get());
+
+        assertEquals(1203, reportService.writeDailyAppointmentReport(day, ReportService.Format.CSV,
+                new ByteArrayOutputStream()));
+    }
+
+    /**
+     * Test case to validate that the report's time range is answered from the index on appointment_time
+     */
+    @Test
+    public void testUsesTimeIndex() {
+        String plan = String.join("\n", jdbcTemplate.queryForList("EXPLAIN SELECT a.id FROM appointment a "
+                + "WHERE a.appointment_time >= ? AND a.appointment_time < ?", String.class,
+                day.atStartOfDay(), day.plusDays(1).atStartOfDay()));
+        assertTrue(plan.toLowerCase().contains("idx_appointment_time"), plan);
+    }
+}
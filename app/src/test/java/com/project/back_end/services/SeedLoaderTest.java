@@ -0,0 +1,74 @@
+package com.project.back_end.services;
+
+import com.project.back_end.models.DoctorAppointmentCount;
+import com.project.back_end.repo.AppointmentRepository;
+import com.project.back_end.repo.DoctorRepository;
+import com.project.back_end.repo.PatientRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+public class SeedLoaderTest {
+
+    @Autowired
+    private SeedLoader seedLoader;
+
+    @Autowired
+    private AppointmentRepository appointmentRepository;
+
+    @Autowired
+    private DoctorRepository doctorRepository;
+
+    @Autowired
+    private PatientRepository patientRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @AfterEach
+    public void tearDown() {
+        jdbcTemplate.update("DELETE FROM doctor_appointment_count");
+        appointmentRepository.deleteAll();
+        patientRepository.deleteAll();
+        doctorRepository.deleteAll();
+    }
+
+    /**
+     * Test case to validate that a scaled sample is inserted with distinct slots per doctor
+     * and the rollups rebuilt
+     */
+    @Test
+    public void testLoadScaledSample() {
+        final SeedLoader.LoadResult result = seedLoader.load(2);
+
+        assertEquals(2 * SeedLoader.DOCTORS, result.doctors());
+        assertEquals(2 * SeedLoader.APPOINTMENTS, result.appointments());
+        assertEquals(2 * SeedLoader.DOCTORS, doctorRepository.count());
+        assertEquals(2 * SeedLoader.PATIENTS, patientRepository.count());
+        assertEquals(2 * SeedLoader.APPOINTMENTS, appointmentRepository.count());
+        assertEquals(0, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM (SELECT doctor_id, appointment_time "
+                + "FROM appointment GROUP BY doctor_id, appointment_time HAVING COUNT(*) > 1) duplicates",
+                Integer.class));
+        assertEquals(2 * SeedLoader.APPOINTMENTS, jdbcTemplate.queryForObject("SELECT SUM(appointment_count) "
+                + "FROM doctor_appointment_count WHERE rollup_month = ?", Integer.class,
+                DoctorAppointmentCount.YEAR_TOTAL));
+    }
+
+    /**
+     * Test case to validate that loads can be repeated and that row by row batches insert the same rows
+     */
+    @Test
+    public void testRepeatedLoadRowByRow() {
+        seedLoader.load(3, 2, 10, SeedLoader.BATCH_SIZE);
+        seedLoader.load(3, 2, 10, 1);
+
+        assertEquals(6, doctorRepository.count());
+        assertEquals(4, patientRepository.count());
+        assertEquals(20, appointmentRepository.count());
+    }
+}
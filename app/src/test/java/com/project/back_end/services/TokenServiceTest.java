@@ -0,0 +1,148 @@
+package com.project.back_end.services;
+
+import com.project.back_end.models.Admin;
+import com.project.back_end.models.Doctor;
+import com.project.back_end.repo.AdminRepository;
+import com.project.back_end.repo.DoctorRepository;
+import com.project.back_end.repo.PatientRepository;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.Date;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+public class TokenServiceTest {
+
+    private static final String SECRET = "0123456789abcdef0123456789abcdef0123456789abcdef";
+    private static final String EMAIL = "dr.adams@example.com";
+
+    private AdminRepository adminRepository;
+    private DoctorRepository doctorRepository;
+    private PatientRepository patientRepository;
+    private TokenService tokenService;
+    private MutableClock clock;
+    private Doctor doctor;
+
+    @BeforeEach
+    public void setUp() {
+        doctor = new Doctor("Dr. Emily Adams", EMAIL, "pass12345", "555-101-2020", "Cardiologist");
+        doctor.setId(1L);
+
+        adminRepository = mock(AdminRepository.class);
+        doctorRepository = mock(DoctorRepository.class);
+        patientRepository = mock(PatientRepository.class);
+        when(doctorRepository.findByEmail(EMAIL)).thenReturn(doctor);
+
+        clock = new MutableClock(Instant.now());
+        tokenService = new TokenService(adminRepository, doctorRepository, patientRepository, SECRET, 1_000, clock);
+    }
+
+    /**
+     * Test case to validate that a verified token is answered from the cache for the same role only
+     */
+    @Test
+    public void testCachesVerifiedToken() {
+        final String token = tokenService.generateToken(EMAIL);
+        for (int i = 0; i < 10; i++) {
+            assertTrue(tokenService.validateToken(token, "doctor"));
+        }
+        verify(doctorRepository, times(1)).findByEmail(EMAIL);
+
+        assertFalse(tokenService.validateToken(token, "patient"));
+        assertFalse(tokenService.validateToken(token, "admin"));
+        final String forged = Jwts.builder()
+                .subject(EMAIL)
+                .expiration(new Date(System.currentTimeMillis() + 60_000))
+                .signWith(Keys.hmacShaKeyFor(SECRET.toUpperCase().getBytes(StandardCharsets.UTF_8)))
+                .compact();
+        assertFalse(tokenService.validateToken(forged, "doctor"));
+        assertFalse(tokenService.validateToken(null, "doctor"));
+        assertEquals(EMAIL, tokenService.extractEmail(token));
+    }
+
+    /**
+     * Test case to validate that the cached tokens of a deactivated user are verified again and rejected
+     */
+    @Test
+    public void testInvalidateDeactivatedUser() {
+        final String token = tokenService.generateToken(EMAIL);
+        assertTrue(tokenService.validateToken(token, "doctor"));
+
+        doctor.setActive(false);
+        assertTrue(tokenService.validateToken(token, "doctor"));
+        tokenService.invalidateUser("doctor", 1L);
+        assertFalse(tokenService.validateToken(token, "doctor"));
+        verify(doctorRepository, times(2)).findByEmail(EMAIL);
+    }
+
+    /**
+     * Test case to validate that a cached token stops being valid at its expiration
+     */
+    @Test
+    public void testEvictsAtExpiration() {
+        final String token = Jwts.builder()
+                .subject(EMAIL)
+                .expiration(Date.from(clock.instant().plusSeconds(60)))
+                .signWith(tokenService.getSigningKey())
+                .compact();
+        assertTrue(tokenService.validateToken(token, "doctor"));
+        clock.advance(Duration.ofSeconds(50));
+        assertTrue(tokenService.validateToken(token, "doctor"));
+        verify(doctorRepository, times(1)).findByEmail(EMAIL);
+
+        clock.advance(Duration.ofSeconds(20));
+        assertFalse(tokenService.validateToken(token, "doctor"));
+    }
+
+    /**
+     * Test case to validate the lookups for admins
+     */
+    @Test
+    public void testAdmin() {
+        Admin admin = new Admin("admin", "admin@1234");
+        admin.setId(2L);
+        when(adminRepository.findByUsername("admin")).thenReturn(admin);
+
+        assertTrue(tokenService.validateToken(tokenService.generateToken("admin"), "admin"));
+        assertFalse(tokenService.validateToken(tokenService.generateToken("nobody"), "admin"));
+    }
+
+    // a clock tests move forward instead of sleeping
+    private static final class MutableClock extends Clock {
+
+        private volatile Instant now;
+
+        MutableClock(Instant now) {
+            this.now = now;
+        }
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+    }
+}
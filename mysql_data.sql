@@ -1,6 +1,5 @@
 /*  FRLETE ALL DATA
 DELETE FROM cms.appointment;
-DELETE FROM cms.doctor_available_times;
 DELETE FROM cms.doctor ;
 DELETE FROM cms.admin;
 DELETE FROM cms.patient;
@@ -13,7 +12,7 @@ USE cms;
 SELECT * FROM doctor LIMIT 5;
 
 # View doctor availability
-SELECT * FROM doctor_available_times LIMIT 5;
+SELECT id, name, available_times FROM doctor LIMIT 5;
 
 # View patients
 SELECT * FROM patient LIMIT 5;
@@ -29,60 +28,32 @@ INSERT INTO admin (username, password)
     VALUES ('admin', 'admin@1234')
 ;
 
-INSERT INTO doctor (email, name, password, phone, specialty) VALUES
-     ('dr.adams@example.com', 'Dr. Emily Adams', 'pass12345', '555-101-2020', 'Cardiologist'),
-     ('dr.johnson@example.com', 'Dr. Mark Johnson', 'secure4567', '555-202-3030', 'Neurologist'),
-     ('dr.lee@example.com', 'Dr. Sarah Lee', 'leePass987', '555-303-4040', 'Orthopedist'),
-     ('dr.wilson@example.com', 'Dr. Tom Wilson', 'w!ls0nPwd', '555-404-5050', 'Pediatrician'),
-     ('dr.brown@example.com', 'Dr. Alice Brown', 'brownie123', '555-505-6060', 'Dermatologist'),
-     ('dr.taylor@example.com', 'Dr. Taylor Grant', 'taylor321', '555-606-7070', 'Cardiologist'),
-     ('dr.white@example.com', 'Dr. Sam White', 'whiteSecure1', '555-707-8080', 'Neurologist'),
-     ('dr.clark@example.com', 'Dr. Emma Clark', 'clarkPass456', '555-808-9090', 'Orthopedist'),
-     ('dr.davis@example.com', 'Dr. Olivia Davis', 'davis789', '555-909-0101', 'Pediatrician'),
-     ('dr.miller@example.com', 'Dr. Henry Miller', 'millertime!', '555-010-1111', 'Dermatologist'),
-     ('dr.moore@example.com', 'Dr. Ella Moore', 'ellapass33', '555-111-2222', 'Cardiologist'),
-     ('dr.martin@example.com', 'Dr. Leo Martin', 'martinpass', '555-222-3333', 'Neurologist'),
-     ('dr.jackson@example.com', 'Dr. Ivy Jackson', 'jackson11', '555-333-4444', 'Orthopedist'),
-     ('dr.thomas@example.com', 'Dr. Owen Thomas', 'thomasPWD', '555-444-5555', 'Pediatrician'),
-     ('dr.hall@example.com', 'Dr. Ava Hall', 'hallhall', '555-555-6666', 'Dermatologist'),
-     ('dr.green@example.com', 'Dr. Mia Green', 'greenleaf', '555-666-7777', 'Cardiologist'),
-     ('dr.baker@example.com', 'Dr. Jack Baker', 'bakeitup', '555-777-8888', 'Neurologist'),
-     ('dr.walker@example.com', 'Dr. Nora Walker', 'walkpass12', '555-888-9999', 'Orthopedist'),
-     ('dr.young@example.com', 'Dr. Liam Young', 'young123', '555-999-0000', 'Pediatrician'),
-     ('dr.king@example.com', 'Dr. Zoe King', 'kingkong1', '555-000-1111', 'Dermatologist'),
-     ('dr.scott@example.com', 'Dr. Lily Scott', 'scottish', '555-111-2223', 'Cardiologist'),
-     ('dr.evans@example.com', 'Dr. Lucas Evans', 'evansEv1', '555-222-3334', 'Neurologist'),
-     ('dr.turner@example.com', 'Dr. Grace Turner', 'turnerBurner', '555-333-4445', 'Orthopedist'),
-     ('dr.hill@example.com', 'Dr. Ethan Hill', 'hillclimb', '555-444-5556', 'Pediatrician'),
-     ('dr.ward@example.com', 'Dr. Ruby Ward', 'wardWard', '555-555-6667', 'Dermatologist')
-;
-
-INSERT INTO doctor_available_times (doctor_id, available_times) VALUES
-    (1, '09:00-10:00'), (1, '10:00-11:00'), (1, '11:00-12:00'), (1, '14:00-15:00'),
-    (2, '10:00-11:00'), (2, '11:00-12:00'), (2, '14:00-15:00'), (2, '15:00-16:00'),
-    (3, '09:00-10:00'), (3, '11:00-12:00'), (3, '14:00-15:00'), (3, '16:00-17:00'),
-    (4, '09:00-10:00'), (4, '10:00-11:00'), (4, '15:00-16:00'), (4, '16:00-17:00'),
-    (5, '09:00-10:00'), (5, '10:00-11:00'), (5, '14:00-15:00'), (5, '15:00-16:00'),
-    (6, '09:00-10:00'), (6, '10:00-11:00'), (6, '11:00-12:00'), (6, '14:00-15:00'),
-    (7, '09:00-10:00'), (7, '10:00-11:00'), (7, '15:00-16:00'), (7, '16:00-17:00'),
-    (8, '10:00-11:00'), (8, '11:00-12:00'), (8, '14:00-15:00'), (8, '15:00-16:00'),
-    (9, '09:00-10:00'), (9, '11:00-12:00'), (9, '13:00-14:00'), (9, '14:00-15:00'),
-    (10, '10:00-11:00'), (10, '11:00-12:00'), (10, '14:00-15:00'), (10, '16:00-17:00'),
-    (11, '09:00-10:00'), (11, '12:00-13:00'), (11, '14:00-15:00'), (11, '15:00-16:00'),
-    (12, '10:00-11:00'), (12, '11:00-12:00'), (12, '13:00-14:00'), (12, '14:00-15:00'),
-    (13, '13:00-14:00'), (13, '14:00-15:00'), (13, '15:00-16:00'), (13, '16:00-17:00'),
-    (14, '09:00-10:00'), (14, '10:00-11:00'), (14, '14:00-15:00'), (14, '16:00-17:00'),
-    (15, '10:00-11:00'), (15, '11:00-12:00'), (15, '13:00-14:00'), (15, '14:00-15:00'),
-    (16, '09:00-10:00'), (16, '11:00-12:00'), (16, '14:00-15:00'), (16, '16:00-17:00'),
-    (17, '09:00-10:00'), (17, '10:00-11:00'), (17, '11:00-12:00'), (17, '12:00-13:00'),
-    (18, '09:00-10:00'), (18, '10:00-11:00'), (18, '11:00-12:00'), (18, '15:00-16:00'),
-    (19, '13:00-14:00'), (19, '14:00-15:00'), (19, '15:00-16:00'), (19, '16:00-17:00'),
-    (20, '10:00-11:00'), (20, '13:00-14:00'), (20, '14:00-15:00'), (20, '15:00-16:00'),
-    (21, '09:00-10:00'), (21, '10:00-11:00'), (21, '14:00-15:00'), (21, '15:00-16:00'),
-    (22, '10:00-11:00'), (22, '11:00-12:00'), (22, '14:00-15:00'), (22, '16:00-17:00'),
-    (23, '11:00-12:00'), (23, '13:00-14:00'), (23, '15:00-16:00'), (23, '16:00-17:00'),
-    (24, '12:00-13:00'), (24, '13:00-14:00'), (24, '14:00-15:00'), (24, '15:00-16:00'),
-    (25, '09:00-10:00'), (25, '10:00-11:00'), (25, '14:00-15:00'), (25, '15:00-16:00')
+INSERT INTO doctor (email, name, password, phone, specialty, available_times) VALUES
+     ('dr.adams@example.com', 'Dr. Emily Adams', 'pass12345', '555-101-2020', 'Cardiologist', '09:00-10:00,10:00-11:00,11:00-12:00,14:00-15:00'),
+     ('dr.johnson@example.com', 'Dr. Mark Johnson', 'secure4567', '555-202-3030', 'Neurologist', '10:00-11:00,11:00-12:00,14:00-15:00,15:00-16:00'),
+     ('dr.lee@example.com', 'Dr. Sarah Lee', 'leePass987', '555-303-4040', 'Orthopedist', '09:00-10:00,11:00-12:00,14:00-15:00,16:00-17:00'),
+     ('dr.wilson@example.com', 'Dr. Tom Wilson', 'w!ls0nPwd', '555-404-5050', 'Pediatrician', '09:00-10:00,10:00-11:00,15:00-16:00,16:00-17:00'),
+     ('dr.brown@example.com', 'Dr. Alice Brown', 'brownie123', '555-505-6060', 'Dermatologist', '09:00-10:00,10:00-11:00,14:00-15:00,15:00-16:00'),
+     ('dr.taylor@example.com', 'Dr. Taylor Grant', 'taylor321', '555-606-7070', 'Cardiologist', '09:00-10:00,10:00-11:00,11:00-12:00,14:00-15:00'),
+     ('dr.white@example.com', 'Dr. Sam White', 'whiteSecure1', '555-707-8080', 'Neurologist', '09:00-10:00,10:00-11:00,15:00-16:00,16:00-17:00'),
+     ('dr.clark@example.com', 'Dr. Emma Clark', 'clarkPass456', '555-808-9090', 'Orthopedist', '10:00-11:00,11:00-12:00,14:00-15:00,15:00-16:00'),
+     ('dr.davis@example.com', 'Dr. Olivia Davis', 'davis789', '555-909-0101', 'Pediatrician', '09:00-10:00,11:00-12:00,13:00-14:00,14:00-15:00'),
+     ('dr.miller@example.com', 'Dr. Henry Miller', 'millertime!', '555-010-1111', 'Dermatologist', '10:00-11:00,11:00-12:00,14:00-15:00,16:00-17:00'),
+     ('dr.moore@example.com', 'Dr. Ella Moore', 'ellapass33', '555-111-2222', 'Cardiologist', '09:00-10:00,12:00-13:00,14:00-15:00,15:00-16:00'),
+     ('dr.martin@example.com', 'Dr. Leo Martin', 'martinpass', '555-222-3333', 'Neurologist', '10:00-11:00,11:00-12:00,13:00-14:00,14:00-15:00'),
+     ('dr.jackson@example.com', 'Dr. Ivy Jackson', 'jackson11', '555-333-4444', 'Orthopedist', '13:00-14:00,14:00-15:00,15:00-16:00,16:00-17:00'),
+     ('dr.thomas@example.com', 'Dr. Owen Thomas', 'thomasPWD', '555-444-5555', 'Pediatrician', '09:00-10:00,10:00-11:00,14:00-15:00,16:00-17:00'),
+     ('dr.hall@example.com', 'Dr. Ava Hall', 'hallhall', '555-555-6666', 'Dermatologist', '10:00-11:00,11:00-12:00,13:00-14:00,14:00-15:00'),
+     ('dr.green@example.com', 'Dr. Mia Green', 'greenleaf', '555-666-7777', 'Cardiologist', '09:00-10:00,11:00-12:00,14:00-15:00,16:00-17:00'),
+     ('dr.baker@example.com', 'Dr. Jack Baker', 'bakeitup', '555-777-8888', 'Neurologist', '09:00-10:00,10:00-11:00,11:00-12:00,12:00-13:00'),
+     ('dr.walker@example.com', 'Dr. Nora Walker', 'walkpass12', '555-888-9999', 'Orthopedist', '09:00-10:00,10:00-11:00,11:00-12:00,15:00-16:00'),
+     ('dr.young@example.com', 'Dr. Liam Young', 'young123', '555-999-0000', 'Pediatrician', '13:00-14:00,14:00-15:00,15:00-16:00,16:00-17:00'),
+     ('dr.king@example.com', 'Dr. Zoe King', 'kingkong1', '555-000-1111', 'Dermatologist', '10:00-11:00,13:00-14:00,14:00-15:00,15:00-16:00'),
+     ('dr.scott@example.com', 'Dr. Lily Scott', 'scottish', '555-111-2223', 'Cardiologist', '09:00-10:00,10:00-11:00,14:00-15:00,15:00-16:00'),
+     ('dr.evans@example.com', 'Dr. Lucas Evans', 'evansEv1', '555-222-3334', 'Neurologist', '10:00-11:00,11:00-12:00,14:00-15:00,16:00-17:00'),
+     ('dr.turner@example.com', 'Dr. Grace Turner', 'turnerBurner', '555-333-4445', 'Orthopedist', '11:00-12:00,13:00-14:00,15:00-16:00,16:00-17:00'),
+     ('dr.hill@example.com', 'Dr. Ethan Hill', 'hillclimb', '555-444-5556', 'Pediatrician', '12:00-13:00,13:00-14:00,14:00-15:00,15:00-16:00'),
+     ('dr.ward@example.com', 'Dr. Ruby Ward', 'wardWard', '555-555-6667', 'Dermatologist', '09:00-10:00,10:00-11:00,14:00-15:00,15:00-16:00')
 ;
 
 INSERT INTO patient (address, email, name, password, phone) VALUES